@@ -0,0 +1,104 @@
+package asiapacificairport;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The operations of CoordinationBenchmark under JMH, which takes care of forks, warmup, dead-code
+// elimination and the error bounds. Same zero-service-time, always sunny airport; the thread count
+// is JMH's -t option.
+//
+//   mvn -P jmh package
+//   java -jar target/benchmarks.jar CoordinationJmhBenchmark -t 4
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoordinationJmhBenchmark {
+
+    // One airport and allocator shared by every benchmark thread, fresh for each trial
+    @State(Scope.Benchmark)
+    public static class Airport {
+        private GateAllocator gates;
+        private AsiaPacificAirport airport;
+        private AirportStatistics statistics;
+        private OperationLog log;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            AirportLog.setQuiet(true); // Silence ATC chatter while measuring
+            AirportConfig config = CoordinationBenchmark.benchmarkConfig(Collections.emptyMap());
+            gates = config.newGateAllocator();
+            airport = new AsiaPacificAirport(config, 1); // Sunny throughout, so the weather seed is moot
+            statistics = new AirportStatistics();
+            log = new OperationLog();
+            log.log(OperationLog.Event.REQUESTED, 0);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            airport.getGroundServicesExecutor().shutdownNow();
+            airport.stopLockMonitor();
+        }
+    }
+
+    // Per-thread plane IDs, so concurrent planes never share one
+    @State(Scope.Thread)
+    public static class Caller {
+        private static final AtomicInteger nextThread = new AtomicInteger();
+        private final int thread = nextThread.getAndIncrement();
+        private long iteration;
+    }
+
+    // Gate claim then release on a bare GateAllocator, failed claims count as operations too
+    @Benchmark
+    public int gateClaimRelease(Airport state, Caller caller) {
+        String planeID = "B" + caller.thread;
+        int gate = state.gates.claim(planeID);
+        if (gate >= 0) {
+            state.gates.release(gate, planeID);
+        }
+        return gate;
+    }
+
+    // Landing request, grant, gate release and ground exit through AsiaPacificAirport's real path
+    @Benchmark
+    public int landingGrant(Airport state, Caller caller) throws Exception {
+        Plane plane = new Plane(state.airport, "L" + caller.thread + "-" + caller.iteration++, 1, false);
+        int gate = state.airport.addToLandingQueue(plane).get();
+        state.airport.releaseGate(gate, plane.getID());
+        state.airport.leaveGround();
+        return gate;
+    }
+
+    // One departed plane recorded into the shared statistics
+    @Benchmark
+    public long statisticsRecording(Airport state, Caller caller) {
+        long iteration = caller.iteration++;
+        state.statistics.record("S" + caller.thread, iteration & 0xFFFF, iteration & 0xFFF, 1, state.log);
+        state.statistics.recordRunwayOccupancy(iteration & 0xFF);
+        return iteration;
+    }
+
+    // A complete Plane.run: landing grant, runway, the ground-service task graph, departure and statistics
+    @Benchmark
+    public long fullTurnaround(Airport state, Caller caller) {
+        Plane plane = new Plane(state.airport, "T" + caller.thread + "-" + caller.iteration++, 1, false);
+        plane.run();
+        return plane.getArrivalTime();
+    }
+}
@@ -1,79 +1,197 @@
 package asiapacificairport;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Random;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class AirTrafficControlSystem {
-    private static final int TOTAL_PLANES = 6;
-    private static final int MAX_PASSENGERS = 50;
-    private static final Random rand = new Random();
-    private static CountDownLatch planeCompletionLatch;
-
-    public static void main(String[] args) {
-        planeCompletionLatch = new CountDownLatch(TOTAL_PLANES);
-
-        System.out.println("*** Asia Pacific Airport Simulation Started ***\n");
-        System.out.println("Initializing airport with 3 gates and 1 runway...\n");
-        System.out.println("Current Weather: " + Weather.getCurrentWeather() + "\n");
-
-        // Start the weather monitoring system
-        Weather weatherMonitor = new Weather();
-        weatherMonitor.setDaemon(true); // Set as daemon so it terminates with main thread
-        weatherMonitor.start();
-
-        // Create and start plane threads with completion tracking
-        for (int i = 1; i <= TOTAL_PLANES; i++) {
-            int passengers = rand.nextInt(MAX_PASSENGERS) + 1; // 1–50 passengers
-            boolean emergency = (i == 5); // 5th plane has emergency landing (for congested scenario)
-
-            PlaneWithCompletion plane = new PlaneWithCompletion("P" + i, passengers, emergency, planeCompletionLatch);
-            plane.start();
-
-            try {
-                // If we're about to create plane 5 (emergency), ensure we have congestion
-                if (i == 4) {
-                    System.out.println("ATC     : Two planes approaching the airport");
-                    Thread.sleep(1000); // Ensure some congestion before emergency plane arrives
-                } else {
-                    Thread.sleep(rand.nextInt(2000)); // Random arrival every 0–2 seconds
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+    private static final int DEFAULT_TOTAL_PLANES = 6;
+    private static final int DEFAULT_POOL_SIZE = 64; // Plane threads in bounded executor mode
+
+    // Usage: AirTrafficControlSystem [--mode=realtime|simulated] [--scenario=file] [--planes=N] [--seed=S]
+    //                               [--executor=platform|virtual|bounded] [--pool-size=N]
+    //                               [--runways=mixed|arrival|departure,...] [--separation=ms] [--set key=value]...
+    //                               [--log=stdout|quiet|file] [--journal=file] [--samples=file.csv|file.json]
+    //                               [--metrics-port=N]
+    public static void main(String[] args) throws IOException {
+        CommandLine commandLine = new CommandLine(args);
+        String mode = commandLine.getString("mode", "realtime");
+        String scenarioFile = commandLine.getString("scenario", null);
+        int totalPlanes = commandLine.getInt("planes", DEFAULT_TOTAL_PLANES);
+        Long seed = commandLine.has("seed") ? commandLine.getLong("seed", 0) : null;
+        ExecutionMode executionMode = ExecutionMode.fromName(commandLine.getString("executor", "platform"));
+        int poolSize = commandLine.getInt("pool-size", DEFAULT_POOL_SIZE);
+        Path journalFile = commandLine.getPath("journal");
+        Path samplesFile = commandLine.getPath("samples");
+        Integer metricsPort = commandLine.has("metrics-port") ? commandLine.getInt("metrics-port", 0) : null;
+        // The runway shortcuts are settings too, an explicit --set wins
+        Map<String, String> overrides = new HashMap<>();
+        if (commandLine.has("runways")) {
+            overrides.put("runways", commandLine.getString("runways", null));
+        }
+        if (commandLine.has("separation")) {
+            overrides.put("runway-separation", commandLine.getString("separation", null));
         }
+        overrides.putAll(commandLine.getOverrides());
+        commandLine.configureLog();
+        commandLine.finish();
 
-        // Wait for all planes to complete
         try {
-            planeCompletionLatch.await();
+            // A scenario file brings its own schedule and settings, command line settings win
+            long defaultSeed = (seed != null) ? seed : new Random().nextLong();
+            Scenario scenario = (scenarioFile != null)
+                    ? ScenarioLoader.load(Paths.get(scenarioFile), defaultSeed)
+                    : new Scenario(defaultSeed, totalPlanes);
+            if (seed != null) {
+                scenario = scenario.withSeed(seed);
+            }
+            scenario = scenario.withConfig(scenario.getConfig().with(overrides));
+            if (samplesFile != null && scenario.getConfig().getSampleInterval() == 0) {
+                // Exporting samples turns sampling on, once a second unless configured otherwise
+                Map<String, String> sampling = new HashMap<>();
+                sampling.put("sample-interval", "1000");
+                scenario = scenario.withConfig(scenario.getConfig().with(sampling));
+            }
 
-            // Give small delay to ensure all operations finish
-            Thread.sleep(500);
+            if (mode.equals("simulated")) {
+                runSimulated(scenario, journalFile, samplesFile);
+            } else if (mode.equals("realtime")) {
+                runRealTime(scenario, executionMode, poolSize, journalFile, samplesFile, metricsPort);
+            } else {
+                throw new IllegalArgumentException("Unknown mode: " + mode);
+            }
+        } finally {
+            AirportLog.close(); // Write what is left and close a --log file
+        }
+    }
 
-            // Print statistics
-            System.out.println("\n***All planes processed, generating report...***");
-            AsiaPacificAirport.printStatistics();
+    // Replay the scenario on a virtual clock, no real waiting
+    private static void runSimulated(Scenario scenario, Path journalFile, Path samplesFile) throws IOException {
+        System.out.println("*** Asia Pacific Airport Simulation Started (discrete-event mode, seed " + scenario.getSeed() + ") ***\n");
+        long startTime = System.currentTimeMillis();
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(scenario);
+        RunJournal journal = (journalFile != null) ? new RunJournal(journalFile, 0) : null;
+        simulation.setJournal(journal);
+        simulation.run();
+        if (journal != null) {
+            journal.close();
+            System.out.println("Journal : " + journal.getRecordCount() + " records written to " + journalFile);
+        }
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            System.out.println("ATC     : Simulation interrupted");
+        System.out.println("***All planes processed in " + (System.currentTimeMillis() - startTime) +
+                " ms wall time, generating report...***");
+        simulation.printStatistics();
+        if (samplesFile != null) {
+            simulation.getSampler().export(samplesFile);
+            System.out.println("Samples : " + simulation.getSampler().size() + " written to " + samplesFile);
         }
     }
-    
-    // Inner class to track plane completion
-    private static class PlaneWithCompletion extends Plane {
-        private CountDownLatch completionLatch;
-        
-        public PlaneWithCompletion(String planeID, int passengers, boolean emergency, CountDownLatch latch) {
-            super(planeID, passengers, emergency);
-            this.completionLatch = latch;
+
+    // Run the scenario in real time, planes and ground operations on the chosen executors
+    private static void runRealTime(Scenario scenario, ExecutionMode executionMode, int poolSize, Path journalFile,
+                                    Path samplesFile, Integer metricsPort) throws IOException {
+        AsiaPacificAirport airport = new AsiaPacificAirport("APA", scenario.getConfig(), scenario.weatherForecast());
+        RunJournal journal = (journalFile != null) ? new RunJournal(journalFile, System.currentTimeMillis()) : null;
+        airport.setJournal(journal);
+
+        AirportLog.log("*** Asia Pacific Airport Simulation Started (seed " + scenario.getSeed() +
+                ", " + executionMode + " executor) ***\n");
+        AirportLog.log("Initializing airport with " + airport.getGateCount() + " gates and " +
+                airport.getRunwayCount() + " runway(s)...\n");
+        AirportLog.log("Current Weather: " + airport.getWeather().getCurrentWeather() + "\n");
+
+        // Every ground task holds one crew and never blocks, so one thread per crew is enough
+        ExecutorService planeExecutor = executionMode.newExecutor("Plane", poolSize);
+        ExecutorService groundServices = executionMode.newExecutor("GroundService", airport.getGroundCrewCount());
+        airport.setGroundServicesExecutor(groundServices);
+
+        // Live metrics over JMX, and over HTTP on request
+        AirportMetrics metrics = new AirportMetrics(airport);
+        metrics.register();
+        MetricsServer metricsServer = null;
+        if (metricsPort != null) {
+            metricsServer = new MetricsServer(metricsPort, Collections.singletonList(metrics));
+            metricsServer.start();
+            AirportLog.log("Monitor : Live metrics at http://127.0.0.1:" + metricsServer.getPort() + "/metrics\n");
         }
-        
-        @Override
-        public void run() {
-            try {
-                super.run();
-            } finally {
-                completionLatch.countDown();
+
+        // Start the weather monitoring system, a daemon so it terminates with the main thread. Its timeline
+        // and the arrivals count from the same start time, as in the discrete-event mode
+        long startTime = System.currentTimeMillis();
+        airport.startWeather(startTime);
+        airport.startSampler();
+
+        // Launch each plane's pipeline at its scheduled arrival time. The stream may be open-ended, so
+        // count planes still flying rather than fixing the total up front; the stream itself holds one count
+        AtomicInteger outstanding = new AtomicInteger(1);
+        CompletableFuture<Void> lastDeparture = new CompletableFuture<>();
+        Iterator<Scenario.Arrival> arrivals = scenario.arrivals();
+        try {
+            while (arrivals.hasNext() && !Thread.currentThread().isInterrupted()) {
+                Scenario.Arrival arrival = arrivals.next();
+                try {
+                    long delay = startTime + arrival.getTime() - System.currentTimeMillis();
+                    if (delay > 0) {
+                        Thread.sleep(delay);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+
+                outstanding.incrementAndGet();
+                Plane plane = new Plane(airport, arrival.getPlaneID(), arrival.getPassengers(), arrival.getPriority());
+                plane.fly(planeExecutor).whenComplete((done, error) -> {
+                    if (outstanding.decrementAndGet() == 0) {
+                        lastDeparture.complete(null);
+                    }
+                });
+            }
+            if (outstanding.decrementAndGet() == 0) {
+                lastDeparture.complete(null);
+            }
+
+            // The run ends exactly when the last plane's pipeline completes
+            lastDeparture.get();
+            airport.getSampler().stop();
+            AirportLog.log("\n***All planes processed, generating report...***");
+            airport.printStatistics();
+            if (samplesFile != null) {
+                airport.getSampler().export(samplesFile);
+                AirportLog.log("Samples : " + airport.getSampler().size() + " written to " + samplesFile);
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            AirportLog.log("ATC     : Simulation interrupted");
+            AirportLog.flush();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Plane tracking failed", e.getCause());
+        } finally {
+            planeExecutor.shutdown();
+            groundServices.shutdown();
+            airport.stopLockMonitor();
+            if (metricsServer != null) {
+                metricsServer.stop();
+            }
+            metrics.unregister();
+            if (journal != null) {
+                journal.close();
+                AirportLog.log("Journal : " + journal.getRecordCount() + " records written to " + journalFile);
+                AirportLog.flush();
+            }
+            if (arrivals instanceof Closeable) {
+                ((Closeable) arrivals).close(); // A schedule file left unread when the run was interrupted
             }
         }
     }
@@ -0,0 +1,379 @@
+package asiapacificairport;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Airport size, service durations and weather model, read from "key = value" settings.
+// Every key is optional, missing keys keep the original hard-coded values. Like CommandLine, the
+// constructor rejects any key it did not read, so a mistyped setting fails instead of being ignored.
+public class AirportConfig {
+    private final Map<String, String> settings;
+    private final Set<String> known = new HashSet<>();
+
+    private final int gates;
+    private final int[] gateCapacities;
+    private final String gateStrategy;
+    private final int gateLookahead;
+    private final int groundCapacity;
+    private final int refuelingTrucks;
+    private final int boardingBridges;
+    private final int cateringTrucks;
+    private final int cleaningCrews;
+    private final String runways;
+    private final long runwaySeparation;
+
+    private final int landingTime;
+    private final int coastToGateTime;
+    private final int refillTime;
+    private final int cleaningTime;
+    private final int disembarkTime;
+    private final int embarkTime;
+    private final int refuelTime;
+    private final int undockTime;
+    private final int coastToRunwayTime;
+    private final int landingRequestTimeout;
+    private final int stageTimeout;
+    private final int stallLimit;
+    private final int meterQueueLimit;
+    private final int maxAirHold;
+    private final int meterWeatherPercent;
+    private final int sampleInterval;
+    private final int sampleCapacity;
+
+    private final String weatherModel;
+    private final int minWeatherInterval;
+    private final int maxWeatherInterval;
+    private final String weatherSequence;
+    private final int weatherForecastHorizon;
+    private final int rainyDelay;
+    private final int snowyDelay;
+    private final int thunderstormDelay;
+
+    public AirportConfig(Map<String, String> settings) {
+        this.settings = new HashMap<>(settings);
+
+        gates = intSetting("gates", 3);
+        gateCapacities = capacities(stringSetting("gate-capacities", ""), gates);
+        gateStrategy = stringSetting("gate-strategy", "first-fit");
+        gateLookahead = intSetting("gate-lookahead", 8);
+        groundCapacity = intSetting("ground-capacity", 3);
+        refuelingTrucks = intSetting("refueling-trucks", 1);
+        boardingBridges = intSetting("boarding-bridges", gates); // One per gate
+        cateringTrucks = intSetting("catering-trucks", groundCapacity); // Enough for every plane on the ground
+        cleaningCrews = intSetting("cleaning-crews", groundCapacity);
+        runways = stringSetting("runways", "mixed");
+        runwaySeparation = durationSetting("runway-separation", 0);
+
+        landingTime = durationSetting("landing-time", 1000);
+        coastToGateTime = durationSetting("coast-to-gate-time", 1000);
+        refillTime = durationSetting("refill-time", 1000);
+        cleaningTime = durationSetting("cleaning-time", 1000);
+        disembarkTime = durationSetting("disembark-time", 1000);
+        embarkTime = durationSetting("embark-time", 1000);
+        refuelTime = durationSetting("refuel-time", 1000);
+        undockTime = durationSetting("undock-time", 1000);
+        coastToRunwayTime = durationSetting("coast-to-runway-time", 1000);
+        landingRequestTimeout = durationSetting("landing-request-timeout", 0); // 0 = wait as long as it takes
+        stageTimeout = durationSetting("stage-timeout", 0); // 0 = no limit once cleared to land
+        stallLimit = durationSetting("stall-limit", 0); // 0 = lock monitoring off
+        meterQueueLimit = intSetting("meter-queue-limit", 0); // 0 = arrival metering off
+        maxAirHold = durationSetting("max-air-hold", 0); // 0 = metered planes never divert
+        meterWeatherPercent = intSetting("meter-weather-percent", 50);
+        sampleInterval = intSetting("sample-interval", 0); // 0 = no utilisation sampling
+        sampleCapacity = intSetting("sample-capacity", 65536);
+
+        weatherModel = stringSetting("weather", "random");
+        int[] interval = durationRange("weather-interval", "4000-6999");
+        minWeatherInterval = interval[0];
+        maxWeatherInterval = interval[1];
+        weatherSequence = stringSetting("weather-sequence", "");
+        weatherForecastHorizon = durationSetting("weather-forecast-horizon", 0); // 0 = react to the current weather only
+        rainyDelay = durationSetting("rainy-delay", 4000);
+        snowyDelay = durationSetting("snowy-delay", 4000);
+        thunderstormDelay = durationSetting("thunderstorm-delay", 7000);
+
+        if (gates < 1 || groundCapacity < 1 || refuelingTrucks < 1) {
+            throw new IllegalArgumentException("gates, ground-capacity and refueling-trucks must be at least 1");
+        }
+        if (boardingBridges < 1 || cateringTrucks < 1 || cleaningCrews < 1) {
+            throw new IllegalArgumentException("boarding-bridges, catering-trucks and cleaning-crews must be at least 1");
+        }
+        if (meterWeatherPercent < 1 || meterWeatherPercent > 100) {
+            throw new IllegalArgumentException("meter-weather-percent must be between 1 and 100");
+        }
+        if (sampleInterval < 0 || sampleCapacity < 1) {
+            throw new IllegalArgumentException("sample-interval must not be negative and sample-capacity must be at least 1");
+        }
+        GateAssignmentStrategy.parse(gateStrategy, gateLookahead); // Fail at startup on a bad name
+        if (!weatherModel.equals("random") && !weatherModel.equals("sequence") && !weatherModel.equals("fixed")) {
+            throw new IllegalArgumentException("Unknown weather model: " + weatherModel);
+        }
+        if (!weatherModel.equals("random")) {
+            WeatherTimeline.parseSequence(weatherModel, weatherSequence); // Fail at startup on a bad sequence
+        }
+        for (String key : settings.keySet()) {
+            if (!known.contains(key)) {
+                throw new IllegalArgumentException("Unknown setting: " + key);
+            }
+        }
+    }
+
+    // The original airport: 3 gates, 3 ground slots, 1 runway, 1 refuelling truck, 1 second per phase
+    public static AirportConfig defaults() {
+        return new AirportConfig(new HashMap<>());
+    }
+
+    // Copy with some settings replaced, e.g. from the command line
+    public AirportConfig with(Map<String, String> overrides) {
+        Map<String, String> merged = new HashMap<>(settings);
+        merged.putAll(overrides);
+        return new AirportConfig(merged);
+    }
+
+    public AirportConfig with(String key, String value) {
+        Map<String, String> override = new HashMap<>();
+        override.put(key, value);
+        return with(override);
+    }
+
+    public String getSetting(String key) {
+        return settings.get(key);
+    }
+
+    public int getGates() {
+        return gates;
+    }
+
+    // Passenger capacity of every gate, unlimited unless gate-capacities is set
+    public int[] getGateCapacities() {
+        return gateCapacities.clone();
+    }
+
+    public GateAllocator newGateAllocator() {
+        return new GateAllocator(gateCapacities);
+    }
+
+    public GateAssignmentStrategy newGateStrategy() {
+        return GateAssignmentStrategy.parse(gateStrategy, gateLookahead);
+    }
+
+    public int getGroundCapacity() {
+        return groundCapacity;
+    }
+
+    public int getRefuelingTrucks() {
+        return refuelingTrucks;
+    }
+
+    // Size of each ground crew pool
+    public int getCrews(GroundServices.Crew crew) {
+        switch (crew) {
+            case BOARDING_BRIDGE:
+                return boardingBridges;
+            case CATERING_TRUCK:
+                return cateringTrucks;
+            case CLEANING_CREW:
+                return cleaningCrews;
+            default:
+                return refuelingTrucks;
+        }
+    }
+
+    public RunwaySystem newRunwaySystem() {
+        return RunwaySystem.parse(runways, runwaySeparation);
+    }
+
+    public long getRunwaySeparation() {
+        return runwaySeparation;
+    }
+
+    public int getLandingTime() {
+        return landingTime;
+    }
+
+    public int getCoastToGateTime() {
+        return coastToGateTime;
+    }
+
+    public int getRefillTime() {
+        return refillTime;
+    }
+
+    public int getCleaningTime() {
+        return cleaningTime;
+    }
+
+    public int getDisembarkTime() {
+        return disembarkTime;
+    }
+
+    public int getEmbarkTime() {
+        return embarkTime;
+    }
+
+    public int getRefuelTime() {
+        return refuelTime;
+    }
+
+    public int getUndockTime() {
+        return undockTime;
+    }
+
+    public int getCoastToRunwayTime() {
+        return coastToRunwayTime;
+    }
+
+    // How long a plane waits for a landing slot before it diverts, 0 for no limit
+    public int getLandingRequestTimeout() {
+        return landingRequestTimeout;
+    }
+
+    // Longest a cleared plane's landing, turnaround or departure may take before the caller stops waiting
+    // for it and it is counted as a stage timeout, 0 for no limit
+    public int getStageTimeout() {
+        return stageTimeout;
+    }
+
+    // Longest wait on a lock, runway or landing slot before the lock monitor reports a stall, 0 for off
+    public int getStallLimit() {
+        return stallLimit;
+    }
+
+    // Landing queue length beyond which inbound planes are given slot times, 0 for no metering
+    public int getMeterQueueLimit() {
+        return meterQueueLimit;
+    }
+
+    // Longest air hold a metered plane accepts before it diverts, 0 for no diversions
+    public int getMaxAirHold() {
+        return maxAirHold;
+    }
+
+    // Landing rate the meter targets in bad weather, as a percentage of the sunny rate
+    public int getMeterWeatherPercent() {
+        return meterWeatherPercent;
+    }
+
+    // ms between utilisation samples, 0 if sampling is off
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    // Utilisation samples kept, older ones are overwritten
+    public int getSampleCapacity() {
+        return sampleCapacity;
+    }
+
+    public String getWeatherModel() {
+        return weatherModel;
+    }
+
+    public int getMinWeatherInterval() {
+        return minWeatherInterval;
+    }
+
+    public int getMaxWeatherInterval() {
+        return maxWeatherInterval;
+    }
+
+    // "condition:duration,..." played in a loop by the sequence model, first entry by the fixed model
+    public String getWeatherSequence() {
+        return weatherSequence;
+    }
+
+    // How far ahead the landing and departure schedulers can see the weather, 0 for no forecast
+    public int getWeatherForecastHorizon() {
+        return weatherForecastHorizon;
+    }
+
+    // Hold time for planes in a given condition
+    public int getWeatherDelay(Weather.WeatherCondition condition) {
+        switch (condition) {
+            case RAINY:
+                return rainyDelay;
+            case SNOWY:
+                return snowyDelay;
+            case THUNDERSTORM:
+                return thunderstormDelay;
+            default:
+                return 0;
+        }
+    }
+
+    private String stringSetting(String key, String defaultValue) {
+        known.add(key);
+        String value = settings.get(key);
+        return (value == null) ? defaultValue : value.trim();
+    }
+
+    private int intSetting(String key, int defaultValue) {
+        known.add(key);
+        String value = settings.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Setting " + key + " must be a number, got: " + value);
+        }
+    }
+
+    // A time in ms, never negative
+    private int durationSetting(String key, int defaultValue) {
+        int value = intSetting(key, defaultValue);
+        if (value < 0) {
+            throw new IllegalArgumentException("Setting " + key + " must not be negative, got: " + value);
+        }
+        return value;
+    }
+
+    // A "min-max" range of ms, never negative
+    private int[] durationRange(String key, String defaultValue) {
+        String value = stringSetting(key, defaultValue);
+        try {
+            return range(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Setting " + key + " must be a range of ms such as 4000-6999, got: " + value);
+        }
+    }
+
+    // Parse "c1,c2,..." with one capacity per gate, or a single capacity for every gate; empty for no limit
+    static int[] capacities(String value, int gates) {
+        int[] capacities = new int[gates];
+        if (value.isEmpty()) {
+            Arrays.fill(capacities, Integer.MAX_VALUE);
+            return capacities;
+        }
+        String[] parts = value.split(",");
+        if (parts.length != 1 && parts.length != gates) {
+            throw new IllegalArgumentException("gate-capacities needs 1 or " + gates + " values, got: " + value);
+        }
+        for (int i = 0; i < gates; i++) {
+            String part = parts[(parts.length == 1) ? 0 : i].trim();
+            try {
+                capacities[i] = Integer.parseInt(part);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("gate-capacities must be numbers, got: " + value);
+            }
+            if (capacities[i] < 1) {
+                throw new IllegalArgumentException("gate-capacities must be at least 1, got: " + value);
+            }
+        }
+        return capacities;
+    }
+
+    // Parse "a-b" or a single value into {min, max}
+    static int[] range(String value) {
+        String[] parts = value.trim().split("-");
+        int min = Integer.parseInt(parts[0].trim());
+        int max = (parts.length > 1) ? Integer.parseInt(parts[1].trim()) : min;
+        if (max < min) {
+            throw new IllegalArgumentException("Invalid range: " + value);
+        }
+        return new int[] {min, max};
+    }
+}
@@ -0,0 +1,190 @@
+package asiapacificairport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Asynchronous console log for the real-time simulation. Planes, ATC and weather only enqueue a line
+// on a lock-free queue, a single writer thread drains it in batches to stdout or a file, so no
+// airport lock is ever held across console I/O. Quiet mode drops lines before they are queued, and
+// log(Supplier) leaves building the text to the writer thread. At most MAX_PENDING lines wait for
+// the writer: past that, lines are dropped and counted rather than growing the heap behind a slow console.
+public class AirportLog {
+    private static final int MAX_BATCH = 256;
+    private static final int MAX_PENDING = 65536;
+
+    private static final LinkedTransferQueue<Object> pending = new LinkedTransferQueue<>();
+    private static final AtomicInteger pendingLines = new AtomicInteger();
+    private static final AtomicLong droppedLines = new AtomicLong();
+    private static volatile boolean quiet = false;
+
+    // Where the writer thread prints, only ever changed by the writer thread itself
+    private static PrintStream out = System.out;
+    private static boolean ownsOut = false; // Opened by setOutput(Path), so closed when the output changes
+
+    // Single writer, a daemon so it never keeps the JVM alive
+    static {
+        Thread writer = new Thread(AirportLog::drain, "AirportLog");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Marker that lets flush() wait until everything queued before it has been written, and then
+    // optionally switches the writer to a new output
+    private static final class FlushMarker {
+        private final CountDownLatch written = new CountDownLatch(1);
+        private final PrintStream nextOutput; // null to keep the current output
+        private final boolean ownsNextOutput;
+
+        FlushMarker(PrintStream nextOutput, boolean ownsNextOutput) {
+            this.nextOutput = nextOutput;
+            this.ownsNextOutput = ownsNextOutput;
+        }
+    }
+
+    // Queue one line for the writer thread
+    public static void log(String line) {
+        if (isEnabled()) {
+            enqueue(line);
+        }
+    }
+
+    // Queue a line that the writer thread builds, nothing at all in quiet mode. The supplier runs later on
+    // another thread, so it must only use values captured at the call, never state guarded by a lock
+    public static void log(Supplier<String> line) {
+        if (isEnabled()) {
+            enqueue(line);
+        }
+    }
+
+    // Queue a line that must be seen even in quiet mode, such as a stall report
+    public static void warn(String line) {
+        enqueue(line);
+    }
+
+    // Whether lines are being written, to skip work that only feeds the log
+    public static boolean isEnabled() {
+        return !quiet;
+    }
+
+    public static boolean isQuiet() {
+        return quiet;
+    }
+
+    // Quiet mode for benchmarks: chatter is dropped, warnings and reports printed with System.out still appear
+    public static void setQuiet(boolean quietMode) {
+        quiet = quietMode;
+    }
+
+    // Lines dropped so far because MAX_PENDING lines were already waiting
+    static long getDroppedLines() {
+        return droppedLines.get();
+    }
+
+    // Send log lines to a file instead of stdout, closed by close() or the next setOutput
+    public static void setOutput(Path file) {
+        try {
+            switchOutput(new PrintStream(Files.newOutputStream(file), false, "UTF-8"), true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void setOutput(OutputStream stream) {
+        switchOutput((stream instanceof PrintStream) ? (PrintStream) stream : new PrintStream(stream, false), false);
+    }
+
+    // Write everything queued, close a log file opened by setOutput(Path) and go back to stdout
+    public static void close() {
+        switchOutput(System.out, false);
+    }
+
+    // Block until every line queued so far has been written, call before printing a report
+    public static void flush() {
+        switchOutput(null, false);
+    }
+
+    private static void switchOutput(PrintStream nextOutput, boolean ownsNextOutput) {
+        FlushMarker marker = new FlushMarker(nextOutput, ownsNextOutput);
+        pending.offer(marker); // Never dropped, or flush() would wait forever
+        try {
+            marker.written.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void enqueue(Object line) {
+        if (pendingLines.incrementAndGet() > MAX_PENDING) {
+            pendingLines.decrementAndGet();
+            droppedLines.incrementAndGet();
+            return;
+        }
+        pending.offer(line);
+    }
+
+    // Writer loop: wait for one record, then take whatever else is queued and write it in one go
+    private static void drain() {
+        List<Object> batch = new ArrayList<>(MAX_BATCH);
+        long reportedDrops = 0;
+        while (true) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            pending.drainTo(batch, MAX_BATCH - 1);
+
+            StringBuilder text = new StringBuilder();
+            long dropped = droppedLines.get();
+            if (dropped != reportedDrops) {
+                text.append("AirportLog: ").append(dropped - reportedDrops)
+                    .append(" lines dropped, the log could not keep up").append(System.lineSeparator());
+                reportedDrops = dropped;
+            }
+            for (Object record : batch) {
+                if (record instanceof FlushMarker) {
+                    FlushMarker marker = (FlushMarker) record;
+                    out.print(text);
+                    out.flush();
+                    text.setLength(0);
+                    if (marker.nextOutput != null && marker.nextOutput != out) {
+                        if (ownsOut) {
+                            out.close();
+                        }
+                        out = marker.nextOutput;
+                        ownsOut = marker.ownsNextOutput;
+                    }
+                    marker.written.countDown();
+                    continue;
+                }
+                pendingLines.decrementAndGet();
+                text.append(render(record)).append(System.lineSeparator());
+            }
+            out.print(text);
+            out.flush();
+            batch.clear();
+        }
+    }
+
+    private static String render(Object record) {
+        if (!(record instanceof Supplier)) {
+            return String.valueOf(record);
+        }
+        try {
+            return String.valueOf(((Supplier<?>) record).get());
+        } catch (RuntimeException e) {
+            return "AirportLog: could not build a line: " + e; // Never let one bad line stop the writer
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package asiapacificairport;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Live metrics of one airport, published as an MXBean and rendered as JSON for MetricsServer. Reads
+// only volatile and atomic gauges, the lock-free gate allocator and statistics; never landingLock,
+// runwayLock or consoleLock.
+public class AirportMetrics implements AirportMetricsMXBean {
+    private final AsiaPacificAirport airport;
+
+    public AirportMetrics(AsiaPacificAirport airport) {
+        this.airport = airport;
+    }
+
+    // Register with the platform MBean server as asiapacificairport:type=Airport,name=<code>
+    public void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = objectName();
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register metrics for airport " + airport.getCode(), e);
+        }
+    }
+
+    public void unregister() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName())) {
+                server.unregisterMBean(objectName());
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot unregister metrics for airport " + airport.getCode(), e);
+        }
+    }
+
+    private ObjectName objectName() throws JMException {
+        return new ObjectName("asiapacificairport:type=Airport,name=" + ObjectName.quote(airport.getCode()));
+    }
+
+    @Override
+    public String getAirport() {
+        return airport.getCode();
+    }
+
+    @Override
+    public long getUptime() {
+        return airport.getUptime();
+    }
+
+    @Override
+    public int getPlanesInAir() {
+        return airport.getPlanesInAir();
+    }
+
+    @Override
+    public int getLandingQueueLength() {
+        return airport.getLandingQueueDepth();
+    }
+
+    @Override
+    public int getMeteredHolding() {
+        return airport.getMeteredHolding();
+    }
+
+    @Override
+    public int getGatesInUse() {
+        return airport.getGatesInUse();
+    }
+
+    @Override
+    public int getGateCount() {
+        return airport.getGateCount();
+    }
+
+    @Override
+    public int getPlanesOnGround() {
+        return airport.getPlanesOnGround();
+    }
+
+    @Override
+    public int getRunwaysOccupied() {
+        return airport.getRunwaysOccupied();
+    }
+
+    @Override
+    public String[] getRunwayStates() {
+        List<Runway> runways = airport.getRunways();
+        String[] states = new String[runways.size()];
+        for (int i = 0; i < states.length; i++) {
+            Runway runway = runways.get(i);
+            Runway.Movement movement = runway.getActiveMovement();
+            states[i] = runway.getNumber() + " (" + runway.getMode() + "): " + (movement != null ? movement : "free");
+        }
+        return states;
+    }
+
+    @Override
+    public String getWeather() {
+        return airport.getWeather().getCurrentWeather().toString();
+    }
+
+    @Override
+    public long getPlanesServed() {
+        return airport.getStatistics().getPlanesServed();
+    }
+
+    @Override
+    public long getDiversions() {
+        return airport.getStatistics().getDiversions();
+    }
+
+    @Override
+    public long getRecentWaitP50() {
+        return RollingLatencies.percentile(airport.getStatistics().getRecentWaitingTimes().snapshot(), 0.50);
+    }
+
+    @Override
+    public long getRecentWaitP90() {
+        return RollingLatencies.percentile(airport.getStatistics().getRecentWaitingTimes().snapshot(), 0.90);
+    }
+
+    @Override
+    public long getRecentWaitP99() {
+        return RollingLatencies.percentile(airport.getStatistics().getRecentWaitingTimes().snapshot(), 0.99);
+    }
+
+    @Override
+    public long getWaitP50() {
+        return airport.getStatistics().getWaitingTimes().getPercentile(0.50);
+    }
+
+    @Override
+    public long getWaitP99() {
+        return airport.getStatistics().getWaitingTimes().getPercentile(0.99);
+    }
+
+    // Every attribute as one JSON object, the recent-wait window sorted once for all three percentiles
+    public String toJson() {
+        long[] recentWaits = airport.getStatistics().getRecentWaitingTimes().snapshot();
+        StringBuilder json = new StringBuilder(512);
+        json.append("{\"airport\": \"").append(getAirport()).append('"')
+                .append(", \"uptimeMs\": ").append(getUptime())
+                .append(", \"planesInAir\": ").append(getPlanesInAir())
+                .append(", \"landingQueueLength\": ").append(getLandingQueueLength())
+                .append(", \"meteredHolding\": ").append(getMeteredHolding())
+                .append(", \"gatesInUse\": ").append(getGatesInUse())
+                .append(", \"gateCount\": ").append(getGateCount())
+                .append(", \"planesOnGround\": ").append(getPlanesOnGround())
+                .append(", \"runwaysOccupied\": ").append(getRunwaysOccupied())
+                .append(", \"runways\": [");
+        String[] runways = getRunwayStates();
+        for (int i = 0; i < runways.length; i++) {
+            json.append(i > 0 ? ", \"" : "\"").append(runways[i]).append('"');
+        }
+        json.append("], \"weather\": \"").append(getWeather()).append('"')
+                .append(", \"planesServed\": ").append(getPlanesServed())
+                .append(", \"diversions\": ").append(getDiversions())
+                .append(", \"recentWaitMs\": {\"count\": ").append(recentWaits.length)
+                .append(", \"p50\": ").append(RollingLatencies.percentile(recentWaits, 0.50))
+                .append(", \"p90\": ").append(RollingLatencies.percentile(recentWaits, 0.90))
+                .append(", \"p99\": ").append(RollingLatencies.percentile(recentWaits, 0.99)).append('}')
+                .append(", \"waitMs\": {\"p50\": ").append(getWaitP50())
+                .append(", \"p99\": ").append(getWaitP99()).append("}}");
+        return json.toString();
+    }
+}
@@ -0,0 +1,44 @@
+package asiapacificairport;
+
+// Live view of one running airport over JMX, e.g. in jconsole under asiapacificairport:type=Airport.
+// Every attribute is read from lock-free gauges, so monitoring never slows the simulation down.
+public interface AirportMetricsMXBean {
+    String getAirport();
+
+    long getUptime();
+
+    int getPlanesInAir();
+
+    int getLandingQueueLength();
+
+    int getMeteredHolding();
+
+    int getGatesInUse();
+
+    int getGateCount();
+
+    int getPlanesOnGround();
+
+    int getRunwaysOccupied();
+
+    // One entry per runway, e.g. "1 (Mixed): ARRIVAL" or "2 (Departure-only): free"
+    String[] getRunwayStates();
+
+    String getWeather();
+
+    long getPlanesServed();
+
+    long getDiversions();
+
+    // Waiting time percentiles over the most recently departed planes
+    long getRecentWaitP50();
+
+    long getRecentWaitP90();
+
+    long getRecentWaitP99();
+
+    // Waiting time percentiles over the whole run
+    long getWaitP50();
+
+    long getWaitP99();
+}
@@ -0,0 +1,279 @@
+package asiapacificairport;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Several airports running side by side in real time, each with its own gates, runways, crews, weather
+// and executors. A departing plane flies on to its next destination and joins that airport's landing
+// queue after the flight time. Airports only talk through lock-free mailboxes: the sender appends the
+// flight and unparks the destination's receiver thread, which lands each flight when it is due.
+//
+//   java asiapacificairport.AirportNetwork [--airports=N|SIN,HKG,...] [--topology=mesh|hub] [--planes=N]
+//                                          [--legs=N] [--flight-time=ms] [--scenario=file] [--seed=S]
+//                                          [--executor=platform|virtual|bounded] [--pool-size=N]
+//                                          [--set key=value]... [--log=stdout|quiet|file] [--metrics-port=N]
+public class AirportNetwork {
+    private static final int DEFAULT_POOL_SIZE = 64;
+
+    private final List<Station> stations = new ArrayList<>();
+    private final NetworkRoutes routes;
+    private final int legs;
+    private final long flightTime;
+    private final AtomicInteger outstanding = new AtomicInteger(1); // Flights not yet finished, plus one for startup
+    private final CompletableFuture<Void> finished = new CompletableFuture<>();
+    private final LongAdder flightsDelivered = new LongAdder();
+    private final LongAdder planesWithdrawn = new LongAdder();
+    private final LatencyHistogram deliveryLateness = new LatencyHistogram("Delivery lateness");
+    private volatile boolean stopped;
+
+    // One leg of an aircraft's journey, due is the absolute time it reaches its destination
+    private static final class Flight {
+        private final String planeID;
+        private final int passengers;
+        private final LandingPriority priority;
+        private final int leg; // 1 for the plane's first arrival
+        private final String origin; // null for the first arrival
+        private final long due;
+
+        Flight(String planeID, int passengers, LandingPriority priority, int leg, String origin, long due) {
+            this.planeID = planeID;
+            this.passengers = passengers;
+            this.priority = priority;
+            this.leg = leg;
+            this.origin = origin;
+            this.due = due;
+        }
+    }
+
+    // An airport with its executors, its mailbox of inbound flights and the thread landing them
+    private final class Station {
+        private final AsiaPacificAirport airport;
+        private final ExecutorService planeExecutor;
+        private final ExecutorService groundExecutor;
+        private final ConcurrentLinkedQueue<Flight> mailbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger mailboxDepth = new AtomicInteger();
+        private final AtomicInteger maxMailboxDepth = new AtomicInteger();
+        private final LongAdder arrivals = new LongAdder();
+        private final Thread receiver;
+
+        Station(AsiaPacificAirport airport, ExecutionMode executionMode, int poolSize) {
+            this.airport = airport;
+            this.planeExecutor = executionMode.newExecutor(airport.getCode() + "-Plane", poolSize);
+            this.groundExecutor = executionMode.newExecutor(airport.getCode() + "-GroundService", airport.getGroundCrewCount());
+            airport.setGroundServicesExecutor(groundExecutor);
+            this.receiver = new Thread(this::receive, airport.getCode() + "-Arrivals");
+            receiver.setDaemon(true);
+        }
+
+        // Called from any thread, never blocks
+        void send(Flight flight) {
+            mailbox.add(flight);
+            maxMailboxDepth.accumulateAndGet(mailboxDepth.incrementAndGet(), Math::max);
+            LockSupport.unpark(receiver);
+        }
+
+        // Receiver loop: move the mailbox into a schedule ordered by due time and land each flight when due
+        private void receive() {
+            PriorityQueue<Flight> schedule = new PriorityQueue<>(Comparator.comparingLong((Flight flight) -> flight.due));
+            while (!stopped) {
+                Flight flight;
+                while ((flight = mailbox.poll()) != null) {
+                    mailboxDepth.decrementAndGet();
+                    schedule.add(flight);
+                }
+                Flight next = schedule.peek();
+                long now = System.currentTimeMillis();
+                if (next == null) {
+                    LockSupport.park(this);
+                } else if (next.due <= now) {
+                    schedule.poll();
+                    deliveryLateness.record(now - next.due);
+                    land(this, next);
+                } else {
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(next.due - now));
+                }
+            }
+        }
+
+        void shutdown() {
+            planeExecutor.shutdown();
+            groundExecutor.shutdown();
+            airport.stopLockMonitor();
+        }
+    }
+
+    private AirportNetwork(NetworkRoutes routes, int legs, long flightTime) {
+        this.routes = routes;
+        this.legs = legs;
+        this.flightTime = flightTime;
+    }
+
+    public static void main(String[] args) throws IOException {
+        CommandLine commandLine = new CommandLine(args);
+        String[] codes = commandLine.has("airports")
+                ? NetworkRoutes.parseAirports(commandLine.getString("airports", null))
+                : new String[]{"SIN", "HKG", "SYD"};
+        String topology = commandLine.getString("topology", "mesh");
+        int planes = commandLine.getInt("planes", 6);
+        int legs = commandLine.getInt("legs", 3);
+        long flightTime = commandLine.getLong("flight-time", 5000);
+        String scenarioFile = commandLine.getString("scenario", null);
+        long seed = commandLine.has("seed") ? commandLine.getLong("seed", 0) : new Random().nextLong();
+        ExecutionMode executionMode = ExecutionMode.fromName(commandLine.getString("executor", "platform"));
+        int poolSize = commandLine.getInt("pool-size", DEFAULT_POOL_SIZE);
+        Integer metricsPort = commandLine.has("metrics-port") ? commandLine.getInt("metrics-port", 0) : null;
+        Map<String, String> overrides = commandLine.getOverrides();
+        commandLine.configureLog();
+        commandLine.finish();
+
+        try {
+            AirportNetwork network = new AirportNetwork(NetworkRoutes.forTopology(topology, seed), Math.max(1, legs), flightTime);
+            AirportLog.log("*** Airport Network Started (" + codes.length + " airports, " + topology + ", seed " + seed +
+                    ", " + executionMode + " executor) ***\n");
+
+            // Every airport gets its own day from its own seed: the first arrivals and the weather over it
+            List<Iterator<Scenario.Arrival>> firstArrivals = new ArrayList<>();
+            for (int i = 0; i < codes.length; i++) {
+                Scenario scenario = (scenarioFile != null)
+                        ? ScenarioLoader.load(Paths.get(scenarioFile), seed + i)
+                        : new Scenario(seed + i, planes);
+                scenario = scenario.withConfig(scenario.getConfig().with(overrides));
+                AsiaPacificAirport airport = new AsiaPacificAirport(codes[i], scenario.getConfig(), scenario.weatherForecast());
+                network.stations.add(network.new Station(airport, executionMode, poolSize));
+                firstArrivals.add(scenario.arrivals());
+                AirportLog.log("Network : " + codes[i] + " has " + airport.getGateCount() + " gates and " +
+                        airport.getRunwayCount() + " runway(s)");
+            }
+            network.run(firstArrivals, metricsPort);
+        } finally {
+            AirportLog.close(); // Write what is left and close a --log file
+        }
+    }
+
+    // Start every airport, post each airport's first arrivals to its own mailbox and wait for the last leg.
+    // Every airport's live metrics are on JMX, and on one HTTP endpoint if a port is given
+    private void run(List<Iterator<Scenario.Arrival>> firstArrivals, Integer metricsPort) throws IOException {
+        List<AirportMetrics> metrics = new ArrayList<>();
+        for (Station station : stations) {
+            station.receiver.start();
+            AirportMetrics airportMetrics = new AirportMetrics(station.airport);
+            airportMetrics.register();
+            metrics.add(airportMetrics);
+        }
+        MetricsServer metricsServer = null;
+        if (metricsPort != null) {
+            metricsServer = new MetricsServer(metricsPort, metrics);
+            metricsServer.start();
+            AirportLog.log("Monitor : Live metrics at http://127.0.0.1:" + metricsServer.getPort() + "/metrics\n");
+        }
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < stations.size(); i++) {
+            Station station = stations.get(i);
+            station.airport.startWeather(startTime); // Weather counted from the same start as the arrivals
+            Iterator<Scenario.Arrival> arrivals = firstArrivals.get(i);
+            while (arrivals.hasNext()) {
+                Scenario.Arrival arrival = arrivals.next();
+                outstanding.incrementAndGet();
+                station.send(new Flight(station.airport.getCode() + "-" + arrival.getPlaneID(), arrival.getPassengers(),
+                        arrival.getPriority(), 1, null, startTime + arrival.getTime()));
+            }
+        }
+        flightFinished();
+
+        try {
+            finished.get();
+            AirportLog.log("\n***All flights completed, generating report...***");
+            printStatistics(System.currentTimeMillis() - startTime);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            AirportLog.log("Network : Simulation interrupted");
+            AirportLog.flush();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Flight tracking failed", e.getCause());
+        } finally {
+            stopped = true;
+            for (Station station : stations) {
+                LockSupport.unpark(station.receiver);
+                station.shutdown();
+            }
+            if (metricsServer != null) {
+                metricsServer.stop();
+            }
+            for (AirportMetrics airportMetrics : metrics) {
+                airportMetrics.unregister();
+            }
+        }
+    }
+
+    // Runs on the destination's receiver thread: the flight becomes a plane in that airport's landing queue
+    private void land(Station station, Flight flight) {
+        flightsDelivered.increment();
+        station.arrivals.increment();
+        if (flight.origin != null) {
+            AirportLog.log(() -> "Network : Plane " + flight.planeID + " arrived at " + station.airport.getCode() +
+                    " from " + flight.origin + " (leg " + flight.leg + " of " + legs + ")");
+        }
+        Plane plane = new Plane(station.airport, flight.planeID, flight.passengers, flight.priority);
+        plane.fly(station.planeExecutor).whenComplete((departed, error) -> {
+            if (error != null) {
+                planesWithdrawn.increment();
+            } else if (flight.leg < legs) {
+                Station destination = route(station, flight);
+                // Emergencies are resolved on landing, the next leg is a normal flight
+                destination.send(new Flight(flight.planeID, flight.passengers, LandingPriority.NORMAL, flight.leg + 1,
+                        station.airport.getCode(), System.currentTimeMillis() + flightTime));
+                AirportLog.log(() -> "Network : Plane " + flight.planeID + " en route from " + station.airport.getCode() +
+                        " to " + destination.airport.getCode() + ", arriving in " + flightTime + "ms");
+                return; // Still flying, the next leg takes over its count
+            }
+            flightFinished();
+        });
+    }
+
+    // Next destination, the same for a rerun with the same seed
+    private Station route(Station from, Flight flight) {
+        return stations.get(routes.next(stations.indexOf(from), stations.size(), flight.planeID, flight.leg));
+    }
+
+    private void flightFinished() {
+        if (outstanding.decrementAndGet() == 0) {
+            finished.complete(null);
+        }
+    }
+
+    // Each airport's own report, then the traffic between them
+    private void printStatistics(long totalRunningTime) {
+        for (Station station : stations) {
+            AirportLog.flush();
+            System.out.println("\n===== " + station.airport.getCode() + " =====");
+            station.airport.printStatistics();
+        }
+        System.out.println("\n--- Network Statistics ---");
+        System.out.println("Airports: " + stations.size() + " (" + (routes.isHub() ? "hub " + stations.get(0).airport.getCode() : "mesh") +
+                "), legs per plane: " + legs + ", flight time: " + flightTime + " ms");
+        System.out.println("Flights Delivered: " + flightsDelivered.sum() + ", planes withdrawn: " + planesWithdrawn.sum());
+        for (Station station : stations) {
+            AirportStatistics statistics = station.airport.getStatistics();
+            System.out.printf("%-5s arrivals %5d, served %5d, avg wait %7d ms, max mailbox depth %4d%n",
+                    station.airport.getCode(), station.arrivals.sum(), statistics.getPlanesServed(),
+                    statistics.getWaitingTimes().getMean(), station.maxMailboxDepth.get());
+        }
+        System.out.println(deliveryLateness.summary());
+        System.out.println("Total Network Time: " + totalRunningTime + " ms");
+    }
+}
@@ -0,0 +1,219 @@
+package asiapacificairport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-run service and waiting time statistics, shared by the threaded and discrete-event modes.
+// Counters are LongAdders and latencies go into lock-free histograms, so departing planes never
+// queue behind each other (or behind the report) just to be counted.
+public class AirportStatistics {
+    private static final int MAX_PRINTED_OPERATIONS = 100; // Keep the report readable for large runs
+    private static final int RECENT_WAITS = 256; // Planes in the rolling wait-time window
+
+    private final LongAdder planesServed = new LongAdder();
+    private final LongAdder totalPassengers = new LongAdder();
+    private final LongAdder weatherHolds = new LongAdder();
+    private final LongAdder totalWeatherHoldTime = new LongAdder();
+    private final LatencyHistogram waitingTimes = new LatencyHistogram("Wait time");
+    private final RollingLatencies recentWaitingTimes = new RollingLatencies(RECENT_WAITS);
+    private final LatencyHistogram turnaroundTimes = new LatencyHistogram("Turnaround time");
+    private final LatencyHistogram runwayOccupancy = new LatencyHistogram("Runway occupancy");
+    private final LatencyHistogram gateOccupancy = new LatencyHistogram("Gate occupancy");
+    private final LatencyHistogram meteringHolds = new LatencyHistogram("Metering hold");
+    private final LongAdder diversions = new LongAdder();
+    private final LongAdder withdrawals = new LongAdder();
+    private final LongAdder stageTimeouts = new LongAdder();
+    private final AtomicInteger maxLandingQueue = new AtomicInteger();
+    private final AtomicInteger recordedOperations = new AtomicInteger();
+    private final ConcurrentLinkedQueue<PlaneOperations> planeOperations = new ConcurrentLinkedQueue<>();
+
+    // A departed plane kept for the report, its log is rendered only when printed
+    static final class PlaneOperations {
+        private final String planeID;
+        private final long totalTime;
+        private final long waitingTime;
+        private final OperationLog log;
+
+        PlaneOperations(String planeID, long totalTime, long waitingTime, OperationLog log) {
+            this.planeID = planeID;
+            this.totalTime = totalTime;
+            this.waitingTime = waitingTime;
+            this.log = log;
+        }
+
+        String getPlaneID() {
+            return planeID;
+        }
+
+        long getTotalTime() {
+            return totalTime;
+        }
+
+        long getWaitingTime() {
+            return waitingTime;
+        }
+
+        OperationLog getLog() {
+            return log;
+        }
+
+        @Override
+        public String toString() {
+            return "Plane " + planeID + ": " + log.render() +
+                " (Wait time: " + waitingTime + "ms, Total time: " + totalTime + "ms)";
+        }
+    }
+
+    // Record a plane that has departed
+    public void record(String planeID, long totalTime, long waitingTime, int passengers, OperationLog operationLog) {
+        planesServed.increment();
+        totalPassengers.add(passengers);
+        waitingTimes.record(waitingTime);
+        recentWaitingTimes.record(waitingTime);
+        turnaroundTimes.record(totalTime);
+        if (recordedOperations.getAndIncrement() < MAX_PRINTED_OPERATIONS) {
+            planeOperations.add(new PlaneOperations(planeID, totalTime, waitingTime, operationLog));
+        }
+    }
+
+    // Record one landing or departure weather hold
+    public void recordWeatherHold(long holdTime) {
+        weatherHolds.increment();
+        totalWeatherHoldTime.add(holdTime);
+    }
+
+    // Record how long one movement held a runway
+    public void recordRunwayOccupancy(long occupiedTime) {
+        runwayOccupancy.record(occupiedTime);
+    }
+
+    // Record how long a plane held its gate, from reservation to pushback
+    public void recordGateOccupancy(long occupiedTime) {
+        gateOccupancy.record(occupiedTime);
+    }
+
+    // Record an inbound plane held in the air until its metering slot
+    public void recordMeteringHold(long holdTime) {
+        meteringHolds.record(holdTime);
+    }
+
+    // Record a plane that gave up on the airport: turned away or timed out by metering, or its landing
+    // request timed out
+    public void recordDiversion() {
+        diversions.increment();
+    }
+
+    // Record a plane whose landing request was cancelled before it was cleared to land
+    public void recordWithdrawal() {
+        withdrawals.increment();
+    }
+
+    // Record a cleared plane whose landing, turnaround or departure ran past stage-timeout
+    public void recordStageTimeout() {
+        stageTimeouts.increment();
+    }
+
+    // Record the landing queue length seen by a new arrival
+    public void recordLandingQueueLength(int length) {
+        maxLandingQueue.accumulateAndGet(length, Math::max);
+    }
+
+    public long getTotalWeatherHoldTime() {
+        return totalWeatherHoldTime.sum();
+    }
+
+    public long getWeatherHolds() {
+        return weatherHolds.sum();
+    }
+
+    // Planes kept for the report in departure order, e.g. to compare two runs plane by plane
+    List<PlaneOperations> getPlaneOperations() {
+        return new ArrayList<>(planeOperations);
+    }
+
+    public int getPlanesServed() {
+        return planesServed.intValue();
+    }
+
+    public LatencyHistogram getWaitingTimes() {
+        return waitingTimes;
+    }
+
+    // Waiting times of the most recently departed planes, for live monitoring
+    public RollingLatencies getRecentWaitingTimes() {
+        return recentWaitingTimes;
+    }
+
+    public LatencyHistogram getTurnaroundTimes() {
+        return turnaroundTimes;
+    }
+
+    public LatencyHistogram getRunwayOccupancy() {
+        return runwayOccupancy;
+    }
+
+    public LatencyHistogram getGateOccupancy() {
+        return gateOccupancy;
+    }
+
+    public LatencyHistogram getMeteringHolds() {
+        return meteringHolds;
+    }
+
+    public long getDiversions() {
+        return diversions.sum();
+    }
+
+    public long getWithdrawals() {
+        return withdrawals.sum();
+    }
+
+    public long getStageTimeouts() {
+        return stageTimeouts.sum();
+    }
+
+    public int getMaxLandingQueue() {
+        return maxLandingQueue.get();
+    }
+
+    // Print service, waiting time, latency distribution and per-plane sections of the report
+    public void print(long totalRunningTime) {
+        System.out.println("\n--- Service Statistics ---");
+        System.out.println("Planes Served: " + planesServed.sum());
+        System.out.println("Total Passengers Boarded: " + totalPassengers.sum());
+        System.out.println("Planes Diverted: " + diversions.sum() + ", withdrawn before landing: " + withdrawals.sum() +
+                ", stage timeouts: " + stageTimeouts.sum());
+
+        System.out.println("\n--- Waiting Time Statistics ---");
+        System.out.println("Minimum Waiting Time: " + waitingTimes.getMin() + " ms");
+        System.out.println("Maximum Waiting Time: " + waitingTimes.getMax() + " ms");
+        System.out.println("Average Waiting Time: " + waitingTimes.getMean() + " ms");
+        System.out.println("Total Waiting Time: " + waitingTimes.getTotal() + " ms");
+        System.out.println("Total Weather Hold Time: " + totalWeatherHoldTime.sum() + " ms (" + weatherHolds.sum() + " holds)");
+        System.out.println("Total Simulation Time: " + totalRunningTime + " ms");
+
+        System.out.println("\n--- Latency Percentiles ---");
+        System.out.println(waitingTimes.summary());
+        System.out.println(turnaroundTimes.summary());
+        System.out.println(runwayOccupancy.summary());
+        System.out.println(gateOccupancy.summary());
+        if (meteringHolds.getCount() > 0) {
+            System.out.println("\n--- Arrival Metering ---");
+            System.out.println("Planes Metered: " + meteringHolds.getCount() + " (landed after an air hold), longest landing queue: " +
+                    maxLandingQueue.get());
+            System.out.println(meteringHolds.summary());
+        }
+
+        System.out.println("\n--- Plane Operations Summary ---");
+        for (PlaneOperations operations : planeOperations) {
+            System.out.println(operations);
+        }
+        int remaining = recordedOperations.get() - MAX_PRINTED_OPERATIONS;
+        if (remaining > 0) {
+            System.out.println("... and " + remaining + " more planes");
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package asiapacificairport;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Arrival metering for a saturated airport. Once the landing queue holds meter-queue-limit planes, new
+// arrivals hold in the air in arrival order and are released into the landing queue one per target
+// interval, the spacing of the target landing rate: the lower of what the ground can turn over (ground
+// slots / average time a plane keeps its gate) and what the arrival runways can land, cut to
+// meter-weather-percent while the weather is bad. A held plane joins once its slot comes up and the
+// queue has room, so metered arrivals reach the queue at the target rate and it never grows past the
+// limit. The spacing follows the current weather rather than the weather when a plane started holding.
+// Each held plane is also given an expected slot time; one whose slot is more than max-air-hold away
+// diverts instead of holding, and one still holding when max-air-hold runs out diverts then, so air
+// holds never exceed it. Emergencies are never metered or diverted.
+// Not thread-safe, the threaded mode guards it with the airport's landingLock.
+public class ArrivalMeter<P> {
+    public static final long DIVERT = -1; // Result of assign for a plane that has to divert
+
+    private final int queueLimit; // 0 = metering off
+    private final long maxAirHold; // 0 = never divert
+    private final int weatherPercent;
+    private final int groundCapacity;
+    private final double runwayInterval; // ms between landings the arrival runways can sustain
+    private double averageGroundTime; // ms a plane keeps its gate, learned from departures
+    private long lastAdmission = Long.MIN_VALUE; // When the last held plane joined the landing queue
+    private final Map<String, Slot<P>> holding = new LinkedHashMap<>(); // In arrival order
+
+    // A plane holding in the air for its turn to join the landing queue
+    public static final class Slot<P> {
+        private final P plane;
+        private final long heldSince;
+        private final long expectedAt;
+
+        Slot(P plane, long heldSince, long expectedAt) {
+            this.plane = plane;
+            this.heldSince = heldSince;
+            this.expectedAt = expectedAt;
+        }
+
+        public P getPlane() {
+            return plane;
+        }
+
+        public long getHeldSince() {
+            return heldSince;
+        }
+
+        // Slot time expected when the plane started holding
+        public long getExpectedAt() {
+            return expectedAt;
+        }
+    }
+
+    public ArrivalMeter(AirportConfig config, RunwaySystem runwaySystem) {
+        this.queueLimit = config.getMeterQueueLimit();
+        this.maxAirHold = config.getMaxAirHold();
+        this.weatherPercent = config.getMeterWeatherPercent();
+        this.groundCapacity = config.getGroundCapacity();
+        int arrivalRunways = 0;
+        for (Runway runway : runwaySystem.getRunways()) {
+            if (runway.getMode().accepts(Runway.Movement.ARRIVAL)) {
+                arrivalRunways++;
+            }
+        }
+        this.runwayInterval = (double) (config.getLandingTime() + config.getRunwaySeparation()) / Math.max(1, arrivalRunways);
+        // Every phase back to back until departures say otherwise
+        this.averageGroundTime = config.getLandingTime() + config.getCoastToGateTime() + config.getDisembarkTime() +
+                config.getRefuelTime() + config.getCleaningTime() + config.getRefillTime() + config.getEmbarkTime() +
+                config.getUndockTime() + config.getCoastToRunwayTime();
+    }
+
+    public boolean isEnabled() {
+        return queueLimit > 0;
+    }
+
+    // Longest a plane may hold before it diverts, 0 for no limit
+    public long getMaxAirHold() {
+        return maxAirHold;
+    }
+
+    // Gate time of a departed plane, the ground's turnover rate follows a moving average of it
+    public void recordGroundTime(long groundTime) {
+        averageGroundTime += (groundTime - averageGroundTime) / 8;
+    }
+
+    // Target ms between landings right now. The weather cut applies to the runways only: the ground time is
+    // learned from gate occupancy, which already includes the weather holds of the planes behind it
+    public double getTargetInterval(Weather.WeatherCondition weather) {
+        double runway = (weather == Weather.WeatherCondition.SUNNY) ? runwayInterval : runwayInterval * 100 / weatherPercent;
+        return Math.max(averageGroundTime / groundCapacity, runway);
+    }
+
+    // Target landings per hour right now
+    public double getTargetRate(Weather.WeatherCondition weather) {
+        return 3_600_000.0 / getTargetInterval(weather);
+    }
+
+    // Meter an inbound plane: 0 if it joins the landing queue now, DIVERT, or the expected air hold in ms
+    // for a plane that now holds until admit hands it back
+    public long assign(P plane, String planeID, long now, int queueLength, boolean emergency, Weather.WeatherCondition weather) {
+        if (!isEnabled() || emergency || (holding.isEmpty() && queueLength < queueLimit)) {
+            return 0;
+        }
+        // Every held plane ahead, and the queue beyond its limit, has to land first, and the held ones
+        // are released one interval apart from the next slot on
+        long interval = (long) Math.ceil(getTargetInterval(weather));
+        int ahead = holding.size() + Math.max(0, queueLength - queueLimit) + 1;
+        long slot = Math.max(now + ahead * interval, getNextSlot(weather, now) + holding.size() * interval);
+        if (maxAirHold > 0 && slot - now > maxAirHold) {
+            return DIVERT;
+        }
+        holding.put(planeID, new Slot<>(plane, now, slot));
+        return slot - now;
+    }
+
+    // The first held plane if its slot has come and the landing queue has room, taken off the meter.
+    // At most one per call: the next slot is a target interval later
+    public Slot<P> admit(int queueLength, long now, Weather.WeatherCondition weather) {
+        if (holding.isEmpty() || queueLength >= queueLimit || getNextSlot(weather, now) > now) {
+            return null;
+        }
+        Iterator<Slot<P>> slots = holding.values().iterator();
+        Slot<P> slot = slots.next();
+        slots.remove();
+        lastAdmission = now;
+        return slot;
+    }
+
+    // When the next held plane may join the landing queue, one target interval after the last one did
+    public long getNextSlot(Weather.WeatherCondition weather, long now) {
+        if (lastAdmission == Long.MIN_VALUE) {
+            return now;
+        }
+        return lastAdmission + (long) Math.ceil(getTargetInterval(weather));
+    }
+
+    // When admit will next release a plane with no room needed first, Long.MAX_VALUE if none holds or the
+    // queue is full: then the next landing grant is what admits one
+    public long getNextAdmission(int queueLength, Weather.WeatherCondition weather, long now) {
+        if (holding.isEmpty() || queueLength >= queueLimit) {
+            return Long.MAX_VALUE;
+        }
+        return getNextSlot(weather, now);
+    }
+
+    // Take a plane off the meter, e.g. it was withdrawn or diverted while holding; null if it was not holding
+    public Slot<P> remove(String planeID) {
+        return holding.remove(planeID);
+    }
+
+    // Metered planes still holding in the air
+    public int getHolding() {
+        return holding.size();
+    }
+}
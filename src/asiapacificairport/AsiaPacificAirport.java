@@ -1,237 +1,574 @@
 package asiapacificairport;
 
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.ArrayList;
-import java.util.List;
 
+// One airport and everything it owns: gates, runways, ground crews, landing queue, weather and
+// statistics. Several airports can run side by side in one JVM, e.g. in an AirportNetwork.
 public class AsiaPacificAirport {
+    private final String code; // Short name used in lock names and network logs
+    private final AirportConfig config; // Airport size and timings
+
     // Shared resources
-    public static final int MAX_GATES = 3; // Total 3 gates
-    public static Semaphore runway = new Semaphore(1); // Only one runway
-    public static Semaphore[] gates = new Semaphore[MAX_GATES]; // Individual gates
-    public static Semaphore refuelingTruck = new Semaphore(1); // One refueling truck
-    public static Semaphore planesOnGround = new Semaphore(3); // Max 3 planes on ground (gates + runway)
-    public static ReentrantLock consoleLock = new ReentrantLock(); // For thread-safe console output
-    
-    // Emergency handling
-    public static ReentrantLock landingLock = new ReentrantLock();
-    public static Condition landingCondition = landingLock.newCondition();
-    public static volatile boolean emergencyInProgress = false;
-    public static volatile String emergencyPlaneID = null;
-    
-    // Gate status tracking
-    private static boolean[] gateOccupied = new boolean[MAX_GATES];
-    private static String[] gateAssignments = new String[MAX_GATES];
-    private static final ReentrantLock gateStatusLock = new ReentrantLock();
+    private final Semaphore planesOnGround; // Max planes on ground (gates + runway)
+    private final ReentrantLock consoleLock; // For thread-safe console output
+
+    // Ground crews and the executor carrying out their tasks, one task per crew at most
+    private final GroundServices<Plane> groundServices;
+    private final ReentrantLock groundLock;
+    private volatile ExecutorService groundServicesExecutor;
+
+    // Landing sequencing, emergencies are ordered ahead of normal traffic by LandingQueue
+    private final ReentrantLock landingLock;
+
+    // Runways, one mixed runway unless configured otherwise
+    private final RunwaySystem runwaySystem;
+    private final MonitoredLock runwayLock;
+    private final Condition runwayFreed;
+
+    // Gate status tracking, lock-free
+    private final GateAllocator gateAllocator;
+    private final GateAssignmentStrategy gateStrategy;
 
     // Landing queue tracking
-    private static final List<String> landingQueue = Collections.synchronizedList(new ArrayList<>());
-    // Statistics
-    private static int planesServed = 0;
-    private static int totalPassengers = 0;
-    private static long minWaitingTime = Long.MAX_VALUE;
-    private static long maxWaitingTime = Long.MIN_VALUE;
-    private static long totalWaitingTime = 0;
-    private static long simulationStartTime;
-    private static List<String> planeOperations = Collections.synchronizedList(new ArrayList<>());
-
-    // Initialize gates
-    static {
-        for (int i = 0; i < MAX_GATES; i++) {
-            gates[i] = new Semaphore(1);
-            gateOccupied[i] = false;
-            gateAssignments[i] = "None";
+    private final LandingQueue landingQueue = new LandingQueue();
+    private final ArrivalMeter<Plane> arrivalMeter; // Guarded by landingLock
+    private boolean slotWakePending = false; // Guarded by landingLock
+    private final Map<String, CompletableFuture<Integer>> meteredGrants = new HashMap<>(); // Grants of held planes
+
+    // Gauges the utilisation sampler reads without taking any lock; queue figures are published under landingLock
+    private volatile int landingQueueDepth;
+    private volatile int meteredHolding;
+    private final AtomicInteger runwaysOccupied = new AtomicInteger();
+    private final AtomicInteger planesInAir = new AtomicInteger(); // Accepted inbound planes that have not touched down
+    private final UtilisationSampler sampler;
+    // Weather over this airport and statistics
+    private final Weather weather;
+    private final AirportStatistics statistics = new AirportStatistics();
+    private final LockMonitor lockMonitor;
+    private final long simulationStartTime = System.currentTimeMillis();
+    private RunJournal journal; // Set before the first plane arrives, null if the run is not journaled
+
+    // The original 3-gate airport, its random weather drawn from the seed like a scenario's
+    public AsiaPacificAirport(long seed) {
+        this(AirportConfig.defaults(), seed);
+    }
+
+    public AsiaPacificAirport(AirportConfig config, long seed) {
+        this("APA", config, new Scenario(seed, 0).withConfig(config).weatherForecast());
+    }
+
+    // An airport whose weather follows the given forecast, start it with startWeather()
+    public AsiaPacificAirport(String code, AirportConfig config, WeatherForecast forecast) {
+        this.code = code;
+        this.config = config;
+        this.planesOnGround = new Semaphore(config.getGroundCapacity());
+        this.lockMonitor = new LockMonitor(code, config.getStallLimit());
+        this.consoleLock = new MonitoredLock(code + " consoleLock", lockMonitor);
+        this.groundServices = new GroundServices<>(config);
+        this.groundLock = new MonitoredLock(code + " groundLock", lockMonitor);
+        this.groundServicesExecutor = ExecutionMode.PLATFORM.newExecutor("GroundService", groundServices.getTotalCrews());
+        this.landingLock = new MonitoredLock(code + " landingLock", lockMonitor);
+        this.runwaySystem = config.newRunwaySystem();
+        this.arrivalMeter = new ArrivalMeter<>(config, runwaySystem);
+        this.runwayLock = new MonitoredLock(code + " runwayLock", lockMonitor);
+        this.runwayFreed = runwayLock.newCondition(code + " runwayFreed");
+        this.gateAllocator = config.newGateAllocator();
+        this.gateStrategy = config.newGateStrategy();
+        this.weather = new Weather(code, config, statistics, forecast, lockMonitor);
+        this.sampler = new UtilisationSampler(config);
+
+        // Every released gate is offered straight to the landing queue
+        gateAllocator.setReleaseListener(this::dispatchAfterRelease);
+        lockMonitor.start();
+    }
+
+    // Stop watching this airport's locks once its planes are done
+    public void stopLockMonitor() {
+        lockMonitor.stop();
+    }
+
+    // Start the weather thread, a daemon so it never keeps the JVM alive
+    public void startWeather() {
+        startWeather(System.currentTimeMillis());
+    }
+
+    // Start the weather with its timeline counted from the given time, the one arrivals are scheduled from
+    public void startWeather(long startTime) {
+        weather.setStartTime(startTime);
+        weather.setDaemon(true);
+        weather.start();
+    }
+
+    // Start sampling utilisation every sample-interval ms, if configured
+    public void startSampler() {
+        if (config.getSampleInterval() > 0) {
+            sampler.start(code, this::sampleUtilisation);
         }
-        simulationStartTime = System.currentTimeMillis();
     }
 
-    // Find available gate
-    public static int findAvailableGate() {
-        gateStatusLock.lock();
+    public UtilisationSampler getSampler() {
+        return sampler;
+    }
+
+    // One sample from the published gauges, no airport lock is taken
+    private void sampleUtilisation(UtilisationSampler sampler) {
+        sampler.record(getUptime(), landingQueueDepth, meteredHolding, getGatesInUse(), getPlanesOnGround(),
+            runwaysOccupied.get(), weather.getCurrentWeather());
+    }
+
+    // Live gauges for monitoring, none of them takes an airport lock
+    long getUptime() {
+        return System.currentTimeMillis() - simulationStartTime;
+    }
+
+    int getPlanesInAir() {
+        return planesInAir.get();
+    }
+
+    int getLandingQueueDepth() {
+        return landingQueueDepth;
+    }
+
+    int getMeteredHolding() {
+        return meteredHolding;
+    }
+
+    int getGatesInUse() {
+        return gateAllocator.getGateCount() - gateAllocator.getFreeGates();
+    }
+
+    int getPlanesOnGround() {
+        return config.getGroundCapacity() - planesOnGround.availablePermits();
+    }
+
+    int getRunwaysOccupied() {
+        return runwaysOccupied.get();
+    }
+
+    // Fixed after construction, Runway.getActiveMovement is safe to read without runwayLock
+    List<Runway> getRunways() {
+        return runwaySystem.getRunways();
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public Weather getWeather() {
+        return weather;
+    }
+
+    public LockMonitor getLockMonitor() {
+        return lockMonitor;
+    }
+
+    public AirportStatistics getStatistics() {
+        return statistics;
+    }
+
+    // Journal every plane's lifecycle, runway movements and the weather, called once at startup
+    public void setJournal(RunJournal journal) {
+        this.journal = journal;
+        weather.setJournal(journal);
+    }
+
+    public RunJournal getJournal() {
+        return journal;
+    }
+
+    // Choose how ground operations are run, called once at startup before any plane lands
+    public void setGroundServicesExecutor(ExecutorService executor) {
+        groundServicesExecutor = executor;
+    }
+
+    public ExecutorService getGroundServicesExecutor() {
+        return groundServicesExecutor;
+    }
+
+    public AirportConfig getConfig() {
+        return config;
+    }
+
+    public int getGateCount() {
+        return gateAllocator.getGateCount();
+    }
+
+    // Most ground tasks that can run at once, a ground executor of this size never queues a task
+    public int getGroundCrewCount() {
+        return groundServices.getTotalCrews();
+    }
+
+    public int getRunwayCount() {
+        return runwaySystem.getRunways().size();
+    }
+
+    // Block until a runway is free for this movement and has cleared its separation interval
+    public Runway acquireRunway(Runway.Movement movement) throws InterruptedException {
+        runwayLock.lock();
         try {
-            for (int i = 0; i < MAX_GATES; i++) {
-                if (!gateOccupied[i] && gates[i].availablePermits() > 0) {
-                    return i;
+            runwaySystem.startWaiting(movement);
+            try {
+                while (true) {
+                    long now = System.currentTimeMillis();
+                    Runway runway = runwaySystem.choose(movement, now);
+                    if (runway != null) {
+                        runway.occupy(movement, now);
+                        runwaysOccupied.incrementAndGet();
+                        return runway;
+                    }
+                    long readyAt = runwaySystem.nextReadyTime(movement);
+                    if (readyAt == Long.MAX_VALUE) {
+                        runwayFreed.await(); // Every suitable runway is busy
+                    } else {
+                        runwayFreed.await(readyAt - now, TimeUnit.MILLISECONDS); // Waiting out separation
+                    }
                 }
+            } finally {
+                runwaySystem.stopWaiting(movement);
+                runwayFreed.signalAll(); // Waiting counts changed, mixed runways may now interleave differently
             }
-            return -1; // No gate available
         } finally {
-            gateStatusLock.unlock();
+            runwayLock.unlock();
         }
     }
 
-    // Add plane to landing queue
-    public static void addToLandingQueue(Plane plane) {
-        landingLock.lock();
+    // Vacate a runway and wake planes waiting for one
+    public void releaseRunway(Runway runway) {
+        long occupiedTime;
+        runwayLock.lock();
         try {
-            if (!landingQueue.contains(plane.getID())) {
-                landingQueue.add(plane.getID());
-                System.out.println("ATC     : Plane " + plane.getID() + 
-                    (plane.isEmergency() ? " (EMERGENCY)" : "") + 
-                    " added to landing queue. Current queue size: " + landingQueue.size());
-                
-                // If this is an emergency plane, notify all waiting planes
-                if (plane.isEmergency()) {
-                    emergencyInProgress = true;
-                    emergencyPlaneID = plane.getID();
-                    System.out.println("ATC     : EMERGENCY ALERT! Prioritizing landing for Plane " + plane.getID());
-                    landingCondition.signalAll();
-                }
+            if (runway.getActiveMovement() == Runway.Movement.ARRIVAL) {
+                planesInAir.decrementAndGet(); // Touched down
             }
+            occupiedTime = runway.vacate(System.currentTimeMillis());
+            runwaysOccupied.decrementAndGet();
+            runwayFreed.signalAll();
         } finally {
-            landingLock.unlock();
+            runwayLock.unlock();
         }
+        statistics.recordRunwayOccupancy(occupiedTime);
     }
-    
-    // Check if plane has permission to land based on current situation
-    public static boolean hasPermissionToLand(Plane requestingPlane) {
-        landingLock.lock();
+
+    // Start a docked plane's turnaround, the future completes once every ground task has finished
+    public CompletableFuture<Void> startTurnaround(Plane plane) {
+        GroundServices.Turnaround<Plane> turnaround;
+        List<GroundServices.Job<Plane>> jobs;
+        groundLock.lock();
         try {
-            String planeID = requestingPlane.getID();
-            boolean isEmergency = requestingPlane.isEmergency();
-
-            // Always add to queue if not already in queue
-            if (!landingQueue.contains(planeID)) {
-                landingQueue.add(planeID);
-                System.out.println("ATC     : Plane " + planeID +
-                    (isEmergency ? " (EMERGENCY)" : "") +
-                    " added to landing queue. Current queue size: " + landingQueue.size());
-
-                // Set emergency status if applicable
-                //check if it is emergency case
-                if (isEmergency) {
-                    emergencyInProgress = true;
-                    emergencyPlaneID = planeID;
-                    System.out.println("ATC     : EMERGENCY ALERT! Prioritizing landing for Plane " + planeID);
-                    landingCondition.signalAll(); // Wake up all waiting threads to reevaluate
-                }
-            }
+            long now = System.currentTimeMillis();
+            turnaround = groundServices.startTurnaround(plane, now);
+            jobs = groundServices.dispatch(now);
+        } finally {
+            groundLock.unlock();
+        }
+        runGroundJobs(jobs);
+        return turnaround.getCompletion();
+    }
 
-            // If no gates available or ground is full, no plane can land
-            if (findAvailableGate() == -1 || planesOnGround.availablePermits() <= 0) {
-                // If this is an emergency plane, wait for resources to free up
-                if (isEmergency) {
-                    // No return here - emergency planes keep trying
-                } else {
-                    // Non-emergency planes should pause if emergency in progress
-                    while (emergencyInProgress && !emergencyPlaneID.equals(planeID)) {
-                        System.out.println("ATC     : Plane " + planeID + " holding position for emergency Plane " + emergencyPlaneID);
-                        landingCondition.await(); // Wait until emergency is cleared
-                    }
-                    return false; // Still no resources
+    // Carry out jobs that were handed a crew, each one frees its crew for the next task when done
+    private void runGroundJobs(List<GroundServices.Job<Plane>> jobs) {
+        for (GroundServices.Job<Plane> job : jobs) {
+            groundServicesExecutor.execute(() -> {
+                try {
+                    job.getPlane().performGroundTask(job.getTask());
+                } finally {
+                    finishGroundJob(job);
                 }
-            }
+            });
+        }
+    }
+
+    private void finishGroundJob(GroundServices.Job<Plane> job) {
+        boolean turnaroundComplete;
+        List<GroundServices.Job<Plane>> next;
+        groundLock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            turnaroundComplete = groundServices.finish(job, now);
+            next = groundServices.dispatch(now);
+        } finally {
+            groundLock.unlock();
+        }
+        runGroundJobs(next);
+        if (turnaroundComplete) {
+            job.getTurnaround().getCompletion().complete(null);
+        }
+    }
 
-            // Emergency planes get priority
-            if (emergencyInProgress) {
-                if (isEmergency && emergencyPlaneID.equals(planeID)) {
-                    // This emergency plane gets priority
-                    landingQueue.remove(planeID);
-                    System.out.println("ATC     : EMERGENCY Plane " + planeID + " granted priority landing permission");
-                    return true;
-                } else {
-                    // Other planes must wait
-                    while (emergencyInProgress && !emergencyPlaneID.equals(planeID)) {
-                        System.out.println("ATC     : Plane " + planeID + " holding position for emergency Plane " + emergencyPlaneID);
-                        landingCondition.await(); // Wait until emergency is cleared
+    // Add plane to landing queue and return the grant that completes with its reserved gate. Once the queue
+    // is full, arrival metering holds the plane in the air until there is room, or diverts it.
+    public CompletableFuture<Integer> addToLandingQueue(Plane plane) {
+        landingLock.lock();
+        try {
+            String planeID = plane.getID();
+            LandingPriority priority = plane.getLandingPriority();
+            CompletableFuture<Integer> metered = meteredGrants.get(planeID);
+            if (metered != null) {
+                return metered;
+            }
+            boolean alreadyQueued = landingQueue.contains(planeID);
+            if (!alreadyQueued) {
+                Weather.WeatherCondition currentWeather = weather.getCurrentWeather();
+                long hold = arrivalMeter.assign(plane, planeID, System.currentTimeMillis(), landingQueue.size(),
+                    priority.isEmergency(), currentWeather);
+                if (hold == ArrivalMeter.DIVERT) {
+                    plane.diverted();
+                    long targetRate = Math.round(arrivalMeter.getTargetRate(currentWeather));
+                    AirportLog.log(() -> "ATC     : Plane " + planeID + " diverted, no arrival slot within " +
+                        config.getMaxAirHold() + "ms (target rate " + targetRate + " landings/hour)");
+                    CompletableFuture<Integer> diverted = new CompletableFuture<>();
+                    diverted.completeExceptionally(new CancellationException("Plane " + planeID + " diverted by arrival metering"));
+                    return diverted;
+                }
+                if (hold > 0) {
+                    plane.holdForArrivalSlot();
+                    int holding = arrivalMeter.getHolding();
+                    long targetRate = Math.round(arrivalMeter.getTargetRate(currentWeather));
+                    AirportLog.log(() -> "ATC     : Plane " + planeID + " metered, expected arrival slot in " + hold + "ms (" +
+                        holding + " holding, target rate " + targetRate + " landings/hour)");
+                    CompletableFuture<Integer> grant = new CompletableFuture<>();
+                    meteredGrants.put(planeID, grant);
+                    planesInAir.incrementAndGet();
+                    publishQueueDepth();
+                    scheduleSlotWake();
+                    long maxAirHold = arrivalMeter.getMaxAirHold();
+                    if (maxAirHold > 0) {
+                        CompletableFuture.delayedExecutor(maxAirHold, TimeUnit.MILLISECONDS)
+                            .execute(() -> divertHeldPlane(planeID, maxAirHold));
                     }
+                    return grant;
                 }
             }
+            LandingQueue.Entry entry = joinLandingQueue(plane, new CompletableFuture<>());
+            if (!alreadyQueued) {
+                planesInAir.incrementAndGet();
+                // Hand out any slot that is already free
+                dispatchLandings();
+            }
+            return entry.getGrant();
+        } finally {
+            landingLock.unlock();
+        }
+    }
 
-            // Normal FIFO queue processing if no emergency or emergency has been handled
-            if (!landingQueue.isEmpty() && landingQueue.get(0).equals(planeID)) {
-                landingQueue.remove(0);
-                System.out.println("ATC     : Plane " + planeID + " granted landing permission. Current queue size: " + landingQueue.size());
-                return true;
+    // Dispatch again at the next arrival slot while a held plane is only waiting for it; one wake at a
+    // time, and none while the queue is full since the next grant admits then (caller must hold landingLock)
+    private void scheduleSlotWake() {
+        long now = System.currentTimeMillis();
+        long next = arrivalMeter.getNextAdmission(landingQueue.size(), weather.getCurrentWeather(), now);
+        if (slotWakePending || next == Long.MAX_VALUE) {
+            return;
+        }
+        slotWakePending = true;
+        CompletableFuture.delayedExecutor(Math.max(1, next - now), TimeUnit.MILLISECONDS).execute(() -> {
+            landingLock.lock();
+            try {
+                slotWakePending = false;
+                dispatchLandings();
+            } finally {
+                landingLock.unlock();
             }
+        });
+    }
 
-            return false;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            return false;
+    // A metered plane ran out of air hold before its slot came up
+    private void divertHeldPlane(String planeID, long maxAirHold) {
+        CompletableFuture<Integer> grant;
+        landingLock.lock();
+        try {
+            grant = meteredGrants.remove(planeID);
+            if (grant == null) {
+                return; // Already admitted or withdrawn
+            }
+            arrivalMeter.remove(planeID).getPlane().diverted();
+            planesInAir.decrementAndGet();
+            publishQueueDepth();
+            AirportLog.log(() -> "ATC     : Plane " + planeID + " diverted after holding " + maxAirHold + "ms for its arrival slot");
         } finally {
             landingLock.unlock();
         }
+        grant.completeExceptionally(new CancellationException("Plane " + planeID + " diverted by arrival metering"));
     }
 
-    // Check if a plane can land (based on available gates and ground limit)
-    public static boolean canPlaneArrive() {
-        return findAvailableGate() != -1 && planesOnGround.availablePermits() > 0;
+    // Queue a plane for a gate (caller must hold landingLock)
+    private LandingQueue.Entry joinLandingQueue(Plane plane, CompletableFuture<Integer> grant) {
+        String planeID = plane.getID();
+        LandingPriority priority = plane.getLandingPriority();
+        boolean alreadyQueued = landingQueue.contains(planeID);
+        LandingQueue.Entry entry = landingQueue.add(planeID, priority, plane.getPassengers(), grant);
+        statistics.recordLandingQueueLength(landingQueue.size());
+        if (!alreadyQueued && AirportLog.isEnabled()) {
+            int queued = landingQueue.size();
+            AirportLog.log(() -> "ATC     : Plane " + planeID +
+                (priority.isEmergency() ? " (EMERGENCY - " + priority + ")" : "") +
+                " added to landing queue. Current queue size: " + queued);
+
+            // Emergency planes are sequenced ahead of normal traffic by the queue itself
+            if (priority.isEmergency()) {
+                int emergencies = landingQueue.emergencyCount();
+                AirportLog.log(() -> "ATC     : EMERGENCY ALERT! Prioritizing landing for Plane " + planeID +
+                    " (" + emergencies + " emergencies queued)");
+            }
+        }
+        return entry;
     }
 
-    // Assign gate to plane
-    public static int assignGate(String planeID) {
-        gateStatusLock.lock();
+    // Withdraw a landing request (e.g. the plane thread was interrupted while holding)
+    public void cancelLandingRequest(String planeID, CompletableFuture<Integer> grant) {
+        landingLock.lock();
         try {
-            int gateNumber = findAvailableGate();
-            if (gateNumber != -1) {
-                gateOccupied[gateNumber] = true;
-                gateAssignments[gateNumber] = planeID;
-                System.out.println("ATC     : Plane " + planeID + " assigned to Gate " + (gateNumber + 1));
-
-                // If this was an emergency plane, clear the emergency status
-                landingLock.lock();
-                try {
-                    if (emergencyInProgress && emergencyPlaneID.equals(planeID)) {
-                        emergencyInProgress = false;
-                        emergencyPlaneID = null;
-                        landingCondition.signalAll(); // Wake up all waiting planes
-                    }
-                } finally {
-                    landingLock.unlock();
+            if (grant.isCompletedExceptionally()) {
+                return; // Diverted or already withdrawn, nothing was reserved
+            }
+            planesInAir.decrementAndGet();
+            if (grant.isDone()) {
+                // Slot was already handed over, give it back to the next plane
+                int gateNumber = grant.getNow(-1);
+                if (gateNumber != -1) {
+                    planesOnGround.release();
+                    gateAllocator.release(gateNumber, planeID);
+                    dispatchLandings();
                 }
-
-                return gateNumber;
+                return;
+            }
+            if (meteredGrants.remove(planeID) != null) {
+                arrivalMeter.remove(planeID); // Still holding for its arrival slot
+            } else {
+                landingQueue.remove(planeID);
             }
-            return -1;
+            dispatchLandings(); // A held plane may take the room in the queue
+            grant.cancel(false);
         } finally {
-            gateStatusLock.unlock();
+            landingLock.unlock();
         }
     }
 
-    // Release gate
-    public static void releaseGate(int gateNumber, String planeID) {
-        gateStatusLock.lock();
-        try {
-            if (gateNumber >= 0 && gateNumber < MAX_GATES) {
-                gateOccupied[gateNumber] = false;
-                gateAssignments[gateNumber] = "None";
-                System.out.println("ATC     : Gate " + (gateNumber + 1) + " is now empty");
+    // Hand free gates straight to the next eligible planes, then let metered planes whose slot has come
+    // into the room left in the landing queue (caller must hold landingLock)
+    private void dispatchLandings() {
+        grantLandings();
+        if (arrivalMeter.getHolding() > 0) {
+            if (admitMeteredPlane()) {
+                grantLandings();
+            }
+            scheduleSlotWake();
+        }
+        publishQueueDepth();
+    }
 
-                // Notify waiting planes that a gate is available
-                landingLock.lock();
-                try {
-                    landingCondition.signalAll();
-                } finally {
-                    landingLock.unlock();
-                }
+    // Make the queue figures visible to the sampler (caller must hold landingLock)
+    private void publishQueueDepth() {
+        landingQueueDepth = landingQueue.size();
+        meteredHolding = arrivalMeter.getHolding();
+    }
+
+    private boolean admitMeteredPlane() {
+        long now = System.currentTimeMillis();
+        ArrivalMeter.Slot<Plane> slot = arrivalMeter.admit(landingQueue.size(), now, weather.getCurrentWeather());
+        if (slot == null) {
+            return false;
+        }
+        Plane plane = slot.getPlane();
+        long held = now - slot.getHeldSince();
+        long expected = slot.getExpectedAt() - slot.getHeldSince();
+        statistics.recordMeteringHold(held);
+        AirportLog.log(() -> "ATC     : Plane " + plane.getID() + " reached its arrival slot after holding " +
+            held + "ms (expected " + expected + "ms)");
+        joinLandingQueue(plane, meteredGrants.remove(plane.getID()));
+        return true;
+    }
+
+    private void grantLandings() {
+        while (!landingQueue.isEmpty()) {
+            if (gateAllocator.getFreeGates() == 0 || planesOnGround.availablePermits() == 0) {
+                return; // Gates or ground are full, next release will dispatch again
             }
-        } finally {
-            gateStatusLock.unlock();
+            // Highest priority tier first, then request order within the tier; the strategy picks the gate
+            // and may let a later plane go ahead into a gate the first one does not fit
+            GateAssignmentStrategy.Assignment assignment = gateStrategy.assign(
+                landingQueue.peek(gateStrategy.getLookahead()), gateAllocator, planesOnGround.availablePermits());
+            if (assignment == null) {
+                return; // No waiting plane fits a free gate, next release will dispatch again
+            }
+            LandingQueue.Entry next = assignment.getEntry();
+            String planeID = next.getPlaneID();
+            int gateNumber = assignment.getGate();
+
+            if (!planesOnGround.tryAcquire()) {
+                return;
+            }
+            if (!gateAllocator.claim(gateNumber, planeID)) {
+                planesOnGround.release();
+                return; // Lost the gate to a concurrent claim, next release will dispatch again
+            }
+            AirportLog.log(() -> "ATC     : Plane " + planeID + " assigned to Gate " + (gateNumber + 1));
+
+            landingQueue.remove(planeID);
+            if (next.getPriority().isEmergency()) {
+                AirportLog.log(() -> "ATC     : EMERGENCY Plane " + planeID + " granted priority landing permission");
+            } else {
+                int queued = landingQueue.size();
+                AirportLog.log(() -> "ATC     : Plane " + planeID + " granted landing permission. Current queue size: " + queued);
+            }
+            next.getGrant().complete(gateNumber);
         }
     }
 
-    // Update statistics (thread-safe)
-    public static void updateStatistics(String planeID, long totalTime, long waitingTime, int passengers, String operationSummary) {
-        consoleLock.lock();
+    // Release the plane's gate, the allocator's release listener hands it to the next plane in the landing
+    // queue. A plane that no longer holds the gate releases nothing
+    public void releaseGate(int gateNumber, String planeID) {
+        if (gateAllocator.release(gateNumber, planeID)) {
+            AirportLog.log(() -> "ATC     : Gate " + (gateNumber + 1) + " is now empty");
+        }
+    }
+
+    // Gate release hook, runs without any gate lock held so landingLock is never nested
+    private void dispatchAfterRelease() {
+        landingLock.lock();
         try {
-            planesServed++;
-            totalPassengers += passengers;
-            minWaitingTime = Math.min(minWaitingTime, waitingTime);
-            maxWaitingTime = Math.max(maxWaitingTime, waitingTime);
-            totalWaitingTime += waitingTime;
-            planeOperations.add("Plane " + planeID + ": " + operationSummary + 
-                " (Wait time: " + waitingTime + "ms, Total time: " + totalTime + "ms)");
+            dispatchLandings();
         } finally {
-            consoleLock.unlock();
+            landingLock.unlock();
+        }
+    }
+
+    // Return a ground permit after departure and let the next plane in
+    public void leaveGround() {
+        planesOnGround.release();
+        dispatchAfterRelease();
+    }
+
+    // Update statistics (lock-free, safe from any plane thread)
+    public void updateStatistics(String planeID, long totalTime, long waitingTime, int passengers, OperationLog operationLog) {
+        statistics.record(planeID, totalTime, waitingTime, passengers, operationLog);
+    }
+
+    // Record how long a plane held its gate
+    public void recordGateOccupancy(long occupiedTime) {
+        statistics.recordGateOccupancy(occupiedTime);
+        if (arrivalMeter.isEnabled()) {
+            landingLock.lock();
+            try {
+                arrivalMeter.recordGroundTime(occupiedTime);
+            } finally {
+                landingLock.unlock();
+            }
         }
     }
 
     // Print statistics and perform sanity checks
-    public static void printStatistics() {
+    public void printStatistics() {
+        AirportLog.flush(); // Let the log writer catch up so the report is not interleaved with it
         consoleLock.lock();
         try {
             long simulationEndTime = System.currentTimeMillis();
@@ -240,31 +577,32 @@ public class AsiaPacificAirport {
             System.out.println("\n--- Simulation Statistics ---");
             System.out.println("Sanity Check - Gates Empty:");
             boolean allGatesEmpty = true;
-            for (int i = 0; i < MAX_GATES; i++) {
-                boolean isEmpty = !gateOccupied[i];
-                System.out.println("Gate " + (i + 1) + ": " + (isEmpty ? "Empty" : "Occupied by " + gateAssignments[i]));
+            for (int i = 0; i < gateAllocator.getGateCount(); i++) {
+                boolean isEmpty = !gateAllocator.isOccupied(i);
+                System.out.println("Gate " + (i + 1) + ": " + (isEmpty ? "Empty" : "Occupied by " + gateAllocator.getAssignment(i)));
                 if (!isEmpty) allGatesEmpty = false;
             }
             System.out.println("All Gates Empty: " + (allGatesEmpty ? "YES" : "NO"));
-       
-            System.out.println("\n--- Service Statistics ---");
-            System.out.println("Planes Served: " + planesServed);
-            System.out.println("Total Passengers Boarded: " + totalPassengers);
-            
-            System.out.println("\n--- Waiting Time Statistics ---");
-            long avgWaitingTime = (planesServed > 0) ? totalWaitingTime / planesServed : 0;
-            System.out.println("Minimum Waiting Time: " + (minWaitingTime == Long.MAX_VALUE ? 0 : minWaitingTime) + " ms");
-            System.out.println("Maximum Waiting Time: " + (maxWaitingTime == Long.MIN_VALUE ? 0 : maxWaitingTime) + " ms");
-            System.out.println("Average Waiting Time: " + avgWaitingTime + " ms");
-            System.out.println("Total Waiting Time: " + totalWaitingTime + " ms");
-            System.out.println("Total Simulation Time: " + totalRunningTime + " ms");
-            
-            System.out.println("\n--- Plane Operations Summary ---");
-            for (String operation : planeOperations) {
-                System.out.println(operation);
+
+            runwayLock.lock();
+            try {
+                runwaySystem.printStatistics(totalRunningTime);
+            } finally {
+                runwayLock.unlock();
+            }
+
+            groundLock.lock();
+            try {
+                groundServices.printStatistics(totalRunningTime);
+            } finally {
+                groundLock.unlock();
             }
+
+            statistics.print(totalRunningTime);
+            sampler.printSummary();
+            lockMonitor.printStatistics();
         } finally {
             consoleLock.unlock();
         }
     }
-}
+}
\ No newline at end of file
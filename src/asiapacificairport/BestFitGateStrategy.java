@@ -0,0 +1,24 @@
+package asiapacificairport;
+
+import java.util.List;
+
+// The next plane in the landing queue gets the smallest free gate it fits, keeping big gates for big aircraft
+public class BestFitGateStrategy implements GateAssignmentStrategy {
+    @Override
+    public Assignment assign(List<LandingQueue.Entry> waiting, GateAllocator gates, int freeGroundSlots) {
+        LandingQueue.Entry next = waiting.get(0);
+        int gate = smallestUsable(gates, next, null);
+        return (gate == -1) ? null : new Assignment(next, gate);
+    }
+
+    // Smallest free gate the plane can use other than the excluded ones (may be null), lowest number on
+    // ties, -1 if none
+    static int smallestUsable(GateAllocator gates, LandingQueue.Entry entry, long[] excluded) {
+        return gates.findSmallestFit(entry.getPassengers(), entry.getPriority().isEmergency(), excluded);
+    }
+
+    @Override
+    public String toString() {
+        return "best-fit";
+    }
+}
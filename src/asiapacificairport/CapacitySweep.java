@@ -0,0 +1,243 @@
+package asiapacificairport;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Capacity planning: runs every combination of the varied settings, each for a few seeds, as isolated
+// discrete-event simulations in parallel on all cores, and collects throughput, waiting and resource
+// utilisation into one table. Each simulation owns its airport state, so any number run side by side.
+// A range is "from..to" or "from..to:step", a list separates values with '|' so runway layouts can
+// keep their commas.
+//
+//   java asiapacificairport.CapacitySweep --vary gates=2..6 --vary runways=mixed|mixed,mixed
+//                                        [--vary refueling-trucks=1..3]... [--scenario=file] [--seed=S]
+//                                        [--seeds=N] [--threads=N] [--planes=N] [--set key=value]...
+//                                        [--csv=file]
+public class CapacitySweep {
+    private static final String[] COLUMNS = {"planes_served", "planes_per_hour", "avg_wait_ms", "p99_wait_ms",
+            "gate_util_pct", "runway_util_pct", "max_queue", "diverted"};
+
+    // Figures of one combination, averaged over its seeds
+    static final class Row {
+        private final Map<String, String> settings;
+        private final double[] values = new double[COLUMNS.length];
+        private int runs = 0;
+
+        Row(Map<String, String> settings) {
+            this.settings = settings;
+        }
+
+        void add(double[] run) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] += (run[i] - values[i]) / (runs + 1);
+            }
+            runs++;
+        }
+
+        Map<String, String> getSettings() {
+            return settings;
+        }
+
+        double[] getValues() {
+            return values;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        CommandLine commandLine = new CommandLine(args, "vary");
+        String scenarioFile = commandLine.getString("scenario", null);
+        long seed = commandLine.getLong("seed", 1);
+        int seeds = commandLine.getInt("seeds", 3);
+        int threads = commandLine.getInt("threads", Runtime.getRuntime().availableProcessors());
+        int planes = commandLine.getInt("planes", 200);
+        Path csvFile = commandLine.getPath("csv");
+        Map<String, List<String>> varied = new LinkedHashMap<>();
+        for (Map.Entry<String, String> setting : commandLine.getPairs("vary").entrySet()) {
+            varied.put(setting.getKey(), parseValues(setting.getValue()));
+        }
+        Map<String, String> overrides = commandLine.getOverrides();
+        commandLine.finish();
+        if (varied.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to sweep, give at least one --vary key=values");
+        }
+
+        Scenario base = (scenarioFile != null)
+                ? ScenarioLoader.load(Paths.get(scenarioFile), seed)
+                : new Scenario(seed, planes);
+        Scenario scenario = base.withConfig(base.getConfig().with(overrides));
+        List<Row> rows = combinations(varied);
+        // Build every configuration up front so a bad value fails before anything runs
+        for (Row row : rows) {
+            scenario.getConfig().with(row.settings).newRunwaySystem();
+        }
+
+        System.out.println("*** Capacity Sweep (" + (scenarioFile != null ? scenarioFile : planes + " planes") + ", " +
+                rows.size() + " combinations x " + seeds + " seeds from " + scenario.getSeed() + ", " + threads +
+                " threads) ***");
+        long startTime = System.nanoTime();
+        sweep(scenario, rows, seeds, threads);
+        long wallTime = (System.nanoTime() - startTime) / 1_000_000;
+
+        print(varied, rows);
+        System.out.println("\n" + rows.size() * seeds + " simulations in " + wallTime + " ms wall time");
+        if (csvFile != null) {
+            writeCsv(csvFile, varied, rows);
+            System.out.println("Results : " + rows.size() + " rows written to " + csvFile);
+        }
+    }
+
+    // Run every row for seeds consecutive seeds on a pool of the given size. Each row averages its runs in
+    // seed order, whatever order they finished in, so the figures do not depend on the number of threads
+    static void sweep(Scenario scenario, List<Row> rows, int seeds, int threads)
+            throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<double[]>> futures = new ArrayList<>();
+            for (Row row : rows) {
+                for (int s = 0; s < seeds; s++) {
+                    Scenario run = scenario.withSeed(scenario.getSeed() + s).withConfig(scenario.getConfig().with(row.settings));
+                    futures.add(executor.submit(() -> run(run)));
+                }
+            }
+            int next = 0;
+            for (Row row : rows) {
+                for (int s = 0; s < seeds; s++) {
+                    row.add(futures.get(next++).get());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // One simulation, in COLUMNS order
+    private static double[] run(Scenario scenario) {
+        AirportConfig config = scenario.getConfig();
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(scenario);
+        AirportStatistics statistics = simulation.run();
+        double time = Math.max(1, simulation.getSimulationTime());
+        int runways = config.newRunwaySystem().getRunways().size();
+        return new double[]{
+                statistics.getPlanesServed(),
+                statistics.getPlanesServed() * 3_600_000.0 / time,
+                statistics.getWaitingTimes().getMean(),
+                statistics.getWaitingTimes().getPercentile(0.99),
+                100.0 * statistics.getGateOccupancy().getTotal() / (config.getGates() * time),
+                100.0 * statistics.getRunwayOccupancy().getTotal() / (runways * time),
+                statistics.getMaxLandingQueue(),
+                statistics.getDiversions()
+        };
+    }
+
+    // "2..6", "1..9:2" or "mixed|mixed,mixed"
+    static List<String> parseValues(String spec) {
+        List<String> values = new ArrayList<>();
+        int dots = spec.indexOf("..");
+        if (dots > 0 && !spec.contains("|")) {
+            int colon = spec.indexOf(':', dots);
+            int from = Integer.parseInt(spec.substring(0, dots).trim());
+            int to = Integer.parseInt(spec.substring(dots + 2, colon < 0 ? spec.length() : colon).trim());
+            int step = (colon < 0) ? 1 : Integer.parseInt(spec.substring(colon + 1).trim());
+            if (step <= 0 || to < from) {
+                throw new IllegalArgumentException("Bad range: " + spec);
+            }
+            for (int value = from; value <= to; value += step) {
+                values.add(String.valueOf(value));
+            }
+        } else {
+            for (String value : spec.split("\\|")) {
+                values.add(value.trim());
+            }
+        }
+        return values;
+    }
+
+    // Cartesian product, the last varied key changing fastest
+    static List<Row> combinations(Map<String, List<String>> varied) {
+        List<Map<String, String>> settings = new ArrayList<>();
+        settings.add(new LinkedHashMap<>());
+        for (Map.Entry<String, List<String>> entry : varied.entrySet()) {
+            List<Map<String, String>> expanded = new ArrayList<>();
+            for (Map<String, String> partial : settings) {
+                for (String value : entry.getValue()) {
+                    Map<String, String> combination = new LinkedHashMap<>(partial);
+                    combination.put(entry.getKey(), value);
+                    expanded.add(combination);
+                }
+            }
+            settings = expanded;
+        }
+        List<Row> rows = new ArrayList<>();
+        for (Map<String, String> combination : settings) {
+            rows.add(new Row(combination));
+        }
+        return rows;
+    }
+
+    // Results table, with the highest throughput and the lowest p99 wait marked
+    private static void print(Map<String, List<String>> varied, List<Row> rows) {
+        Row bestThroughput = rows.get(0);
+        Row bestWait = rows.get(0);
+        for (Row row : rows) {
+            if (row.values[1] > bestThroughput.values[1]) {
+                bestThroughput = row;
+            }
+            if (row.values[3] < bestWait.values[3]) {
+                bestWait = row;
+            }
+        }
+        StringBuilder header = new StringBuilder();
+        for (String key : varied.keySet()) {
+            header.append(String.format("%-" + width(key, varied.get(key)) + "s ", key));
+        }
+        System.out.println(header + String.format("%7s %12s %10s %10s %9s %11s %9s %8s", "Planes", "Planes/hour",
+                "Avg wait", "p99 wait", "Gate use", "Runway use", "Max queue", "Diverted"));
+        for (Row row : rows) {
+            StringBuilder line = new StringBuilder();
+            for (String key : varied.keySet()) {
+                line.append(String.format("%-" + width(key, varied.get(key)) + "s ", row.settings.get(key)));
+            }
+            double[] v = row.values;
+            System.out.println(line + String.format("%7.0f %12.1f %7.0f ms %7.0f ms %8.1f%% %10.1f%% %9.1f %8.1f%s", v[0], v[1],
+                    v[2], v[3], v[4], v[5], v[6], v[7],
+                    (row == bestThroughput ? "  <- best throughput" : "") + (row == bestWait ? "  <- best p99 wait" : "")));
+        }
+    }
+
+    private static int width(String key, List<String> values) {
+        int width = key.length();
+        for (String value : values) {
+            width = Math.max(width, value.length());
+        }
+        return width;
+    }
+
+    static void writeCsv(Path file, Map<String, List<String>> varied, List<Row> rows) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println(String.join(",", varied.keySet()) + ",runs," + String.join(",", COLUMNS));
+            for (Row row : rows) {
+                StringBuilder line = new StringBuilder();
+                for (String key : varied.keySet()) {
+                    line.append('"').append(row.settings.get(key)).append("\",");
+                }
+                line.append(row.runs);
+                for (double value : row.values) {
+                    line.append(',').append(String.format(Locale.ROOT, "%.2f", value));
+                }
+                out.println(line);
+            }
+        }
+    }
+}
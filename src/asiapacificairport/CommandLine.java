@@ -0,0 +1,107 @@
+package asiapacificairport;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Arguments of the command line tools: "--name=value" options and "--name key=value" pairs, of which
+// every tool takes "--set key=value" to override a configuration setting. Options are read by name
+// with a default; finish() then rejects anything no tool asked for, so a mistyped option fails instead
+// of being ignored.
+public class CommandLine {
+    private final Map<String, String> options = new LinkedHashMap<>(); // Last one wins
+    private final Map<String, Map<String, String>> pairs = new LinkedHashMap<>();
+    private final Set<String> read = new HashSet<>();
+
+    // Parse the arguments, taking "--set" and the given pair options as "--name key=value"
+    public CommandLine(String[] args, String... pairOptions) {
+        List<String> pairNames = Arrays.asList(pairOptions);
+        pairs.put("set", new LinkedHashMap<>());
+        for (String name : pairNames) {
+            pairs.put(name, new LinkedHashMap<>());
+        }
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            String name = arg.substring(2);
+            int equals = name.indexOf('=');
+            if (equals >= 0) {
+                options.put(name.substring(0, equals), name.substring(equals + 1));
+            } else if (pairs.containsKey(name)) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException(arg + " expects key=value");
+                }
+                String setting = args[++i];
+                int separator = setting.indexOf('=');
+                if (separator < 0) {
+                    throw new IllegalArgumentException(arg + " expects key=value, got: " + setting);
+                }
+                pairs.get(name).put(setting.substring(0, separator).trim(), setting.substring(separator + 1).trim());
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+    }
+
+    public boolean has(String name) {
+        read.add(name);
+        return options.containsKey(name);
+    }
+
+    public String getString(String name, String defaultValue) {
+        return has(name) ? options.get(name) : defaultValue;
+    }
+
+    public int getInt(String name, int defaultValue) {
+        return has(name) ? Integer.parseInt(options.get(name)) : defaultValue;
+    }
+
+    public long getLong(String name, long defaultValue) {
+        return has(name) ? Long.parseLong(options.get(name)) : defaultValue;
+    }
+
+    // A comma-separated list
+    public String[] getList(String name, String[] defaultValue) {
+        return has(name) ? options.get(name).split(",") : defaultValue;
+    }
+
+    public Path getPath(String name) {
+        return has(name) ? Paths.get(options.get(name)) : null;
+    }
+
+    // Settings given with "--set key=value", in command line order
+    public Map<String, String> getOverrides() {
+        return getPairs("set");
+    }
+
+    // Pairs given with "--name key=value", in command line order
+    public Map<String, String> getPairs(String name) {
+        return new LinkedHashMap<>(pairs.get(name));
+    }
+
+    // Send the log where "--log=stdout|quiet|file" says, stdout by default
+    public void configureLog() {
+        String target = getString("log", "stdout");
+        if (target.equals("quiet")) {
+            AirportLog.setQuiet(true);
+        } else if (!target.equals("stdout")) {
+            AirportLog.setOutput(Paths.get(target));
+        }
+    }
+
+    // Fail on the first option the tool did not read
+    public void finish() {
+        for (String name : options.keySet()) {
+            if (!read.contains(name)) {
+                throw new IllegalArgumentException("Unknown argument: --" + name + "=" + options.get(name));
+            }
+        }
+    }
+}
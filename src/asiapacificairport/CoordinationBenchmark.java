@@ -0,0 +1,200 @@
+package asiapacificairport;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Throughput of the airport coordination primitives at 1/4/16/64 concurrent planes. Every service time
+// is set to 0 ms (override with --set key=value), so the numbers measure locking, queueing and handoff
+// overhead rather than simulated sleeps. Each benchmark runs warmup iterations, then reports the mean
+// and standard deviation of the measured iterations.
+//
+//   java asiapacificairport.CoordinationBenchmark [--threads=1,4,16,64] [--warmup=2] [--iterations=5]
+//                                                [--duration=1000] [--benchmarks=gates,landing,...]
+public class CoordinationBenchmark {
+    private static final String[] SERVICE_TIMES = {"landing-time", "coast-to-gate-time", "refill-time",
+            "cleaning-time", "disembark-time", "embark-time", "refuel-time", "undock-time", "coast-to-runway-time"};
+    private static final List<AsiaPacificAirport> airports = new ArrayList<>();
+
+    private static volatile long sink; // Keeps results observable so the JIT cannot drop the work
+
+    // One benchmarked operation, called in a loop by every thread; returns a value for the sink
+    private interface Operation {
+        long run(int thread, long iteration) throws Exception;
+    }
+
+    // Builds a fresh operation (and any airport state it needs) for one thread count
+    private interface Benchmark {
+        Operation setUp(int threads);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        CommandLine commandLine = new CommandLine(args);
+        int[] threadCounts = Arrays.stream(commandLine.getList("threads", new String[]{"1", "4", "16", "64"}))
+                .mapToInt(Integer::parseInt).toArray();
+        int warmup = commandLine.getInt("warmup", 2);
+        int iterations = commandLine.getInt("iterations", 5);
+        long duration = commandLine.getLong("duration", 1000);
+        List<String> selected = commandLine.has("benchmarks")
+                ? Arrays.asList(commandLine.getList("benchmarks", null))
+                : null;
+        AirportConfig config = benchmarkConfig(commandLine.getOverrides());
+        commandLine.finish();
+
+        Map<String, Benchmark> benchmarks = new LinkedHashMap<>();
+        benchmarks.put("gates", threads -> gateClaimRelease(config));
+        benchmarks.put("landing", threads -> landingGrant(config));
+        benchmarks.put("statistics", threads -> statisticsRecording());
+        benchmarks.put("turnaround", threads -> fullTurnaround(config));
+
+        AirportLog.setQuiet(true); // Silence ATC chatter while measuring
+        System.out.println("*** Coordination Benchmark (" + config.getGates() + " gates, " + config.getGroundCapacity() +
+                " ground slots, " + warmup + " warmup + " + iterations + " x " + duration + "ms iterations) ***");
+        System.out.printf("%-12s %8s %16s %14s %12s%n", "Benchmark", "Threads", "ops/s", "stddev", "ns/op");
+        for (Map.Entry<String, Benchmark> benchmark : benchmarks.entrySet()) {
+            if (selected != null && !selected.contains(benchmark.getKey())) {
+                continue;
+            }
+            for (int threads : threadCounts) {
+                Operation operation = benchmark.getValue().setUp(threads);
+                for (int i = 0; i < warmup; i++) {
+                    measure(operation, threads, duration);
+                }
+                double[] throughput = new double[iterations];
+                for (int i = 0; i < iterations; i++) {
+                    throughput[i] = measure(operation, threads, duration);
+                }
+                report(benchmark.getKey(), threads, throughput);
+            }
+        }
+        for (AsiaPacificAirport airport : airports) {
+            airport.getGroundServicesExecutor().shutdownNow();
+        }
+    }
+
+    // Every service time 0 ms and sunny all day, then the given settings; shared with the JMH benchmarks
+    static AirportConfig benchmarkConfig(Map<String, String> overrides) {
+        Map<String, String> settings = new HashMap<>();
+        for (String service : SERVICE_TIMES) {
+            settings.put(service, "0");
+        }
+        settings.put("weather", "fixed");
+        settings.put("weather-sequence", "sunny");
+        settings.putAll(overrides);
+        return AirportConfig.defaults().with(settings);
+    }
+
+    // Gate claim then release on a bare GateAllocator, failed claims count as operations too
+    private static Operation gateClaimRelease(AirportConfig config) {
+        GateAllocator gates = config.newGateAllocator();
+        return (thread, iteration) -> {
+            String planeID = "B" + thread;
+            int gate = gates.claim(planeID);
+            if (gate >= 0) {
+                gates.release(gate, planeID);
+            }
+            return gate;
+        };
+    }
+
+    // Landing request, grant, gate release and ground exit through AsiaPacificAirport's real path
+    private static Operation landingGrant(AirportConfig config) {
+        AsiaPacificAirport airport = newAirport(config);
+        return (thread, iteration) -> {
+            Plane plane = new Plane(airport, "L" + thread + "-" + iteration, 1, false);
+            CompletableFuture<Integer> grant = airport.addToLandingQueue(plane);
+            int gate = grant.get();
+            airport.releaseGate(gate, plane.getID());
+            airport.leaveGround();
+            return gate;
+        };
+    }
+
+    // One departed plane recorded into the shared statistics
+    private static Operation statisticsRecording() {
+        AirportStatistics statistics = new AirportStatistics();
+        OperationLog log = new OperationLog();
+        log.log(OperationLog.Event.REQUESTED, 0);
+        return (thread, iteration) -> {
+            statistics.record("S" + thread, iteration & 0xFFFF, iteration & 0xFFF, 1, log);
+            statistics.recordRunwayOccupancy(iteration & 0xFF);
+            return iteration;
+        };
+    }
+
+    // A complete Plane.run: landing grant, runway, the ground-service task graph, departure and statistics
+    private static Operation fullTurnaround(AirportConfig config) {
+        AsiaPacificAirport airport = newAirport(config);
+        return (thread, iteration) -> {
+            Plane plane = new Plane(airport, "T" + thread + "-" + iteration, 1, false);
+            plane.run();
+            return plane.getArrivalTime();
+        };
+    }
+
+    // A fresh airport per benchmark, its ground executor is shut down once every benchmark has run
+    private static AsiaPacificAirport newAirport(AirportConfig config) {
+        AsiaPacificAirport airport = new AsiaPacificAirport(config, 1); // Sunny throughout, so the weather seed is moot
+        airports.add(airport);
+        return airport;
+    }
+
+    // Run the operation on the given number of threads for one iteration, return operations per second
+    private static double measure(Operation operation, int threads, long duration) throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long[] deadline = new long[1];
+
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            Thread worker = new Thread(() -> {
+                long count = 0;
+                long result = 0;
+                try {
+                    ready.countDown();
+                    start.await();
+                    while (System.nanoTime() < deadline[0]) {
+                        result += operation.run(thread, count);
+                        count++;
+                    }
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                } finally {
+                    operations.add(count);
+                    sink += result;
+                    done.countDown();
+                }
+            }, "Bench-" + t);
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        ready.await();
+        long started = System.nanoTime();
+        deadline[0] = started + duration * 1_000_000; // Published to workers by start.countDown()
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - started;
+        if (failures.get() > 0) {
+            throw new IllegalStateException(failures.get() + " benchmark threads failed");
+        }
+        return operations.sum() * 1e9 / elapsed;
+    }
+
+    private static void report(String name, int threads, double[] throughput) {
+        double mean = Arrays.stream(throughput).average().orElse(0);
+        double variance = Arrays.stream(throughput).map(x -> (x - mean) * (x - mean)).sum() / Math.max(1, throughput.length - 1);
+        System.out.printf("%-12s %8d %16.0f %14.0f %12.0f%n", name, threads, mean, Math.sqrt(variance),
+                mean > 0 ? threads * 1e9 / mean : 0);
+    }
+}
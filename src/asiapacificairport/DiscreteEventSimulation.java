@@ -0,0 +1,577 @@
+package asiapacificairport;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+// Single-threaded replay of the airport on a virtual clock. Every Thread.sleep in Plane and Weather
+// becomes a scheduled event, and gates, runways and ground crews use the same schedulers as the
+// threaded mode, so a whole day of traffic runs in well under a second of wall time with the same
+// lifecycle as Plane.run. It can also run as one partition of a ParallelNetworkSimulation: advanced a
+// time window at a time, taking planes flown in from other airports and reporting its departures.
+public class DiscreteEventSimulation {
+    private final Scenario scenario;
+    private final AirportConfig config;
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private long now = 0; // Virtual clock in ms
+    private long nextEventNumber = 0;
+
+    // Airport resources, mirroring AsiaPacificAirport
+    private final LandingQueue landingQueue = new LandingQueue();
+    private final GateAllocator gateAllocator;
+    private final GateAssignmentStrategy gateStrategy;
+    private int freeGroundSlots;
+    private final RunwaySystem runwaySystem;
+    private final ArrivalMeter<SimulatedPlane> arrivalMeter;
+    private boolean slotWakePending = false;
+    private final Map<Runway.Movement, ArrayDeque<Consumer<Runway>>> runwayQueues = new EnumMap<>(Runway.Movement.class);
+    private long nextRunwayCheck = Long.MAX_VALUE;
+    private final GroundServices<SimulatedPlane> groundServices;
+    private Weather.WeatherCondition currentWeather = Weather.WeatherCondition.SUNNY;
+    private final WeatherForecast forecast;
+    private final List<WeatherHold> weatherHolds = new ArrayList<>();
+    private long lastWeatherChange = 0; // Virtual time the forecast's last change was due
+    private boolean weatherStopped = false; // Idle airport, no weather events until the next plane
+
+    private final AirportStatistics statistics = new AirportStatistics();
+    private int planesInSystem = 0;
+    private long lastDepartureTime = 0;
+    private boolean arrivalsFinished = false;
+    private BiConsumer<Scenario.Arrival, Long> departureListener; // Plane and departure time, null if nobody listens
+    private RunJournal journal; // Virtual times, null if the run is not journaled
+    private final UtilisationSampler sampler;
+    private int runwaysOccupied = 0;
+    private boolean samplerStopped = false; // Idle airport, no samples until the next plane
+
+    // Something that happens at a point in virtual time, ties broken by scheduling order
+    private static final class Event implements Comparable<Event> {
+        private final long time;
+        private final long eventNumber;
+        private final Runnable action;
+
+        Event(long time, long eventNumber, Runnable action) {
+            this.time = time;
+            this.eventNumber = eventNumber;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(eventNumber, other.eventNumber);
+        }
+    }
+
+    // A plane holding for weather, released by whichever comes first: sunny weather or its timeout
+    private final class WeatherHold {
+        private final Runnable onCleared;
+        private final long start = now;
+        private long releaseAt;
+        private boolean released;
+
+        WeatherHold(Runnable onCleared, long maxHold) {
+            this.onCleared = onCleared;
+            this.releaseAt = now + maxHold;
+            schedule(maxHold, this::release);
+        }
+
+        // Weather.holdForWeather: a milder condition cuts the hold to its delay, counted from the start
+        void weatherChanged(Weather.WeatherCondition condition) {
+            long cutTo = start + config.getWeatherDelay(condition);
+            if (cutTo >= releaseAt) {
+                return;
+            }
+            releaseAt = cutTo;
+            if (releaseAt <= now) {
+                release();
+            } else {
+                schedule(releaseAt - now, this::release); // The original timeout then finds it released
+            }
+        }
+
+        void release() {
+            if (released) {
+                return;
+            }
+            released = true;
+            weatherHolds.remove(this);
+            statistics.recordWeatherHold(now - start);
+            if (journal != null) {
+                journal.record(RunJournal.Type.WEATHER_HOLD, -1, now, -1, (int) (now - start));
+            }
+            onCleared.run();
+        }
+    }
+
+    // Per-plane state carried between events
+    private final class SimulatedPlane {
+        private final Scenario.Arrival arrival;
+        private final OperationLog operationLog = new OperationLog();
+        private long waitingTime;
+        private int assignedGate = -1;
+        private long gateAssignedTime;
+        private long stageStart; // When the current landing, turnaround or departure stage began
+        private boolean stageTimedOut;
+
+        SimulatedPlane(Scenario.Arrival arrival) {
+            this.arrival = arrival;
+            if (journal != null) {
+                operationLog.attach(journal, journal.registerPlane(arrival.getPlaneID(), arrival.getPassengers(),
+                        arrival.getPriority(), arrival.getTime()));
+            }
+            operationLog.log(OperationLog.Event.REQUESTED, arrival.getTime());
+        }
+
+        String id() {
+            return arrival.getPlaneID();
+        }
+    }
+
+    public DiscreteEventSimulation(Scenario scenario) {
+        this.scenario = scenario;
+        this.config = scenario.getConfig();
+        this.gateAllocator = config.newGateAllocator();
+        this.gateStrategy = config.newGateStrategy();
+        this.freeGroundSlots = config.getGroundCapacity();
+        this.groundServices = new GroundServices<>(config);
+        this.runwaySystem = config.newRunwaySystem();
+        this.arrivalMeter = new ArrivalMeter<>(config, runwaySystem);
+        this.forecast = scenario.weatherForecast();
+        this.sampler = new UtilisationSampler(config);
+        for (Runway.Movement movement : Runway.Movement.values()) {
+            runwayQueues.put(movement, new ArrayDeque<>());
+        }
+        gateAllocator.setReleaseListener(this::dispatchLandings);
+    }
+
+    // Run the whole scenario and return its statistics
+    public AirportStatistics run() {
+        start();
+        advanceTo(Long.MAX_VALUE);
+        return statistics;
+    }
+
+    // Schedule the scenario's arrivals and weather without running anything yet
+    public void start() {
+        Iterator<Scenario.Arrival> arrivals = scenario.arrivals();
+        scheduleNextArrival(arrivals);
+        scheduleNextWeatherChange();
+        if (config.getSampleInterval() > 0) {
+            events.add(new Event(0, nextEventNumber++, this::sampleUtilisation));
+        }
+    }
+
+    // Run every event due before the given virtual time, later events stay queued
+    public void advanceTo(long until) {
+        while (!events.isEmpty() && events.peek().time < until) {
+            Event event = events.poll();
+            now = event.time;
+            event.action.run();
+        }
+    }
+
+    // Virtual time of the next queued event, Long.MAX_VALUE when there is nothing left to do
+    public long getNextEventTime() {
+        return events.isEmpty() ? Long.MAX_VALUE : events.peek().time;
+    }
+
+    // A plane from outside the scenario, e.g. flown in from another airport; must not be in the past
+    public void receive(Scenario.Arrival arrival) {
+        if (arrival.getTime() < now) {
+            throw new IllegalArgumentException("Plane " + arrival.getPlaneID() + " arrives at " + arrival.getTime() +
+                    " ms, before the current time " + now + " ms");
+        }
+        events.add(new Event(arrival.getTime(), nextEventNumber++, () -> requestLanding(new SimulatedPlane(arrival))));
+    }
+
+    // Called with every plane as it departs, and its departure time
+    public void setDepartureListener(BiConsumer<Scenario.Arrival, Long> listener) {
+        departureListener = listener;
+    }
+
+    // Journal the run in virtual time, set before run() or start()
+    public void setJournal(RunJournal journal) {
+        this.journal = journal;
+    }
+
+    public AirportStatistics getStatistics() {
+        return statistics;
+    }
+
+    // Utilisation samples in virtual time, taken every sample-interval ms while planes are around
+    public UtilisationSampler getSampler() {
+        return sampler;
+    }
+
+    // Virtual time at which the last plane departed
+    public long getSimulationTime() {
+        return lastDepartureTime;
+    }
+
+    // Print the same report as AsiaPacificAirport.printStatistics
+    public void printStatistics() {
+        System.out.println("\n--- Simulation Statistics ---");
+        System.out.println("Sanity Check - Gates Empty:");
+        boolean allGatesEmpty = true;
+        for (int i = 0; i < gateAllocator.getGateCount(); i++) {
+            boolean isEmpty = !gateAllocator.isOccupied(i);
+            System.out.println("Gate " + (i + 1) + ": " + (isEmpty ? "Empty" : "Occupied by " + gateAllocator.getAssignment(i)));
+            if (!isEmpty) allGatesEmpty = false;
+        }
+        System.out.println("All Gates Empty: " + (allGatesEmpty ? "YES" : "NO"));
+
+        runwaySystem.printStatistics(lastDepartureTime);
+        groundServices.printStatistics(lastDepartureTime);
+        statistics.print(lastDepartureTime);
+        sampler.printSummary();
+    }
+
+    private void schedule(long delay, Runnable action) {
+        events.add(new Event(now + delay, nextEventNumber++, action));
+    }
+
+    // Arrivals are pulled from the scenario one at a time
+    private void scheduleNextArrival(Iterator<Scenario.Arrival> arrivals) {
+        if (!arrivals.hasNext()) {
+            arrivalsFinished = true;
+            return;
+        }
+        Scenario.Arrival arrival = arrivals.next();
+        events.add(new Event(arrival.getTime(), nextEventNumber++, () -> {
+            requestLanding(new SimulatedPlane(arrival));
+            scheduleNextArrival(arrivals);
+        }));
+    }
+
+    // AsiaPacificAirport's sampler thread, stopped like the weather once the airport is idle
+    private void sampleUtilisation() {
+        sampler.record(now, landingQueue.size(), arrivalMeter.getHolding(),
+                gateAllocator.getGateCount() - gateAllocator.getFreeGates(), config.getGroundCapacity() - freeGroundSlots,
+                runwaysOccupied, currentWeather);
+        if (arrivalsFinished && planesInSystem == 0) {
+            samplerStopped = true;
+            return;
+        }
+        schedule(sampler.getInterval(), this::sampleUtilisation);
+    }
+
+    // Weather keeps changing until the last plane has left, like the daemon Weather thread
+    private void scheduleNextWeatherChange() {
+        if (arrivalsFinished && planesInSystem == 0) {
+            weatherStopped = true;
+            return;
+        }
+        WeatherTimeline.Change change = forecast.next();
+        if (change == null) {
+            return; // Weather stays as it is for the rest of the run
+        }
+        scheduleWeatherChange(change);
+    }
+
+    private void scheduleWeatherChange(WeatherTimeline.Change change) {
+        lastWeatherChange += change.getDelayBefore();
+        events.add(new Event(lastWeatherChange, nextEventNumber++, () -> {
+            changeWeather(change.getCondition());
+            scheduleNextWeatherChange();
+        }));
+    }
+
+    private void changeWeather(Weather.WeatherCondition condition) {
+        currentWeather = condition;
+        if (journal != null) {
+            journal.record(RunJournal.Type.WEATHER, -1, now, -1, condition.ordinal());
+        }
+        // Weather.changeWeather signals weatherChange: sunny weather releases every holding plane at once,
+        // any other change shortens the holds that were for something worse
+        for (WeatherHold hold : new ArrayList<>(weatherHolds)) {
+            if (currentWeather == Weather.WeatherCondition.SUNNY) {
+                hold.release();
+            } else {
+                hold.weatherChanged(currentWeather);
+            }
+        }
+    }
+
+    // A plane arrived after the weather stopped: catch up on the changes due while the airport was idle
+    private void resumeWeather() {
+        weatherStopped = false;
+        WeatherTimeline.Change change;
+        while ((change = forecast.next()) != null) {
+            if (lastWeatherChange + change.getDelayBefore() > now) {
+                scheduleWeatherChange(change);
+                return;
+            }
+            lastWeatherChange += change.getDelayBefore();
+            changeWeather(change.getCondition());
+        }
+    }
+
+    // Weather.holdForWeather: wait until sunny or until the condition's delay runs out. With a forecast
+    // that sees the weather clear within the delay, the plane is released leadTime early so that it
+    // reaches the runway just as it clears
+    private void holdForWeather(long leadTime, Runnable onCleared) {
+        if (currentWeather == Weather.WeatherCondition.SUNNY) {
+            onCleared.run();
+            return;
+        }
+        long maxHold = config.getWeatherDelay(currentWeather);
+        if (forecast.getHorizon() > 0) {
+            long clearsAt = forecast.clearsAt(now);
+            if (clearsAt != Long.MAX_VALUE && clearsAt - now <= maxHold) {
+                maxHold = Math.max(0, clearsAt - now - leadTime);
+            }
+        }
+        weatherHolds.add(new WeatherHold(onCleared, maxHold));
+    }
+
+    // Plane.requestLanding, metered by AsiaPacificAirport.addToLandingQueue
+    private void requestLanding(SimulatedPlane plane) {
+        long hold = arrivalMeter.assign(plane, plane.id(), now, landingQueue.size(),
+                plane.arrival.getPriority().isEmergency(), currentWeather);
+        if (hold == ArrivalMeter.DIVERT) {
+            statistics.recordDiversion();
+            plane.operationLog.journal(RunJournal.Type.DIVERTED, -1, 0, now);
+            return;
+        }
+        planesInSystem++;
+        if (weatherStopped) {
+            resumeWeather();
+        }
+        if (samplerStopped) {
+            // Back on the sampling grid at the next multiple of the interval
+            samplerStopped = false;
+            long interval = sampler.getInterval();
+            events.add(new Event((now + interval - 1) / interval * interval, nextEventNumber++, this::sampleUtilisation));
+        }
+        long timeout = config.getLandingRequestTimeout();
+        if (timeout > 0) {
+            schedule(timeout, () -> landingRequestTimedOut(plane));
+        }
+        if (hold > 0) {
+            plane.operationLog.log(OperationLog.Event.METERED, now);
+            scheduleSlotWake();
+            if (arrivalMeter.getMaxAirHold() > 0) {
+                schedule(arrivalMeter.getMaxAirHold(), () -> {
+                    if (arrivalMeter.remove(plane.id()) != null) {
+                        statistics.recordDiversion(); // Still holding when its air hold ran out
+                        plane.operationLog.journal(RunJournal.Type.DIVERTED, -1, 0, now);
+                        planesInSystem--;
+                    }
+                });
+            }
+            return; // Holding in the air until dispatchLandings admits it
+        }
+        joinLandingQueue(plane);
+        dispatchLandings();
+    }
+
+    // Plane.fly's landing request timeout: a plane not cleared to land by now gives up and diverts
+    private void landingRequestTimedOut(SimulatedPlane plane) {
+        if (arrivalMeter.remove(plane.id()) == null && landingQueue.remove(plane.id()) == null) {
+            return; // Cleared, or already diverted by arrival metering
+        }
+        statistics.recordDiversion();
+        plane.operationLog.journal(RunJournal.Type.DIVERTED, -1, 0, now);
+        planesInSystem--;
+        dispatchLandings(); // Its place in the queue goes to a held plane
+    }
+
+    private void joinLandingQueue(SimulatedPlane plane) {
+        LandingQueue.Entry entry = landingQueue.add(plane.id(), plane.arrival.getPriority(), plane.arrival.getPassengers());
+        statistics.recordLandingQueueLength(landingQueue.size());
+        entry.getGrant().thenAccept(gate -> landingGranted(plane, gate));
+    }
+
+    // AsiaPacificAirport.dispatchLandings: grant free gates, then let held planes whose slot has come into the
+    // room left in the queue
+    private void dispatchLandings() {
+        grantLandings();
+        if (arrivalMeter.getHolding() > 0) {
+            if (admitMeteredPlane()) {
+                grantLandings();
+            }
+            scheduleSlotWake();
+        }
+    }
+
+    private boolean admitMeteredPlane() {
+        ArrivalMeter.Slot<SimulatedPlane> slot = arrivalMeter.admit(landingQueue.size(), now, currentWeather);
+        if (slot == null) {
+            return false;
+        }
+        statistics.recordMeteringHold(now - slot.getHeldSince());
+        joinLandingQueue(slot.getPlane());
+        return true;
+    }
+
+    // AsiaPacificAirport.scheduleSlotWake: dispatch again at the next arrival slot
+    private void scheduleSlotWake() {
+        long next = arrivalMeter.getNextAdmission(landingQueue.size(), currentWeather, now);
+        if (slotWakePending || next == Long.MAX_VALUE) {
+            return;
+        }
+        slotWakePending = true;
+        schedule(Math.max(1, next - now), () -> {
+            slotWakePending = false;
+            dispatchLandings();
+        });
+    }
+
+    private void grantLandings() {
+        while (!landingQueue.isEmpty() && freeGroundSlots > 0 && gateAllocator.getFreeGates() > 0) {
+            GateAssignmentStrategy.Assignment assignment = gateStrategy.assign(
+                landingQueue.peek(gateStrategy.getLookahead()), gateAllocator, freeGroundSlots);
+            if (assignment == null) {
+                return;
+            }
+            LandingQueue.Entry next = assignment.getEntry();
+            gateAllocator.claim(assignment.getGate(), next.getPlaneID());
+            landingQueue.remove(next.getPlaneID());
+            freeGroundSlots--;
+            next.getGrant().complete(assignment.getGate());
+        }
+    }
+
+    // Weather.waitForWeatherLanding, then Plane.land
+    private void landingGranted(SimulatedPlane plane, int gateNumber) {
+        plane.assignedGate = gateNumber;
+        plane.gateAssignedTime = now;
+        plane.stageStart = now;
+        plane.operationLog.log(OperationLog.Event.GATE_ASSIGNED, gateNumber, now);
+
+        Runnable cleared = () -> {
+            plane.waitingTime = now - plane.arrival.getTime();
+            plane.operationLog.journal(RunJournal.Type.CLEARED, plane.assignedGate, (int) plane.waitingTime, now);
+            land(plane);
+        };
+        if (plane.arrival.getPriority().isEmergency()) {
+            cleared.run();
+        } else {
+            holdForWeather(config.getLandingTime(), cleared);
+        }
+    }
+
+    // AsiaPacificAirport.acquireRunway: FIFO per movement type, runway chosen by RunwaySystem
+    private void acquireRunway(Runway.Movement movement, Consumer<Runway> onAcquired) {
+        runwaySystem.startWaiting(movement);
+        runwayQueues.get(movement).add(onAcquired);
+        startRunwayMovements();
+    }
+
+    private void releaseRunway(Runway runway) {
+        statistics.recordRunwayOccupancy(runway.vacate(now));
+        runwaysOccupied--;
+        startRunwayMovements();
+    }
+
+    // Give runways to waiting movements, and wake up again when a separation interval runs out
+    private void startRunwayMovements() {
+        long recheckAt = Long.MAX_VALUE;
+        for (Runway.Movement movement : Runway.Movement.values()) {
+            ArrayDeque<Consumer<Runway>> waiting = runwayQueues.get(movement);
+            while (!waiting.isEmpty()) {
+                Runway runway = runwaySystem.choose(movement, now);
+                if (runway == null) {
+                    recheckAt = Math.min(recheckAt, runwaySystem.nextReadyTime(movement));
+                    break;
+                }
+                runway.occupy(movement, now);
+                runwaysOccupied++;
+                runwaySystem.stopWaiting(movement);
+                waiting.poll().accept(runway);
+            }
+        }
+        if (recheckAt != Long.MAX_VALUE && recheckAt > now && recheckAt < nextRunwayCheck) {
+            nextRunwayCheck = recheckAt;
+            events.add(new Event(recheckAt, nextEventNumber++, () -> {
+                nextRunwayCheck = Long.MAX_VALUE;
+                startRunwayMovements();
+            }));
+        }
+    }
+
+    private void land(SimulatedPlane plane) {
+        acquireRunway(Runway.Movement.ARRIVAL, runway -> {
+            plane.operationLog.journal(RunJournal.Type.RUNWAY_OCCUPIED, runway.getNumber(), Runway.Movement.ARRIVAL.ordinal(), now);
+            schedule(config.getLandingTime(), () -> {
+                plane.operationLog.log(OperationLog.Event.LANDED, now);
+                plane.operationLog.journal(RunJournal.Type.RUNWAY_VACATED, runway.getNumber(), 0, now);
+                releaseRunway(runway);
+                schedule(config.getCoastToGateTime(), () -> {
+                    plane.operationLog.log(OperationLog.Event.DOCKED, plane.assignedGate, now);
+                    endStage(plane);
+                    startGroundServices(plane);
+                });
+            });
+        });
+    }
+
+    // Plane.limitStage: a plane whose landing, turnaround or departure overran stage-timeout counts once
+    private void endStage(SimulatedPlane plane) {
+        long limit = config.getStageTimeout();
+        if (limit > 0 && !plane.stageTimedOut && now - plane.stageStart > limit) {
+            plane.stageTimedOut = true;
+            statistics.recordStageTimeout();
+        }
+        plane.stageStart = now;
+    }
+
+    // AsiaPacificAirport.startTurnaround: the plane's task graph on the shared crew pools
+    private void startGroundServices(SimulatedPlane plane) {
+        GroundServices.Turnaround<SimulatedPlane> turnaround = groundServices.startTurnaround(plane, now);
+        turnaround.getCompletion().thenRun(() -> depart(plane)); // Completed synchronously inside an event
+        startGroundJobs(groundServices.dispatch(now));
+    }
+
+    private void startGroundJobs(List<GroundServices.Job<SimulatedPlane>> jobs) {
+        for (GroundServices.Job<SimulatedPlane> job : jobs) {
+            schedule(job.getTask().getDuration(config), () -> {
+                job.getPlane().operationLog.log(job.getTask().getEvent(), now);
+                boolean turnaroundComplete = groundServices.finish(job, now);
+                startGroundJobs(groundServices.dispatch(now));
+                if (turnaroundComplete) {
+                    job.getTurnaround().getCompletion().complete(null);
+                }
+            });
+        }
+    }
+
+    // Weather.waitForWeatherDeparture, then Plane.depart
+    private void depart(SimulatedPlane plane) {
+        endStage(plane);
+        long taxiTime = config.getUndockTime() + config.getCoastToRunwayTime();
+        holdForWeather(taxiTime, () -> schedule(taxiTime, () -> leaveGate(plane)));
+    }
+
+    private void leaveGate(SimulatedPlane plane) {
+        plane.operationLog.log(OperationLog.Event.LEFT_GATE, plane.assignedGate, now);
+        gateAllocator.release(plane.assignedGate, plane.id()); // Release listener dispatches the next landing
+        statistics.recordGateOccupancy(now - plane.gateAssignedTime);
+        arrivalMeter.recordGroundTime(now - plane.gateAssignedTime);
+
+        acquireRunway(Runway.Movement.DEPARTURE, runway -> {
+            long departureTime = now;
+            lastDepartureTime = departureTime;
+            plane.operationLog.journal(RunJournal.Type.RUNWAY_OCCUPIED, runway.getNumber(), Runway.Movement.DEPARTURE.ordinal(), now);
+            plane.operationLog.journal(RunJournal.Type.RUNWAY_VACATED, runway.getNumber(), 0, now);
+            releaseRunway(runway);
+            freeGroundSlots++;
+            dispatchLandings();
+            plane.operationLog.log(OperationLog.Event.DEPARTED, now);
+            endStage(plane);
+
+            statistics.record(plane.id(), departureTime - plane.arrival.getTime(), plane.waitingTime,
+                    plane.arrival.getPassengers(), plane.operationLog);
+            planesInSystem--;
+            if (departureListener != null) {
+                departureListener.accept(plane.arrival, departureTime);
+            }
+        });
+    }
+}
@@ -0,0 +1,69 @@
+package asiapacificairport;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// How plane lifecycles and ground-service tasks are mapped onto threads, chosen at startup
+public enum ExecutionMode {
+    PLATFORM("platform"), // One platform thread per running task (the original behaviour)
+    VIRTUAL("virtual"),   // One virtual thread per task, needs Java 21+
+    BOUNDED("bounded");   // Fixed pool of platform threads, extra tasks wait in the executor queue
+
+    private final String name;
+
+    ExecutionMode(String name) {
+        this.name = name;
+    }
+
+    public static ExecutionMode fromName(String name) {
+        for (ExecutionMode mode : values()) {
+            if (mode.name.equals(name)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown executor mode: " + name);
+    }
+
+    // Create an executor for this mode, poolSize is only used by BOUNDED
+    public ExecutorService newExecutor(String threadPrefix, int poolSize) {
+        switch (this) {
+            case VIRTUAL:
+                ExecutorService virtualExecutor = newVirtualThreadExecutor();
+                if (virtualExecutor != null) {
+                    return virtualExecutor;
+                }
+                AirportLog.log("ATC     : Virtual threads need Java 21+, using platform threads for " + threadPrefix);
+                return Executors.newCachedThreadPool(daemonThreads(threadPrefix));
+            case BOUNDED:
+                return Executors.newFixedThreadPool(poolSize, daemonThreads(threadPrefix));
+            default:
+                return Executors.newCachedThreadPool(daemonThreads(threadPrefix));
+        }
+    }
+
+    // Looked up reflectively so the project still compiles and runs on older JDKs
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    // Daemon threads so an unfinished simulation never keeps the JVM alive
+    private static ThreadFactory daemonThreads(String threadPrefix) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return task -> {
+            Thread thread = new Thread(task, threadPrefix + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
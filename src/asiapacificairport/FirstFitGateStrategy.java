@@ -0,0 +1,18 @@
+package asiapacificairport;
+
+import java.util.List;
+
+// The original policy: the next plane in the landing queue gets the lowest-numbered gate it fits
+public class FirstFitGateStrategy implements GateAssignmentStrategy {
+    @Override
+    public Assignment assign(List<LandingQueue.Entry> waiting, GateAllocator gates, int freeGroundSlots) {
+        LandingQueue.Entry next = waiting.get(0);
+        int gate = gates.findFirstFit(next.getPassengers(), next.getPriority().isEmergency());
+        return (gate == -1) ? null : new Assignment(next, gate);
+    }
+
+    @Override
+    public String toString() {
+        return "first-fit";
+    }
+}
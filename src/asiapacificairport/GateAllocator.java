@@ -0,0 +1,230 @@
+package asiapacificairport;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Lock-free gate allocator: one occupancy bit per gate, claimed and released with CAS.
+// Claiming touches one 64-gate word per attempt, so hundreds of gates cost a handful of CAS operations.
+// Each gate has a passenger capacity, the largest gates take any aircraft. Gates of one capacity form a
+// size class with a fixed bit mask, so finding a free gate a plane fits is a word scan of the occupancy
+// bits against the masks rather than a pass over every gate.
+public class GateAllocator {
+    private final int gateCount;
+    private final int[] capacities;
+    private final int largestCapacity;
+    private final int[] sizeClasses; // Distinct capacities, ascending
+    private final long[][] classGates; // classGates[c]: gates with capacity sizeClasses[c]
+    private final long[][] fittingGates; // fittingGates[c]: gates with capacity sizeClasses[c] or more
+    private final AtomicLongArray occupied; // Bit set = gate in use
+    private final AtomicReferenceArray<String> assignments;
+    private final AtomicInteger freeGates;
+    private volatile Runnable releaseListener = () -> { };
+
+    // Gates without a size limit
+    public GateAllocator(int gateCount) {
+        this(unlimited(gateCount));
+    }
+
+    public GateAllocator(int[] capacities) {
+        int gateCount = capacities.length;
+        this.gateCount = gateCount;
+        this.capacities = capacities.clone();
+        int largest = 0;
+        for (int capacity : capacities) {
+            largest = Math.max(largest, capacity);
+        }
+        this.largestCapacity = largest;
+        int words = (gateCount + 63) / 64;
+        this.sizeClasses = Arrays.stream(capacities).distinct().sorted().toArray();
+        this.classGates = new long[sizeClasses.length][words];
+        this.fittingGates = new long[sizeClasses.length][words];
+        for (int gate = 0; gate < gateCount; gate++) {
+            int sizeClass = Arrays.binarySearch(sizeClasses, capacities[gate]);
+            mark(classGates[sizeClass], gate);
+            for (int c = 0; c <= sizeClass; c++) {
+                mark(fittingGates[c], gate);
+            }
+        }
+        this.occupied = new AtomicLongArray(words);
+        this.assignments = new AtomicReferenceArray<>(gateCount);
+        this.freeGates = new AtomicInteger(gateCount);
+
+        // Bits past the last gate are permanently set so they are never claimed
+        int unused = words * 64 - gateCount;
+        if (unused > 0) {
+            occupied.set(words - 1, -1L << (64 - unused));
+        }
+    }
+
+    // Called after every release so waiting arrivals can be granted the gate
+    public void setReleaseListener(Runnable listener) {
+        this.releaseListener = listener;
+    }
+
+    public int getGateCount() {
+        return gateCount;
+    }
+
+    // Claim any free gate for a plane, -1 if every gate is occupied
+    public int claim(String planeID) {
+        if (freeGates.get() == 0) {
+            return -1;
+        }
+        for (int word = 0; word < occupied.length(); word++) {
+            long bits;
+            while ((bits = occupied.get(word)) != -1L) {
+                int bit = Long.numberOfTrailingZeros(~bits);
+                if (occupied.compareAndSet(word, bits, bits | (1L << bit))) {
+                    return claimed(word * 64 + bit, planeID);
+                }
+            }
+        }
+        return -1;
+    }
+
+    // Claim one specific gate, false if it is already occupied
+    public boolean claim(int gateNumber, String planeID) {
+        int word = gateNumber >>> 6;
+        long mask = 1L << (gateNumber & 63);
+        long bits;
+        while (((bits = occupied.get(word)) & mask) == 0) {
+            if (occupied.compareAndSet(word, bits, bits | mask)) {
+                claimed(gateNumber, planeID);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Free a plane's gate and notify the release listener, false if the plane does not hold the gate.
+    // Ownership is taken back with a CAS on the assignment before the occupancy bit is cleared, so a stale
+    // or repeated release can never free a gate that has since been claimed by another plane
+    public boolean release(int gateNumber, String planeID) {
+        if (gateNumber < 0 || gateNumber >= gateCount) {
+            return false;
+        }
+        String holder = assignments.get(gateNumber);
+        if (holder == null || !holder.equals(planeID) || !assignments.compareAndSet(gateNumber, holder, null)) {
+            return false;
+        }
+        int word = gateNumber >>> 6;
+        long mask = 1L << (gateNumber & 63);
+        occupied.getAndUpdate(word, bits -> bits & ~mask);
+        freeGates.incrementAndGet();
+        releaseListener.run();
+        return true;
+    }
+
+    public boolean isOccupied(int gateNumber) {
+        return (occupied.get(gateNumber >>> 6) & (1L << (gateNumber & 63))) != 0;
+    }
+
+    // Plane at a gate, null when the gate is empty
+    public String getAssignment(int gateNumber) {
+        return assignments.get(gateNumber);
+    }
+
+    public int getCapacity(int gateNumber) {
+        return capacities[gateNumber];
+    }
+
+    // Whether a plane can use a gate, aircraft bigger than every gate still fit the largest ones
+    public boolean fits(int gateNumber, int passengers) {
+        int capacity = capacities[gateNumber];
+        return passengers <= capacity || capacity == largestCapacity;
+    }
+
+    public int getFreeGates() {
+        return freeGates.get();
+    }
+
+    // Lowest free gate without claiming it, -1 if none
+    public int findFree() {
+        for (int word = 0; word < occupied.length(); word++) {
+            long bits = occupied.get(word);
+            if (bits != -1L) {
+                return word * 64 + Long.numberOfTrailingZeros(~bits);
+            }
+        }
+        return -1;
+    }
+
+    // Lowest-numbered free gate a plane fits (any gate if anySize), without claiming it; -1 if none
+    public int findFirstFit(int passengers, boolean anySize) {
+        return findFree(fittingGates[fitClass(passengers, anySize)], null);
+    }
+
+    // Smallest free gate a plane fits (any gate if anySize), lowest number among equal sizes, skipping the
+    // gates marked in excluded (may be null); -1 if none
+    public int findSmallestFit(int passengers, boolean anySize, long[] excluded) {
+        for (int c = fitClass(passengers, anySize); c < sizeClasses.length; c++) {
+            int gate = findFree(classGates[c], excluded);
+            if (gate != -1) {
+                return gate;
+            }
+        }
+        return -1;
+    }
+
+    // Number of distinct gate capacities
+    public int getSizeClassCount() {
+        return sizeClasses.length;
+    }
+
+    // Smallest size class a plane fits, 0 if anySize; aircraft bigger than every gate fit the largest class
+    public int fitClass(int passengers, boolean anySize) {
+        if (anySize) {
+            return 0;
+        }
+        int c = Arrays.binarySearch(sizeClasses, passengers);
+        if (c < 0) {
+            c = -c - 1; // First class above the passengers
+        }
+        return Math.min(c, sizeClasses.length - 1);
+    }
+
+    // Lowest free gate of one size class not marked in excluded (may be null), -1 if none
+    public int findFree(int sizeClass, long[] excluded) {
+        return findFree(classGates[sizeClass], excluded);
+    }
+
+    // Empty gate mask for marking gates, e.g. ones already picked while planning ahead
+    public long[] newGateMask() {
+        return new long[occupied.length()];
+    }
+
+    public static void mark(long[] mask, int gateNumber) {
+        mask[gateNumber >>> 6] |= 1L << (gateNumber & 63);
+    }
+
+    public static void unmark(long[] mask, int gateNumber) {
+        mask[gateNumber >>> 6] &= ~(1L << (gateNumber & 63));
+    }
+
+    private int findFree(long[] gates, long[] excluded) {
+        for (int word = 0; word < gates.length; word++) {
+            long free = ~occupied.get(word) & gates[word];
+            if (excluded != null) {
+                free &= ~excluded[word];
+            }
+            if (free != 0) {
+                return word * 64 + Long.numberOfTrailingZeros(free);
+            }
+        }
+        return -1;
+    }
+
+    private int claimed(int gateNumber, String planeID) {
+        assignments.set(gateNumber, planeID);
+        freeGates.decrementAndGet();
+        return gateNumber;
+    }
+
+    private static int[] unlimited(int gateCount) {
+        int[] capacities = new int[gateCount];
+        Arrays.fill(capacities, Integer.MAX_VALUE);
+        return capacities;
+    }
+}
@@ -0,0 +1,48 @@
+package asiapacificairport;
+
+import java.util.List;
+
+// Decides which waiting plane is granted which free gate. Called by AsiaPacificAirport under
+// landingLock and by DiscreteEventSimulation on its event loop, so implementations need no locking.
+public interface GateAssignmentStrategy {
+    // A plane from the landing queue paired with the free gate it should be given
+    final class Assignment {
+        private final LandingQueue.Entry entry;
+        private final int gate;
+
+        public Assignment(LandingQueue.Entry entry, int gate) {
+            this.entry = entry;
+            this.gate = gate;
+        }
+
+        public LandingQueue.Entry getEntry() {
+            return entry;
+        }
+
+        public int getGate() {
+            return gate;
+        }
+    }
+
+    // Pick one assignment from the waiting planes (landing order, emergencies first) and the free gates,
+    // null to leave the remaining planes waiting for the next release
+    Assignment assign(List<LandingQueue.Entry> waiting, GateAllocator gates, int freeGroundSlots);
+
+    // How many queued planes the strategy wants to see
+    default int getLookahead() {
+        return 1;
+    }
+
+    static GateAssignmentStrategy parse(String name, int lookahead) {
+        switch (name.trim()) {
+            case "first-fit":
+                return new FirstFitGateStrategy();
+            case "best-fit":
+                return new BestFitGateStrategy();
+            case "lookahead":
+                return new LookaheadGateStrategy(lookahead);
+            default:
+                throw new IllegalArgumentException("Unknown gate strategy: " + name);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package asiapacificairport;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Map;
+
+// Replays one scenario in discrete-event mode once per gate-assignment strategy and compares
+// waiting, ground time (gate occupancy) and gate utilisation. Every run sees the same arrivals and weather.
+//
+//   java asiapacificairport.GateStrategyComparison [--scenario=file] [--seed=S] [--planes=N]
+//                                                 [--strategies=first-fit,best-fit,lookahead] [--set key=value]...
+public class GateStrategyComparison {
+    public static void main(String[] args) throws IOException {
+        CommandLine commandLine = new CommandLine(args);
+        String scenarioFile = commandLine.getString("scenario", null);
+        long seed = commandLine.getLong("seed", 7);
+        int planes = commandLine.getInt("planes", 200);
+        String[] strategies = commandLine.getList("strategies", new String[]{"first-fit", "best-fit", "lookahead"});
+        Map<String, String> overrides = commandLine.getOverrides();
+        commandLine.finish();
+
+        Scenario scenario = (scenarioFile != null)
+                ? ScenarioLoader.load(Paths.get(scenarioFile), seed)
+                : new Scenario(seed, planes);
+        AirportConfig config = scenario.getConfig().with(overrides);
+
+        System.out.println("*** Gate Strategy Comparison (" + (scenarioFile != null ? scenarioFile : planes + " planes") +
+                ", seed " + scenario.getSeed() + ", " + config.getGates() + " gates) ***");
+        System.out.printf("%-10s %7s %10s %12s %12s %14s %12s%n", "Strategy", "Planes", "Avg wait",
+                "Avg ground", "p95 ground", "Avg turnaround", "Gate util");
+        for (String strategy : strategies) {
+            DiscreteEventSimulation simulation = new DiscreteEventSimulation(
+                    scenario.withConfig(config.with("gate-strategy", strategy.trim())));
+            AirportStatistics statistics = simulation.run();
+            LatencyHistogram ground = statistics.getGateOccupancy();
+            double available = (double) config.getGates() * simulation.getSimulationTime();
+            System.out.printf("%-10s %7d %8d ms %9d ms %9d ms %11d ms %11.1f%%%n", strategy.trim(),
+                    statistics.getPlanesServed(), statistics.getWaitingTimes().getMean(), ground.getMean(),
+                    ground.getPercentile(0.95), statistics.getTurnaroundTimes().getMean(),
+                    available > 0 ? 100.0 * ground.getTotal() / available : 0);
+        }
+    }
+}
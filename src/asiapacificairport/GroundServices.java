@@ -0,0 +1,270 @@
+package asiapacificairport;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+
+// Ground-service scheduling shared by the threaded and discrete-event modes. Not thread-safe,
+// the threaded mode guards it with AsiaPacificAirport's groundLock.
+//
+// Every turnaround is a small task graph (deplane -> catering + cleaning -> board, refuelling in
+// parallel from docking) and every task needs one crew from a finite pool. When several planes wait
+// for the same kind of crew, the task whose plane has the least work left goes first, so gates are
+// handed back as early as possible; ties are served in the order they became ready. A plane's work left
+// is the longest chain through its own unfinished tasks, counted when the task becomes ready: a plane
+// that is only waiting to board goes ahead of one whose boarding will wait on a long refuel anyway.
+public class GroundServices<P> {
+    public enum Crew {
+        BOARDING_BRIDGE("Boarding bridges"),
+        CATERING_TRUCK("Catering trucks"),
+        CLEANING_CREW("Cleaning crews"),
+        FUEL_TRUCK("Fuel trucks");
+
+        private final String name;
+
+        Crew(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    // Turnaround tasks, declared so that every prerequisite comes before the tasks that need it
+    public enum Task {
+        DEPLANE(Crew.BOARDING_BRIDGE, OperationLog.Event.DISEMBARKED),
+        CATERING(Crew.CATERING_TRUCK, OperationLog.Event.REFILLED, DEPLANE),
+        CLEANING(Crew.CLEANING_CREW, OperationLog.Event.CLEANED, DEPLANE),
+        REFUEL(Crew.FUEL_TRUCK, OperationLog.Event.REFUELED),
+        BOARD(Crew.BOARDING_BRIDGE, OperationLog.Event.EMBARKED, CATERING, CLEANING);
+
+        private static final Task[] VALUES = values();
+        private final Crew crew;
+        private final OperationLog.Event event;
+        private final Task[] prerequisites;
+
+        Task(Crew crew, OperationLog.Event event, Task... prerequisites) {
+            this.crew = crew;
+            this.event = event;
+            this.prerequisites = prerequisites;
+        }
+
+        public Crew getCrew() {
+            return crew;
+        }
+
+        public OperationLog.Event getEvent() {
+            return event;
+        }
+
+        public long getDuration(AirportConfig config) {
+            switch (this) {
+                case DEPLANE:
+                    return config.getDisembarkTime();
+                case CATERING:
+                    return config.getRefillTime();
+                case CLEANING:
+                    return config.getCleaningTime();
+                case REFUEL:
+                    return config.getRefuelTime();
+                default:
+                    return config.getEmbarkTime();
+            }
+        }
+    }
+
+    // One plane's turnaround, completes once every task has finished
+    public static final class Turnaround<P> {
+        private final P plane;
+        private final int[] pendingPrerequisites = new int[Task.VALUES.length];
+        private final long[] startedAt = new long[Task.VALUES.length]; // -1 until a crew takes the task
+        private final boolean[] finished = new boolean[Task.VALUES.length];
+        private int remainingTasks = Task.VALUES.length;
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        Turnaround(P plane) {
+            this.plane = plane;
+            for (Task task : Task.VALUES) {
+                pendingPrerequisites[task.ordinal()] = task.prerequisites.length;
+                startedAt[task.ordinal()] = -1;
+            }
+        }
+
+        public P getPlane() {
+            return plane;
+        }
+
+        public CompletableFuture<Void> getCompletion() {
+            return completion;
+        }
+    }
+
+    // A task that has been handed a crew and should now be carried out
+    public static final class Job<P> {
+        private final Turnaround<P> turnaround;
+        private final Task task;
+        private final long priority; // Work left on the plane's critical path when this task became ready
+        private final long sequence;
+        private final long readyAt;
+        private long startedAt;
+
+        Job(Turnaround<P> turnaround, Task task, long priority, long sequence, long readyAt) {
+            this.turnaround = turnaround;
+            this.task = task;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.readyAt = readyAt;
+        }
+
+        public Turnaround<P> getTurnaround() {
+            return turnaround;
+        }
+
+        public P getPlane() {
+            return turnaround.plane;
+        }
+
+        public Task getTask() {
+            return task;
+        }
+    }
+
+    // Per-crew pool: free count, waiting jobs and utilisation counters
+    private static final class Pool<P> {
+        private final int size;
+        private int free;
+        private final PriorityQueue<Job<P>> waiting = new PriorityQueue<>(
+                Comparator.<Job<P>>comparingLong(job -> job.priority).thenComparingLong(job -> job.sequence));
+        private int tasks = 0;
+        private int maxQueue = 0;
+        private long busyTime = 0;
+        private long waitTime = 0;
+
+        Pool(int size) {
+            this.size = size;
+            this.free = size;
+        }
+    }
+
+    private final AirportConfig config;
+    private final Map<Crew, Pool<P>> pools = new EnumMap<>(Crew.class);
+    private final long[] durations = new long[Task.VALUES.length];
+    private long nextSequence = 0;
+
+    public GroundServices(AirportConfig config) {
+        this.config = config;
+        for (Crew crew : Crew.values()) {
+            pools.put(crew, new Pool<>(config.getCrews(crew)));
+        }
+        for (Task task : Task.VALUES) {
+            durations[task.ordinal()] = task.getDuration(config);
+        }
+    }
+
+    public AirportConfig getConfig() {
+        return config;
+    }
+
+    // Total crews of every kind, the most ground tasks that can ever run at once
+    public int getTotalCrews() {
+        int total = 0;
+        for (Pool<P> pool : pools.values()) {
+            total += pool.size;
+        }
+        return total;
+    }
+
+    // Register a docked plane, its first tasks join the crew queues
+    Turnaround<P> startTurnaround(P plane, long now) {
+        Turnaround<P> turnaround = new Turnaround<>(plane);
+        for (Task task : Task.VALUES) {
+            if (task.prerequisites.length == 0) {
+                enqueue(turnaround, task, now);
+            }
+        }
+        return turnaround;
+    }
+
+    // Hand free crews to waiting tasks, the caller must carry out every returned job and then call finish
+    List<Job<P>> dispatch(long now) {
+        List<Job<P>> started = new ArrayList<>();
+        for (Pool<P> pool : pools.values()) {
+            while (pool.free > 0 && !pool.waiting.isEmpty()) {
+                Job<P> job = pool.waiting.poll();
+                pool.free--;
+                pool.tasks++;
+                pool.waitTime += now - job.readyAt;
+                job.startedAt = now;
+                job.turnaround.startedAt[job.task.ordinal()] = now;
+                started.add(job);
+            }
+        }
+        return started;
+    }
+
+    // Return the job's crew and release tasks that were waiting on it, true once the turnaround is complete
+    boolean finish(Job<P> job, long now) {
+        Pool<P> pool = pools.get(job.task.crew);
+        pool.free++;
+        pool.busyTime += now - job.startedAt;
+
+        Turnaround<P> turnaround = job.turnaround;
+        turnaround.finished[job.task.ordinal()] = true;
+        for (Task later : Task.VALUES) {
+            for (Task prerequisite : later.prerequisites) {
+                if (prerequisite == job.task && --turnaround.pendingPrerequisites[later.ordinal()] == 0) {
+                    enqueue(turnaround, later, now);
+                }
+            }
+        }
+        return --turnaround.remainingTasks == 0;
+    }
+
+    private void enqueue(Turnaround<P> turnaround, Task task, long now) {
+        Pool<P> pool = pools.get(task.crew);
+        pool.waiting.add(new Job<>(turnaround, task, remainingWork(turnaround, now), nextSequence++, now));
+        pool.maxQueue = Math.max(pool.maxQueue, pool.waiting.size());
+    }
+
+    // Longest chain of the turnaround's unfinished tasks from now, as if crews were never short: a running
+    // task counts what is left of it, a waiting task starts once its prerequisites have finished
+    long remainingWork(Turnaround<P> turnaround, long now) {
+        long[] finishAt = new long[Task.VALUES.length];
+        long end = now;
+        for (Task task : Task.VALUES) { // Prerequisites come first
+            int i = task.ordinal();
+            if (turnaround.finished[i]) {
+                finishAt[i] = now;
+            } else if (turnaround.startedAt[i] >= 0) {
+                finishAt[i] = Math.max(now, turnaround.startedAt[i] + durations[i]);
+            } else {
+                long start = now;
+                for (Task prerequisite : task.prerequisites) {
+                    start = Math.max(start, finishAt[prerequisite.ordinal()]);
+                }
+                finishAt[i] = start + durations[i];
+            }
+            end = Math.max(end, finishAt[i]);
+        }
+        return end - now;
+    }
+
+    // Per-crew utilisation for the end-of-run report
+    public void printStatistics(long totalRunningTime) {
+        System.out.println("\n--- Ground Crew Utilisation ---");
+        for (Map.Entry<Crew, Pool<P>> entry : pools.entrySet()) {
+            Pool<P> pool = entry.getValue();
+            double available = (double) pool.size * totalRunningTime;
+            long utilisation = available > 0 ? Math.round(100.0 * pool.busyTime / available) : 0;
+            long averageWait = pool.tasks > 0 ? pool.waitTime / pool.tasks : 0;
+            System.out.println(entry.getKey() + " (" + pool.size + "): " + pool.tasks + " tasks, " + utilisation +
+                    "% utilised, average wait " + averageWait + " ms, longest queue " + pool.maxQueue);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package asiapacificairport;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Rebuilds a run's statistics and its gate and runway timelines from a RunJournal written with
+// --journal=file. One sequential pass over the memory-mapped records, per-plane state in primitive
+// arrays indexed by journal plane number, so millions of records replay in well under a second.
+// --timeline also lists every gate visit and runway movement in the order they ended.
+//
+//   java asiapacificairport.JournalReplay file [--timeline]
+public class JournalReplay {
+    private static final long CHUNK_SIZE = 64L * 1024 * 1024; // Mapped at a time, a multiple of RECORD_SIZE
+
+    // Per-plane state, grown as PLANE records arrive
+    private String[] planeIDs = new String[1024];
+    private int[] passengers = new int[1024];
+    private long[] requested = new long[1024];
+    private long[] gateAssigned = new long[1024];
+    private long[] runwayOccupied = new long[1024];
+    private int planes = 0;
+
+    // Per-gate and per-runway totals, grown on first use
+    private long[] gateBusy = new long[16];
+    private int[] gateVisits = new int[16];
+    private long[] runwayBusy = new long[8];
+    private int[][] runwayMovements = new int[8][Runway.Movement.values().length];
+
+    private final LatencyHistogram waitingTimes = new LatencyHistogram("Wait time");
+    private final LatencyHistogram turnaroundTimes = new LatencyHistogram("Turnaround time");
+    private final LatencyHistogram runwayOccupancy = new LatencyHistogram("Runway occupancy");
+    private final LatencyHistogram gateOccupancy = new LatencyHistogram("Gate occupancy");
+    private final LatencyHistogram weatherHolds = new LatencyHistogram("Weather hold");
+    private final long[] recordsByType = new long[RunJournal.Type.values().length];
+    private long records = 0;
+    private long unknownRecords = 0;
+    private long planesServed = 0;
+    private long passengersBoarded = 0;
+    private long lastTime = 0;
+    private long baseTime;
+    private final boolean timeline;
+
+    JournalReplay(boolean timeline) {
+        this.timeline = timeline;
+    }
+
+    long getRecords() {
+        return records;
+    }
+
+    long getPlanesServed() {
+        return planesServed;
+    }
+
+    LatencyHistogram getWaitingTimes() {
+        return waitingTimes;
+    }
+
+    LatencyHistogram getTurnaroundTimes() {
+        return turnaroundTimes;
+    }
+
+    LatencyHistogram getRunwayOccupancy() {
+        return runwayOccupancy;
+    }
+
+    LatencyHistogram getGateOccupancy() {
+        return gateOccupancy;
+    }
+
+    LatencyHistogram getWeatherHolds() {
+        return weatherHolds;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = null;
+        boolean timeline = false;
+        for (String arg : args) {
+            if (arg.equals("--timeline")) {
+                timeline = true;
+            } else if (!arg.startsWith("--") && file == null) {
+                file = Paths.get(arg);
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        if (file == null) {
+            throw new IllegalArgumentException("Usage: JournalReplay file [--timeline]");
+        }
+
+        JournalReplay replay = new JournalReplay(timeline);
+        long start = System.nanoTime();
+        replay.read(file);
+        long replayTime = (System.nanoTime() - start) / 1_000_000;
+        replay.print();
+        System.out.println("\nReplayed " + replay.records + " records in " + replayTime + " ms (" +
+                (replay.records * 1000 / Math.max(1, replayTime)) + " records/s)");
+    }
+
+    // Sequential pass over the file, chunk by chunk, up to the first unwritten record
+    void read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long chunkStart = 0; chunkStart < size; chunkStart += CHUNK_SIZE) {
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, chunkStart, Math.min(CHUNK_SIZE, size - chunkStart));
+                chunk.order(ByteOrder.LITTLE_ENDIAN);
+                for (int offset = 0; offset + RunJournal.RECORD_SIZE <= chunk.limit(); offset += RunJournal.RECORD_SIZE) {
+                    short code = chunk.getShort(offset + 16);
+                    if (code == 0) {
+                        return; // End of the journal
+                    }
+                    if (chunkStart == 0 && offset == 0) {
+                        readHeader(chunk, file);
+                        continue;
+                    }
+                    apply(chunk, offset, code);
+                }
+            }
+        }
+    }
+
+    private void readHeader(MappedByteBuffer chunk, Path file) {
+        String magic = text(chunk, 0);
+        if (chunk.getShort(16) != RunJournal.Type.HEADER.getCode() || !magic.equals(RunJournal.MAGIC)) {
+            throw new IllegalArgumentException(file + " is not a run journal");
+        }
+        if (chunk.getInt(8) != RunJournal.VERSION) {
+            throw new IllegalArgumentException(file + " has journal version " + chunk.getInt(8) +
+                    ", this replay reads version " + RunJournal.VERSION);
+        }
+        baseTime = chunk.getLong(0);
+        records++;
+        recordsByType[RunJournal.Type.HEADER.ordinal()]++;
+    }
+
+    private void apply(MappedByteBuffer chunk, int offset, short code) {
+        records++;
+        RunJournal.Type type = RunJournal.Type.fromCode(code);
+        if (type == null) {
+            unknownRecords++; // Written by a newer version, skip it
+            return;
+        }
+        recordsByType[type.ordinal()]++;
+        long time = chunk.getLong(offset);
+        int plane = chunk.getInt(offset + 8);
+        int value = chunk.getInt(offset + 12);
+        int resource = chunk.getShort(offset + 18);
+        lastTime = Math.max(lastTime, time);
+
+        switch (type) {
+            case PLANE:
+                registerPlane(plane, text(chunk, offset), value);
+                break;
+            case REQUESTED:
+                requested[plane] = time;
+                break;
+            case GATE_ASSIGNED:
+                gateAssigned[plane] = time;
+                break;
+            case CLEARED:
+                waitingTimes.record(value);
+                break;
+            case LEFT_GATE:
+                gateOccupancy.record(time - gateAssigned[plane]);
+                growGates(resource);
+                gateBusy[resource] += time - gateAssigned[plane];
+                gateVisits[resource]++;
+                if (timeline) {
+                    System.out.printf("Gate %-3d %10d - %10d ms  Plane %s%n", resource + 1, gateAssigned[plane], time, planeIDs[plane]);
+                }
+                break;
+            case RUNWAY_OCCUPIED:
+                runwayOccupied[plane] = time;
+                growRunways(resource);
+                runwayMovements[resource][value]++;
+                break;
+            case RUNWAY_VACATED:
+                runwayOccupancy.record(time - runwayOccupied[plane]);
+                runwayBusy[resource] += time - runwayOccupied[plane];
+                if (timeline) {
+                    System.out.printf("Runway %-2d%10d - %10d ms  Plane %s%n", resource, runwayOccupied[plane], time, planeIDs[plane]);
+                }
+                break;
+            case DEPARTED:
+                planesServed++;
+                passengersBoarded += passengers[plane];
+                turnaroundTimes.record(time - requested[plane]);
+                break;
+            case WEATHER_HOLD:
+                weatherHolds.record(value);
+                break;
+            case WEATHER:
+                if (timeline) {
+                    System.out.printf("Weather  %10d ms  %s%n", time, Weather.WeatherCondition.values()[value]);
+                }
+                break;
+            default:
+                break; // Counted only
+        }
+    }
+
+    private void registerPlane(int plane, String planeID, int planePassengers) {
+        if (plane >= planeIDs.length) {
+            int capacity = Math.max(plane + 1, planeIDs.length * 2);
+            planeIDs = Arrays.copyOf(planeIDs, capacity);
+            passengers = Arrays.copyOf(passengers, capacity);
+            requested = Arrays.copyOf(requested, capacity);
+            gateAssigned = Arrays.copyOf(gateAssigned, capacity);
+            runwayOccupied = Arrays.copyOf(runwayOccupied, capacity);
+        }
+        planeIDs[plane] = planeID;
+        passengers[plane] = planePassengers;
+        planes = Math.max(planes, plane + 1);
+    }
+
+    private void growGates(int gate) {
+        if (gate >= gateBusy.length) {
+            gateBusy = Arrays.copyOf(gateBusy, gate + 1);
+            gateVisits = Arrays.copyOf(gateVisits, gate + 1);
+        }
+    }
+
+    private void growRunways(int runway) {
+        if (runway >= runwayBusy.length) {
+            int oldLength = runwayBusy.length;
+            runwayBusy = Arrays.copyOf(runwayBusy, runway + 1);
+            runwayMovements = Arrays.copyOf(runwayMovements, runway + 1);
+            for (int i = oldLength; i <= runway; i++) {
+                runwayMovements[i] = new int[Runway.Movement.values().length];
+            }
+        }
+    }
+
+    private static String text(MappedByteBuffer chunk, int offset) {
+        byte[] bytes = new byte[RunJournal.TEXT_SIZE];
+        int length = 0;
+        while (length < bytes.length && chunk.get(offset + 20 + length) != 0) {
+            bytes[length] = chunk.get(offset + 20 + length);
+            length++;
+        }
+        return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    private void print() {
+        System.out.println("\n*** Journal Replay (" + (baseTime == 0 ? "virtual time" : "started at " + baseTime + " ms epoch") + ") ***");
+        System.out.println("\n--- Service Statistics ---");
+        System.out.println("Planes Journaled: " + planes + ", served: " + planesServed + ", diverted: " +
+                recordsByType[RunJournal.Type.DIVERTED.ordinal()] + ", metered: " + recordsByType[RunJournal.Type.METERED.ordinal()]);
+        System.out.println("Total Passengers Boarded: " + passengersBoarded);
+        System.out.println("Average Waiting Time: " + waitingTimes.getMean() + " ms");
+        System.out.println("Total Waiting Time: " + waitingTimes.getTotal() + " ms");
+        System.out.println("Total Weather Hold Time: " + weatherHolds.getTotal() + " ms (" + weatherHolds.getCount() + " holds, " +
+                recordsByType[RunJournal.Type.WEATHER.ordinal()] + " weather changes)");
+        System.out.println("Last Journaled Event: " + lastTime + " ms");
+
+        System.out.println("\n--- Latency Percentiles ---");
+        System.out.println(waitingTimes.summary());
+        System.out.println(turnaroundTimes.summary());
+        System.out.println(runwayOccupancy.summary());
+        System.out.println(gateOccupancy.summary());
+        System.out.println(weatherHolds.summary());
+
+        System.out.println("\n--- Gate Timeline ---");
+        for (int gate = 0; gate < gateBusy.length; gate++) {
+            if (gateVisits[gate] > 0) {
+                System.out.printf("Gate %-3d %6d visits, busy %10d ms (%5.1f%%)%n", gate + 1, gateVisits[gate], gateBusy[gate],
+                        100.0 * gateBusy[gate] / Math.max(1, lastTime));
+            }
+        }
+        System.out.println("\n--- Runway Timeline ---");
+        for (int runway = 0; runway < runwayBusy.length; runway++) {
+            int[] movements = runwayMovements[runway];
+            if (movements[Runway.Movement.ARRIVAL.ordinal()] + movements[Runway.Movement.DEPARTURE.ordinal()] > 0) {
+                System.out.printf("Runway %-2d %6d arrivals, %6d departures, busy %10d ms (%5.1f%%)%n", runway,
+                        movements[Runway.Movement.ARRIVAL.ordinal()], movements[Runway.Movement.DEPARTURE.ordinal()],
+                        runwayBusy[runway], 100.0 * runwayBusy[runway] / Math.max(1, lastTime));
+            }
+        }
+
+        System.out.println("\n--- Records ---");
+        for (RunJournal.Type type : RunJournal.Type.values()) {
+            if (recordsByType[type.ordinal()] > 0) {
+                System.out.printf("%-16s %10d%n", type, recordsByType[type.ordinal()]);
+            }
+        }
+        if (unknownRecords > 0) {
+            System.out.printf("%-16s %10d%n", "(unknown)", unknownRecords);
+        }
+    }
+}
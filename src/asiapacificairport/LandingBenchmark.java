@@ -0,0 +1,173 @@
+package asiapacificairport;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Compares landing wait time of the grant-based controller against the old sleep-and-poll loop.
+// Timings are scaled down 100x (2000ms poll -> 20ms, 1-7s services -> 10-70ms) so a run takes seconds.
+public class LandingBenchmark {
+    private static final int PLANES = 120;
+    private static final int POLL_INTERVAL = 20; // Old Plane.requestLanding retry interval, scaled
+    private static final int MIN_GROUND_TIME = 10;
+    private static final int MAX_GROUND_TIME = 70;
+    private static final int MAX_ARRIVAL_GAP = 15;
+    private static final long SEED = 42; // Arrivals and weather, the same on every run
+    private static final AsiaPacificAirport airport = new AsiaPacificAirport(SEED); // The original 3-gate airport
+
+    // How a plane gets its gate and gives it back
+    private interface Controller {
+        int land(Plane plane) throws Exception;
+
+        void depart(int gate, Plane plane);
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        AirportLog.setQuiet(true); // Silence ATC chatter while measuring
+
+        long[] polling = run(new PollingController(airport.getConfig()), "Poll-", new Random(SEED));
+        long[] granted = run(new GrantController(), "Grant-", new Random(SEED));
+
+        AirportLog.setQuiet(false);
+        System.out.println("*** Landing Wait Benchmark (" + PLANES + " planes, " + airport.getGateCount() + " gates) ***");
+        report("Polling (" + POLL_INTERVAL + "ms retry)", polling);
+        report("Grant-based", granted);
+        airport.getGroundServicesExecutor().shutdown();
+        airport.stopLockMonitor();
+    }
+
+    // Run one batch of planes, each holding its gate for a random ground time, and return the waits.
+    // A plane that fails fails the run
+    private static long[] run(Controller controller, String prefix, Random rand) throws InterruptedException, ExecutionException {
+        long[] waits = new long[PLANES];
+        ExecutorService flights = Executors.newCachedThreadPool();
+        List<Future<?>> landed = new ArrayList<>();
+        try {
+            for (int i = 0; i < PLANES; i++) {
+                int index = i;
+                int groundTime = MIN_GROUND_TIME + rand.nextInt(MAX_GROUND_TIME - MIN_GROUND_TIME + 1);
+                Plane plane = new Plane(airport, prefix + i, 1, false);
+
+                landed.add(flights.submit(() -> {
+                    long requested = System.nanoTime();
+                    int gate = controller.land(plane);
+                    waits[index] = (System.nanoTime() - requested) / 1_000_000;
+
+                    Thread.sleep(groundTime);
+                    controller.depart(gate, plane);
+                    return null;
+                }));
+                Thread.sleep(rand.nextInt(MAX_ARRIVAL_GAP));
+            }
+            for (Future<?> flight : landed) {
+                flight.get();
+            }
+        } finally {
+            flights.shutdownNow();
+        }
+        return waits;
+    }
+
+    // The airport's landing queue, which hands a freed gate straight to the next plane
+    private static final class GrantController implements Controller {
+        @Override
+        public int land(Plane plane) throws Exception {
+            return airport.addToLandingQueue(plane).get();
+        }
+
+        @Override
+        public void depart(int gate, Plane plane) {
+            airport.releaseGate(gate, plane.getID());
+            airport.leaveGround();
+        }
+    }
+
+    // The original controller: a FIFO list of plane IDs under landingLock. A plane asks for permission,
+    // which needs a free gate, a ground permit and the head of the queue, and sleeps POLL_INTERVAL before
+    // asking again. The benchmark has no emergencies, so the emergency hand-off is left out
+    private static final class PollingController implements Controller {
+        private final ReentrantLock landingLock = new ReentrantLock();
+        private final List<String> landingQueue = new ArrayList<>();
+        private final boolean[] gateOccupied;
+        private final Semaphore planesOnGround;
+
+        PollingController(AirportConfig config) {
+            this.gateOccupied = new boolean[config.getGates()];
+            this.planesOnGround = new Semaphore(config.getGroundCapacity());
+        }
+
+        @Override
+        public int land(Plane plane) throws InterruptedException {
+            String planeID = plane.getID();
+            while (true) {
+                int gate = requestPermission(planeID);
+                if (gate != -1) {
+                    return gate;
+                }
+                Thread.sleep(POLL_INTERVAL); // Wait and retry
+            }
+        }
+
+        // Gate granted to the plane, -1 if it has to ask again later
+        private int requestPermission(String planeID) {
+            landingLock.lock();
+            try {
+                if (!landingQueue.contains(planeID)) {
+                    landingQueue.add(planeID);
+                }
+                int gate = findAvailableGate();
+                if (gate == -1 || planesOnGround.availablePermits() <= 0) {
+                    return -1; // No gates available or ground is full
+                }
+                if (!landingQueue.get(0).equals(planeID)) {
+                    return -1; // Not this plane's turn
+                }
+                landingQueue.remove(0);
+                planesOnGround.acquireUninterruptibly();
+                gateOccupied[gate] = true;
+                return gate;
+            } finally {
+                landingLock.unlock();
+            }
+        }
+
+        private int findAvailableGate() {
+            for (int i = 0; i < gateOccupied.length; i++) {
+                if (!gateOccupied[i]) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public void depart(int gate, Plane plane) {
+            landingLock.lock();
+            try {
+                gateOccupied[gate] = false;
+            } finally {
+                landingLock.unlock();
+            }
+            planesOnGround.release();
+        }
+    }
+
+    private static void report(String label, long[] waits) {
+        long[] sorted = waits.clone();
+        Arrays.sort(sorted);
+        System.out.println(label + ": p50=" + percentile(sorted, 0.50) + "ms, p99=" + percentile(sorted, 0.99) +
+                "ms, max=" + sorted[sorted.length - 1] + "ms");
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+}
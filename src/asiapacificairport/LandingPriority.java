@@ -0,0 +1,23 @@
+package asiapacificairport;
+
+// Landing priority tiers, declared from most to least urgent
+public enum LandingPriority {
+    FUEL_CRITICAL("Fuel Critical"),
+    MEDICAL("Medical"),
+    NORMAL("Normal");
+
+    private final String name;
+
+    LandingPriority(String name) {
+        this.name = name;
+    }
+
+    public boolean isEmergency() {
+        return this != NORMAL;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,150 @@
+package asiapacificairport;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+
+// Landing sequence ordered by (priority tier, request order).
+// Not thread-safe on its own, callers guard it with the airport's landingLock.
+public class LandingQueue {
+    private final PriorityQueue<Entry> sequence = new PriorityQueue<>();
+    private final Map<String, Entry> members = new HashMap<>();
+    private final int[] countByPriority = new int[LandingPriority.values().length];
+    private long nextRequestNumber = 0;
+
+    // A plane waiting for a landing slot together with the grant it is blocked on
+    public static final class Entry implements Comparable<Entry> {
+        private final String planeID;
+        private final LandingPriority priority;
+        private final int passengers;
+        private final long requestNumber;
+        private final CompletableFuture<Integer> grant;
+        private boolean removed;
+
+        private Entry(String planeID, LandingPriority priority, int passengers, long requestNumber, CompletableFuture<Integer> grant) {
+            this.planeID = planeID;
+            this.priority = priority;
+            this.passengers = passengers;
+            this.requestNumber = requestNumber;
+            this.grant = grant;
+        }
+
+        public String getPlaneID() {
+            return planeID;
+        }
+
+        public LandingPriority getPriority() {
+            return priority;
+        }
+
+        // Aircraft size, matched against gate capacities
+        public int getPassengers() {
+            return passengers;
+        }
+
+        public CompletableFuture<Integer> getGrant() {
+            return grant;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(requestNumber, other.requestNumber);
+        }
+    }
+
+    // Add a plane, returns the existing entry if it is already queued - O(log n)
+    public Entry add(String planeID, LandingPriority priority, int passengers) {
+        return add(planeID, priority, passengers, new CompletableFuture<>());
+    }
+
+    // Add a plane that already holds the grant it will wait on, e.g. one admitted after arrival metering
+    public Entry add(String planeID, LandingPriority priority, int passengers, CompletableFuture<Integer> grant) {
+        Entry entry = members.get(planeID);
+        if (entry == null) {
+            entry = new Entry(planeID, priority, passengers, nextRequestNumber++, grant);
+            members.put(planeID, entry);
+            sequence.add(entry);
+            countByPriority[priority.ordinal()]++;
+        }
+        return entry;
+    }
+
+    // Next plane to land without removing it, null if the queue is empty
+    public Entry peek() {
+        discardRemoved();
+        return sequence.peek();
+    }
+
+    // The next planes to land in landing order, without removing them - O(count log n)
+    public List<Entry> peek(int count) {
+        List<Entry> next = new ArrayList<>(Math.min(count, members.size()));
+        while (next.size() < count) {
+            discardRemoved();
+            Entry entry = sequence.poll();
+            if (entry == null) {
+                break;
+            }
+            next.add(entry);
+        }
+        sequence.addAll(next);
+        return next;
+    }
+
+    // Remove and return the next plane to land - O(log n)
+    public Entry poll() {
+        discardRemoved();
+        Entry entry = sequence.poll();
+        if (entry != null) {
+            forget(entry);
+        }
+        return entry;
+    }
+
+    // Drop a plane from anywhere in the queue; the heap slot is discarded lazily on the next peek/poll
+    public Entry remove(String planeID) {
+        Entry entry = members.get(planeID);
+        if (entry != null) {
+            entry.removed = true;
+            forget(entry);
+        }
+        return entry;
+    }
+
+    public boolean contains(String planeID) {
+        return members.containsKey(planeID);
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    public boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    // Number of queued planes in any emergency tier
+    public int emergencyCount() {
+        int count = 0;
+        for (LandingPriority priority : LandingPriority.values()) {
+            if (priority.isEmergency()) {
+                count += countByPriority[priority.ordinal()];
+            }
+        }
+        return count;
+    }
+
+    private void forget(Entry entry) {
+        members.remove(entry.planeID);
+        countByPriority[entry.priority.ordinal()]--;
+    }
+
+    private void discardRemoved() {
+        while (!sequence.isEmpty() && sequence.peek().removed) {
+            sequence.poll();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package asiapacificairport;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// HDR-style log-linear histogram of non-negative durations in ms. Values below 128 get their own
+// bucket, larger values share buckets 1/64 of their power of two wide, so every percentile is within
+// about 1.6% of the recorded value while the whole long range fits in a few thousand counters.
+// Recording is a handful of atomic increments, so plane threads never wait on each other.
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // 64 buckets per power of two
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2; // Exact buckets for 0..127
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+    private final String name;
+    private final String unit;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalValue = new LongAdder();
+    private final LongAccumulator minValue = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator maxValue = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    public LatencyHistogram(String name) {
+        this(name, "ms");
+    }
+
+    // Same buckets for durations in another unit, e.g. microseconds for lock hold times
+    public LatencyHistogram(String name, String unit) {
+        this.name = name;
+        this.unit = unit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Record one duration, negative values (clock adjustments) count as 0
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(clamped));
+        totalCount.increment();
+        totalValue.add(clamped);
+        minValue.accumulate(clamped);
+        maxValue.accumulate(clamped);
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public long getTotal() {
+        return totalValue.sum();
+    }
+
+    public long getMin() {
+        long min = minValue.get();
+        return (min == Long.MAX_VALUE) ? 0 : min;
+    }
+
+    public long getMax() {
+        long max = maxValue.get();
+        return (max == Long.MIN_VALUE) ? 0 : max;
+    }
+
+    public long getMean() {
+        long count = getCount();
+        return (count > 0) ? getTotal() / count : 0;
+    }
+
+    // Smallest recorded bucket covering the given fraction of values, reported at its upper edge
+    public long getPercentile(double fraction) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), getMax());
+            }
+        }
+        return getMax(); // Counters still being updated by a concurrent record
+    }
+
+    // One report line, e.g. "Wait time: count=6 p50=3538 p90=13702 ... max=13702 ms"
+    public String summary() {
+        return name + ": count=" + getCount() + " min=" + getMin() + " p50=" + getPercentile(0.50) +
+                " p90=" + getPercentile(0.90) + " p99=" + getPercentile(0.99) + " p999=" + getPercentile(0.999) +
+                " max=" + getMax() + " mean=" + getMean() + " " + unit;
+    }
+
+    static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value); // >= 7
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS; // 0..63
+        return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueIn(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+        int shift = exponent - SUB_BUCKET_BITS;
+        long subBucket = SUB_BUCKETS + (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        long lowest = subBucket << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,275 @@
+package asiapacificairport;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Stall and deadlock detector for the real-time simulation, off unless stall-limit is set. Every airport
+// has its own, with its own limit, so airports in one JVM neither share locks in reports nor keep each
+// other's locks alive. MonitoredLocks register blocked acquires and condition waits, planes register
+// waits that hold no thread (landing grants) or sit above the locks (runways). A watchdog thread checks
+// the wait-for graph (waiting thread -> lock -> owning thread) for cycles and every wait against the
+// limit, and dumps the graph with the offending planes to the airport log, so a stalled run can be
+// diagnosed without a debugger.
+public class LockMonitor {
+    private static final int MAX_DUMPED_WAITS = 50; // Oldest waits are the interesting ones
+
+    private final String name;
+    private final long stallLimit; // ms, 0 = monitoring off
+    private final List<MonitoredLock> locks = new CopyOnWriteArrayList<>();
+    private final Map<Long, Wait> waits = new ConcurrentHashMap<>();
+    private final AtomicLong nextToken = new AtomicLong(1);
+    private final LongAdder stallsReported = new LongAdder();
+    private final LongAdder deadlocksReported = new LongAdder();
+    private final Set<Set<Thread>> reportedCycles = ConcurrentHashMap.newKeySet();
+    private volatile Thread watchdog;
+
+    // Something a plane or thread is waiting for, registered when the wait starts
+    private static final class Wait {
+        private final String waiter;
+        private final String resource;
+        private final Thread thread; // Blocked thread, null for waits that hold no thread
+        private final MonitoredLock lock; // Lock being acquired, null for condition and plane-level waits
+        private final long since = System.currentTimeMillis();
+        private volatile boolean reported;
+
+        Wait(String waiter, String resource, Thread thread, MonitoredLock lock) {
+            this.waiter = waiter;
+            this.resource = resource;
+            this.thread = thread;
+            this.lock = lock;
+        }
+    }
+
+    // Monitor for the locks of one airport, stall limit in ms or 0 for monitoring off
+    public LockMonitor(String name, long stallLimit) {
+        this.name = name;
+        this.stallLimit = stallLimit;
+    }
+
+    void register(MonitoredLock lock) {
+        locks.add(lock);
+    }
+
+    public boolean isEnabled() {
+        return stallLimit > 0;
+    }
+
+    // Start the watchdog thread, a daemon; nothing when monitoring is off or it is already running
+    public void start() {
+        if (stallLimit > 0 && watchdog == null) {
+            Thread thread = new Thread(this::watch, "LockMonitor " + name);
+            thread.setDaemon(true);
+            watchdog = thread;
+            thread.start();
+        }
+    }
+
+    // Stop the watchdog, whose thread would otherwise keep the airport's locks reachable
+    public void stop() {
+        Thread thread = watchdog;
+        watchdog = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    // The current thread is blocked acquiring a lock, 0 if monitoring is off
+    long beginLockWait(MonitoredLock lock) {
+        if (!isEnabled()) {
+            return 0;
+        }
+        return begin(new Wait(Thread.currentThread().getName(), lock.getName(), Thread.currentThread(), lock));
+    }
+
+    // The current thread released a lock to await one of its conditions
+    long beginConditionWait(MonitoredLock lock, String condition) {
+        if (!isEnabled()) {
+            return 0;
+        }
+        return begin(new Wait(Thread.currentThread().getName(), condition, Thread.currentThread(), null));
+    }
+
+    // A plane is blocked on the current thread waiting for something, e.g. a runway
+    public long beginWait(String planeID, String resource) {
+        if (!isEnabled()) {
+            return 0;
+        }
+        return begin(new Wait("Plane " + planeID, resource, Thread.currentThread(), null));
+    }
+
+    // A plane is waiting for something without holding a thread, e.g. its landing grant
+    public long beginAsyncWait(String planeID, String resource) {
+        if (!isEnabled()) {
+            return 0;
+        }
+        return begin(new Wait("Plane " + planeID, resource, null, null));
+    }
+
+    public void endWait(long token) {
+        if (token != 0) {
+            waits.remove(token);
+        }
+    }
+
+    private long begin(Wait wait) {
+        long token = nextToken.getAndIncrement();
+        waits.put(token, wait);
+        return token;
+    }
+
+    // Watchdog loop: check a few times per stall limit until stopped
+    private void watch() {
+        try {
+            while (watchdog == Thread.currentThread()) {
+                Thread.sleep(Math.max(50, stallLimit / 4));
+                check(System.currentTimeMillis());
+            }
+        } catch (InterruptedException e) {
+            // Stopped
+        }
+    }
+
+    // One pass: report new lock cycles and waits that have passed the limit
+    void check(long now) {
+        for (Set<Thread> cycle : findCycles()) {
+            if (reportedCycles.add(cycle)) {
+                deadlocksReported.increment();
+                report("DEADLOCK between " + names(cycle));
+            }
+        }
+
+        List<Wait> stalled = new ArrayList<>();
+        for (Wait wait : waits.values()) {
+            if (!wait.reported && now - wait.since > stallLimit) {
+                wait.reported = true;
+                stalled.add(wait);
+            }
+        }
+        if (!stalled.isEmpty()) {
+            stallsReported.add(stalled.size());
+            StringBuilder offenders = new StringBuilder();
+            for (Wait wait : stalled) {
+                offenders.append(offenders.length() > 0 ? ", " : "").append(wait.waiter)
+                        .append(" (").append(wait.resource).append(", ").append(now - wait.since).append(" ms)");
+            }
+            report("STALL, waiting longer than " + stallLimit + " ms: " + offenders);
+        }
+    }
+
+    // Edges thread -> owner of the lock it is blocked on, walked from every blocked thread
+    private List<Set<Thread>> findCycles() {
+        Map<Thread, Thread> waitsOn = new HashMap<>();
+        for (Wait wait : waits.values()) {
+            if (wait.lock != null) {
+                Thread owner = wait.lock.owner();
+                if (owner != null) {
+                    waitsOn.put(wait.thread, owner);
+                }
+            }
+        }
+        List<Set<Thread>> cycles = new ArrayList<>();
+        Set<Thread> seen = new HashSet<>();
+        for (Thread start : waitsOn.keySet()) {
+            Set<Thread> path = new LinkedHashSet<>();
+            Thread current = start;
+            while (current != null && !seen.contains(current) && path.add(current)) {
+                current = waitsOn.get(current);
+            }
+            if (current != null && path.contains(current)) {
+                // Keep only the loop itself, not the chain that led into it
+                Set<Thread> cycle = new HashSet<>();
+                Thread member = current;
+                do {
+                    cycle.add(member);
+                    member = waitsOn.get(member);
+                } while (member != current);
+                cycles.add(cycle);
+            }
+            seen.addAll(path);
+        }
+        return cycles;
+    }
+
+    private String names(Set<Thread> threads) {
+        List<String> names = new ArrayList<>();
+        for (Thread thread : threads) {
+            names.add(thread.getName());
+        }
+        names.sort(null);
+        return String.join(", ", names);
+    }
+
+    // Through the airport log, so the report lands in the same place as the chatter leading up to it and
+    // the watchdog never blocks on console I/O. Quiet mode does not hide it
+    private void report(String problem) {
+        String graph = dump();
+        AirportLog.warn("Monitor : " + problem + "\n" + graph.substring(0, graph.length() - 1));
+    }
+
+    // Current wait-for graph: every held or contended lock, then every wait, oldest first
+    public String dump() {
+        long now = System.currentTimeMillis();
+        long nanoNow = System.nanoTime();
+        StringBuilder out = new StringBuilder("Monitor : --- Wait-for graph ---\n");
+        for (MonitoredLock lock : locks) {
+            Thread owner = lock.owner();
+            if (owner == null && !lock.hasQueuedThreads()) {
+                continue;
+            }
+            out.append("Monitor : ").append(lock.getName());
+            if (owner != null) {
+                long acquiredAt = lock.getAcquiredAt();
+                out.append(" held by ").append(owner.getName());
+                if (acquiredAt != 0) {
+                    out.append(" for ").append((nanoNow - acquiredAt) / 1_000_000).append(" ms");
+                }
+            } else {
+                out.append(" free");
+            }
+            out.append(", ").append(lock.getQueueLength()).append(" thread(s) queued\n");
+        }
+
+        List<Wait> current = new ArrayList<>(waits.values());
+        current.sort(Comparator.comparingLong(wait -> wait.since));
+        for (Wait wait : current.subList(0, Math.min(current.size(), MAX_DUMPED_WAITS))) {
+            out.append("Monitor : ").append(wait.waiter).append(" waiting ").append(now - wait.since)
+                    .append(" ms for ").append(wait.resource);
+            if (wait.lock != null && wait.lock.owner() != null) {
+                out.append(" -> held by ").append(wait.lock.owner().getName());
+            }
+            if (wait.thread != null && !wait.waiter.equals(wait.thread.getName())) {
+                out.append(" on ").append(wait.thread.getName());
+            }
+            out.append('\n');
+        }
+        if (current.size() > MAX_DUMPED_WAITS) {
+            out.append("Monitor : ... and ").append(current.size() - MAX_DUMPED_WAITS).append(" more waits\n");
+        }
+        return out.toString();
+    }
+
+    // Lock hold times and detector counts for the end-of-run report, nothing when monitoring is off
+    public void printStatistics() {
+        if (!isEnabled()) {
+            return;
+        }
+        System.out.println("\n--- Lock Monitor (" + name + ") ---");
+        System.out.println("Stall limit: " + stallLimit + " ms, stalls reported: " + stallsReported.sum() +
+                ", deadlocks reported: " + deadlocksReported.sum());
+        for (MonitoredLock lock : locks) {
+            if (lock.getHoldTimes().getCount() > 0) {
+                System.out.println(lock.getHoldTimes().summary());
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package asiapacificairport;
+
+import java.util.List;
+
+// Looks past the head of the landing queue. The next plane gets the gate that leaves the most of the
+// following planes a gate they fit (smallest gate on ties). When it fits none of the free gates, a later
+// plane may take a gate that is too small for it, so a free gate is not left idle behind one large
+// aircraft; a ground slot is always kept for the blocked plane. Every turnaround runs the same ground
+// task graph, so how long each plane keeps its gate does not separate the candidates. Gates of one size
+// are interchangeable for the planes behind, so only the lowest free gate of each size is a candidate.
+public class LookaheadGateStrategy implements GateAssignmentStrategy {
+    private final int lookahead;
+
+    public LookaheadGateStrategy(int lookahead) {
+        if (lookahead < 1) {
+            throw new IllegalArgumentException("gate-lookahead must be at least 1");
+        }
+        this.lookahead = lookahead;
+    }
+
+    @Override
+    public int getLookahead() {
+        return lookahead;
+    }
+
+    @Override
+    public Assignment assign(List<LandingQueue.Entry> waiting, GateAllocator gates, int freeGroundSlots) {
+        LandingQueue.Entry next = waiting.get(0);
+        long[] taken = gates.newGateMask();
+        int bestGate = -1;
+        int bestPlaced = -1;
+        // Size classes ascending, so on a tie the smaller gate is kept
+        int first = gates.fitClass(next.getPassengers(), next.getPriority().isEmergency());
+        for (int sizeClass = first; sizeClass < gates.getSizeClassCount(); sizeClass++) {
+            int gate = gates.findFree(sizeClass, null);
+            if (gate == -1) {
+                continue;
+            }
+            GateAllocator.mark(taken, gate);
+            int placed = placeable(waiting, gates, taken, freeGroundSlots - 1);
+            GateAllocator.unmark(taken, gate);
+            if (placed > bestPlaced) {
+                bestGate = gate;
+                bestPlaced = placed;
+            }
+        }
+        if (bestGate != -1) {
+            return new Assignment(next, bestGate);
+        }
+
+        // The next plane needs a bigger gate, backfill a smaller plane while keeping it a ground slot
+        if (freeGroundSlots < 2) {
+            return null;
+        }
+        for (int i = 1; i < waiting.size(); i++) {
+            LandingQueue.Entry later = waiting.get(i);
+            int gate = BestFitGateStrategy.smallestUsable(gates, later, null);
+            if (gate != -1) {
+                return new Assignment(later, gate);
+            }
+        }
+        return null;
+    }
+
+    // How many of the planes after the head would get a gate, each taking its smallest usable free gate in turn
+    private static int placeable(List<LandingQueue.Entry> waiting, GateAllocator gates, long[] taken, int groundSlots) {
+        int placed = 0;
+        long[] used = taken.clone();
+        for (int i = 1; i < waiting.size() && placed < groundSlots; i++) {
+            int best = BestFitGateStrategy.smallestUsable(gates, waiting.get(i), used);
+            if (best != -1) {
+                GateAllocator.mark(used, best);
+                placed++;
+            }
+        }
+        return placed;
+    }
+
+    @Override
+    public String toString() {
+        return "lookahead";
+    }
+}
@@ -0,0 +1,85 @@
+package asiapacificairport;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Tiny HTTP endpoint on the loopback interface serving live airport metrics while a run is in progress:
+//   GET /metrics        all airports as a JSON array
+//   GET /metrics/<code> one airport as a JSON object
+// Requests are answered on one daemon thread from AirportMetrics, which takes no airport lock.
+public class MetricsServer {
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final List<AirportMetrics> airports;
+
+    // Port 0 picks a free port, see getPort
+    public MetricsServer(int port, List<AirportMetrics> airports) throws IOException {
+        this.airports = airports;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MetricsServer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                respond(exchange, 405, "{\"error\": \"GET only\"}");
+                return;
+            }
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/metrics") || path.equals("/metrics/")) {
+                StringBuilder json = new StringBuilder("[");
+                for (int i = 0; i < airports.size(); i++) {
+                    json.append(i > 0 ? ",\n " : "").append(airports.get(i).toJson());
+                }
+                respond(exchange, 200, json.append("]").toString());
+                return;
+            }
+            String code = path.substring("/metrics/".length());
+            for (AirportMetrics airport : airports) {
+                if (airport.getAirport().equals(code)) {
+                    respond(exchange, 200, airport.toJson());
+                    return;
+                }
+            }
+            respond(exchange, 404, "{\"error\": \"Unknown airport\"}");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = (body + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
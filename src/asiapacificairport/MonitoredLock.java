@@ -0,0 +1,208 @@
+package asiapacificairport;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// ReentrantLock that reports to LockMonitor: blocked lock() calls and condition waits become edges of
+// the wait-for graph, and every outermost hold is timed. While monitoring is off the extra cost is an
+// uncontended tryLock before blocking and one volatile read per acquire.
+public class MonitoredLock extends ReentrantLock {
+    private static final long serialVersionUID = 1L;
+
+    private final String name;
+    private final transient LockMonitor monitor;
+    private final transient LatencyHistogram holdTimes;
+    private volatile long acquiredAt; // System.nanoTime() of the outermost acquire, 0 when not timed
+
+    // A lock reporting to the monitor of the airport it belongs to
+    public MonitoredLock(String name, LockMonitor monitor) {
+        this.name = name;
+        this.monitor = monitor;
+        this.holdTimes = new LatencyHistogram(name + " hold", "us");
+        monitor.register(this);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LatencyHistogram getHoldTimes() {
+        return holdTimes;
+    }
+
+    // Thread currently holding the lock, null if free
+    Thread owner() {
+        return getOwner();
+    }
+
+    // When the current hold started, 0 if it is not being timed
+    long getAcquiredAt() {
+        return acquiredAt;
+    }
+
+    @Override
+    public void lock() {
+        if (!super.tryLock()) {
+            long token = monitor.beginLockWait(this);
+            try {
+                super.lock();
+            } finally {
+                monitor.endWait(token);
+            }
+        }
+        acquired();
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (!super.tryLock()) {
+            long token = monitor.beginLockWait(this);
+            try {
+                super.lockInterruptibly();
+            } finally {
+                monitor.endWait(token);
+            }
+        }
+        acquired();
+    }
+
+    @Override
+    public boolean tryLock() {
+        if (!super.tryLock()) {
+            return false;
+        }
+        acquired();
+        return true;
+    }
+
+    @Override
+    public boolean tryLock(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!super.tryLock()) {
+            long token = monitor.beginLockWait(this);
+            try {
+                if (!super.tryLock(timeout, unit)) {
+                    return false;
+                }
+            } finally {
+                monitor.endWait(token);
+            }
+        }
+        acquired();
+        return true;
+    }
+
+    @Override
+    public void unlock() {
+        if (getHoldCount() == 1) {
+            released();
+        }
+        super.unlock();
+    }
+
+    @Override
+    public Condition newCondition() {
+        return newCondition(name + " condition");
+    }
+
+    // Condition whose waits show up in stall reports under the given name
+    public Condition newCondition(String conditionName) {
+        return new MonitoredCondition(super.newCondition(), conditionName);
+    }
+
+    private void acquired() {
+        if (getHoldCount() == 1 && monitor.isEnabled()) {
+            acquiredAt = System.nanoTime();
+        }
+    }
+
+    private void released() {
+        long start = acquiredAt;
+        if (start != 0) {
+            acquiredAt = 0;
+            holdTimes.record((System.nanoTime() - start) / 1000);
+        }
+    }
+
+    // Awaiting releases the lock, so the hold ends there and a new one starts once the wait returns
+    private final class MonitoredCondition implements Condition {
+        private final Condition condition;
+        private final String conditionName;
+
+        MonitoredCondition(Condition condition, String conditionName) {
+            this.condition = condition;
+            this.conditionName = conditionName;
+        }
+
+        private long beforeAwait() {
+            released();
+            return monitor.beginConditionWait(MonitoredLock.this, conditionName);
+        }
+
+        private void afterAwait(long token) {
+            monitor.endWait(token);
+            acquired();
+        }
+
+        @Override
+        public void await() throws InterruptedException {
+            long token = beforeAwait();
+            try {
+                condition.await();
+            } finally {
+                afterAwait(token);
+            }
+        }
+
+        @Override
+        public void awaitUninterruptibly() {
+            long token = beforeAwait();
+            try {
+                condition.awaitUninterruptibly();
+            } finally {
+                afterAwait(token);
+            }
+        }
+
+        @Override
+        public long awaitNanos(long nanosTimeout) throws InterruptedException {
+            long token = beforeAwait();
+            try {
+                return condition.awaitNanos(nanosTimeout);
+            } finally {
+                afterAwait(token);
+            }
+        }
+
+        @Override
+        public boolean await(long time, TimeUnit unit) throws InterruptedException {
+            long token = beforeAwait();
+            try {
+                return condition.await(time, unit);
+            } finally {
+                afterAwait(token);
+            }
+        }
+
+        @Override
+        public boolean awaitUntil(Date deadline) throws InterruptedException {
+            long token = beforeAwait();
+            try {
+                return condition.awaitUntil(deadline);
+            } finally {
+                afterAwait(token);
+            }
+        }
+
+        @Override
+        public void signal() {
+            condition.signal();
+        }
+
+        @Override
+        public void signalAll() {
+            condition.signalAll();
+        }
+    }
+}
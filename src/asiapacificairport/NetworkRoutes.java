@@ -0,0 +1,66 @@
+package asiapacificairport;
+
+import java.util.Random;
+
+// Airports of a network and the routes planes fly between them, shared by the real-time AirportNetwork
+// and its discrete-event replay in ParallelNetworkSimulation so both fly the same legs for the same seed.
+// Airports are numbered in command line order; with a hub, the hub is airport 0.
+public class NetworkRoutes {
+    private static final String[] DEFAULT_CODES = {"SIN", "HKG", "NRT", "SYD", "ICN", "BKK", "KUL", "MNL"};
+
+    private final boolean hub; // Hub and spoke: spokes fly to the first airport, the hub flies to any spoke
+    private final long seed;
+
+    public NetworkRoutes(boolean hub, long seed) {
+        this.hub = hub;
+        this.seed = seed;
+    }
+
+    // A count picks the first N default codes, otherwise a comma-separated list of codes
+    public static String[] parseAirports(String value) {
+        String[] codes;
+        if (!value.isEmpty() && value.chars().allMatch(Character::isDigit)) {
+            int count = Integer.parseInt(value);
+            codes = new String[count];
+            for (int i = 0; i < count; i++) {
+                codes[i] = (i < DEFAULT_CODES.length) ? DEFAULT_CODES[i] : "AP" + (i + 1);
+            }
+        } else {
+            codes = value.split(",");
+            for (int i = 0; i < codes.length; i++) {
+                codes[i] = codes[i].trim();
+            }
+        }
+        if (codes.length < 2) {
+            throw new IllegalArgumentException("A network needs at least 2 airports");
+        }
+        return codes;
+    }
+
+    // "mesh" or "hub"
+    public static NetworkRoutes forTopology(String topology, long seed) {
+        if (!topology.equals("mesh") && !topology.equals("hub")) {
+            throw new IllegalArgumentException("Unknown topology: " + topology);
+        }
+        return new NetworkRoutes(topology.equals("hub"), seed);
+    }
+
+    public boolean isHub() {
+        return hub;
+    }
+
+    // Next destination out of the given number of airports, derived from the seed, plane and leg so every
+    // run flies the same routes
+    public int next(int from, int airports, String planeID, int leg) {
+        Random random = new Random(seed * 31 + planeID.hashCode() * 17L + leg);
+        if (hub && from != 0) {
+            return 0;
+        }
+        int first = hub ? 1 : 0;
+        int destination;
+        do {
+            destination = first + random.nextInt(airports - first);
+        } while (destination == from);
+        return destination;
+    }
+}
@@ -0,0 +1,116 @@
+package asiapacificairport;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Per-plane lifecycle log: event codes, gate numbers and timestamps in small primitive ring buffers.
+// Ground-service threads append concurrently by claiming a slot, nothing is turned into text until
+// the report asks for it. The ring keeps the latest CAPACITY events if a plane ever logs more.
+// Attached to a RunJournal, every event is also appended there with the plane's journal number.
+public class OperationLog {
+    private static final int CAPACITY = 16; // A full turnaround logs 11 events
+    private static final int MASK = CAPACITY - 1;
+    private static final int NO_GATE = -1;
+
+    // Lifecycle steps in the order a normal turnaround logs them
+    public enum Event {
+        REQUESTED("Requesting"),
+        METERED(" - held for arrival slot"),
+        GATE_ASSIGNED(" - assigned to Gate "),
+        LANDED(" - landed"),
+        DOCKED(" - docked at Gate "),
+        DISEMBARKED(" - disembarked passengers"),
+        REFILLED(" - refilled supplies"),
+        CLEANED(" - cleaned aircraft"),
+        REFUELED(" - refueled"),
+        EMBARKED(" - embarked passengers"),
+        LEFT_GATE(" - left Gate "),
+        DEPARTED(" - departed");
+
+        private static final Event[] VALUES = values();
+        private final String text;
+
+        Event(String text) {
+            this.text = text;
+        }
+
+        public String getText() {
+            return text;
+        }
+    }
+
+    private final byte[] events = new byte[CAPACITY];
+    private final int[] gates = new int[CAPACITY];
+    private final long[] timestamps = new long[CAPACITY];
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    private RunJournal journal; // Set before the first event, null if the run is not journaled
+    private int journalPlane = -1;
+
+    // Also append every event to the journal, call before logging anything
+    public void attach(RunJournal journal, int journalPlane) {
+        this.journal = journal;
+        this.journalPlane = journalPlane;
+    }
+
+    public void log(Event event, long timestamp) {
+        log(event, NO_GATE, timestamp);
+    }
+
+    // Log an event about a gate, gate numbers are 0-based like GateAllocator's
+    public void log(Event event, int gate, long timestamp) {
+        int slot = nextSlot.getAndIncrement() & MASK;
+        events[slot] = (byte) event.ordinal();
+        gates[slot] = gate;
+        timestamps[slot] = timestamp;
+        if (journal != null) {
+            journal.record(RunJournal.Type.of(event), journalPlane, timestamp, gate, 0);
+        }
+    }
+
+    // Journal a transition that is not part of the rendered lifecycle, e.g. runway movements
+    public void journal(RunJournal.Type type, int resource, int value, long timestamp) {
+        if (journal != null) {
+            journal.record(type, journalPlane, timestamp, resource, value);
+        }
+    }
+
+    public int size() {
+        return Math.min(nextSlot.get(), CAPACITY);
+    }
+
+    // Event i of the retained window, oldest first
+    public Event getEvent(int i) {
+        return Event.VALUES[events[slotOf(i)]];
+    }
+
+    // Gate of event i, -1 for events that are not about a gate
+    public int getGate(int i) {
+        return gates[slotOf(i)];
+    }
+
+    public long getTimestamp(int i) {
+        return timestamps[slotOf(i)];
+    }
+
+    // Render the summary line, only call once every writer has finished (e.g. after departure)
+    public String render() {
+        StringBuilder summary = new StringBuilder(256);
+        for (int i = 0; i < size(); i++) {
+            int slot = slotOf(i);
+            summary.append(Event.VALUES[events[slot]].getText());
+            if (gates[slot] != NO_GATE) {
+                summary.append(gates[slot] + 1);
+            }
+        }
+        return summary.toString();
+    }
+
+    @Override
+    public String toString() {
+        return render();
+    }
+
+    private int slotOf(int i) {
+        int first = Math.max(0, nextSlot.get() - CAPACITY);
+        return (first + i) & MASK;
+    }
+}
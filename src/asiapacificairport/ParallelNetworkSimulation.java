@@ -0,0 +1,243 @@
+package asiapacificairport;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Discrete-event replay of an airport network, one partition per airport, run in parallel on a pool of
+// workers. Partitions only interact through flights, and a flight always takes at least the flight time,
+// so the partitions are synchronized conservatively in windows: every partition may safely run all events
+// before (earliest pending event anywhere + flight time), because nothing sent inside the window can
+// arrive before its end. Flights cross partitions through lock-free mailboxes that are drained between
+// windows in a fixed order, so every worker count produces exactly the same results.
+//
+//   java asiapacificairport.ParallelNetworkSimulation [--airports=N|SIN,HKG,...] [--topology=mesh|hub]
+//                                                     [--planes=N] [--legs=N] [--flight-time=ms]
+//                                                     [--scenario=file] [--seed=S] [--workers=1,2,4,8]
+//                                                     [--warmup=N] [--set key=value]...
+public class ParallelNetworkSimulation {
+    private final List<Partition> partitions = new ArrayList<>();
+    private final NetworkRoutes routes;
+    private final int legs;
+    private final long flightTime; // Also the lookahead of every partition
+    private final Map<String, Integer> legsFlown = new ConcurrentHashMap<>();
+    private long windows = 0;
+
+    // One airport on its own simulation, with the mailbox of flights sent to it during the current window
+    private static final class Partition {
+        private final String code;
+        private final DiscreteEventSimulation simulation;
+        private final ConcurrentLinkedQueue<Scenario.Arrival> mailbox = new ConcurrentLinkedQueue<>();
+
+        Partition(String code, DiscreteEventSimulation simulation) {
+            this.code = code;
+            this.simulation = simulation;
+        }
+    }
+
+    // Totals of one run, for the comparison table
+    static final class Result {
+        private final long windows;
+        private final long flights;
+        private final long simulationTime;
+        private final long totalWait;
+        private final long wallTime;
+
+        Result(long windows, long flights, long simulationTime, long totalWait, long wallTime) {
+            this.windows = windows;
+            this.flights = flights;
+            this.simulationTime = simulationTime;
+            this.totalWait = totalWait;
+            this.wallTime = wallTime;
+        }
+
+        long getWindows() {
+            return windows;
+        }
+
+        long getFlights() {
+            return flights;
+        }
+
+        long getSimulationTime() {
+            return simulationTime;
+        }
+
+        long getTotalWait() {
+            return totalWait;
+        }
+    }
+
+    // Each airport replays its own scenario, plane IDs prefixed with the airport code to keep them unique
+    ParallelNetworkSimulation(String[] codes, List<Scenario> scenarios, NetworkRoutes routes, int legs, long flightTime) {
+        this.routes = routes;
+        this.legs = legs;
+        this.flightTime = flightTime;
+        for (int i = 0; i < codes.length; i++) {
+            String code = codes[i];
+            Scenario base = scenarios.get(i);
+            Scenario scenario = new Scenario(base.getSeed(), base.getConfig(), ignored -> prefixed(base.arrivals(), code));
+            Partition partition = new Partition(code, new DiscreteEventSimulation(scenario));
+            partition.simulation.setDepartureListener((plane, time) -> departed(partition, plane, time));
+            partitions.add(partition);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        CommandLine commandLine = new CommandLine(args);
+        String[] codes = NetworkRoutes.parseAirports(commandLine.getString("airports", "8"));
+        String topology = commandLine.getString("topology", "mesh");
+        int planes = commandLine.getInt("planes", 2000);
+        int legs = commandLine.getInt("legs", 4);
+        long flightTime = commandLine.getLong("flight-time", 600_000);
+        String scenarioFile = commandLine.getString("scenario", null);
+        long seed = commandLine.getLong("seed", 7);
+        String[] workerCounts = commandLine.getList("workers", new String[]{"1", "2", "4", "8"});
+        int warmup = commandLine.getInt("warmup", 2);
+        Map<String, String> overrides = commandLine.getOverrides();
+        commandLine.finish();
+
+        NetworkRoutes routes = NetworkRoutes.forTopology(topology, seed);
+        if (flightTime <= 0) {
+            throw new IllegalArgumentException("Flight time must be positive, it is the lookahead between airports");
+        }
+
+        List<Scenario> scenarios = new ArrayList<>();
+        for (int i = 0; i < codes.length; i++) {
+            Scenario scenario = (scenarioFile != null)
+                    ? ScenarioLoader.load(Paths.get(scenarioFile), seed + i)
+                    : new Scenario(seed + i, planes);
+            scenarios.add(scenario.withConfig(scenario.getConfig().with(overrides)));
+        }
+
+        System.out.println("*** Parallel Network Simulation (" + codes.length + " airports, " + topology + ", " +
+                (scenarioFile != null ? scenarioFile : planes + " planes") + " each, " + legs + " legs, flight time " +
+                flightTime + "ms, seed " + seed + ", " + Runtime.getRuntime().availableProcessors() + " cores) ***");
+        for (int i = 0; i < warmup; i++) {
+            new ParallelNetworkSimulation(codes, scenarios, routes, legs, flightTime)
+                    .run(Integer.parseInt(workerCounts[workerCounts.length - 1].trim()));
+        }
+        System.out.printf("%7s %8s %8s %12s %14s %10s %14s %8s%n", "Workers", "Windows", "Flights", "Sim time",
+                "Total wait", "Wall time", "Flights/wall-s", "Speedup");
+        double baseline = 0;
+        for (String workers : workerCounts) {
+            Result result = new ParallelNetworkSimulation(codes, scenarios, routes, legs, flightTime)
+                    .run(Integer.parseInt(workers.trim()));
+            double throughput = result.flights * 1000.0 / Math.max(1, result.wallTime);
+            if (baseline == 0) {
+                baseline = throughput;
+            }
+            System.out.printf("%7s %8d %8d %9d ms %11d ms %7d ms %14.0f %7.2fx%n", workers.trim(), result.windows,
+                    result.flights, result.simulationTime, result.totalWait, result.wallTime, throughput, throughput / baseline);
+        }
+    }
+
+    private static Iterator<Scenario.Arrival> prefixed(Iterator<Scenario.Arrival> arrivals, String code) {
+        return new Iterator<Scenario.Arrival>() {
+            @Override
+            public boolean hasNext() {
+                return arrivals.hasNext();
+            }
+
+            @Override
+            public Scenario.Arrival next() {
+                Scenario.Arrival arrival = arrivals.next();
+                return new Scenario.Arrival(arrival.getTime(), code + "-" + arrival.getPlaneID(),
+                        arrival.getPassengers(), arrival.getPriority());
+            }
+        };
+    }
+
+    // Window loop: find the earliest pending event, run every partition up to it plus the lookahead on the
+    // workers, then deliver the flights sent during the window
+    Result run(int workers) throws InterruptedException, ExecutionException {
+        long wallStart = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            for (Partition partition : partitions) {
+                partition.simulation.start();
+            }
+            while (true) {
+                long earliest = Long.MAX_VALUE;
+                for (Partition partition : partitions) {
+                    earliest = Math.min(earliest, partition.simulation.getNextEventTime());
+                }
+                if (earliest == Long.MAX_VALUE) {
+                    break; // Nothing queued anywhere and no flight in the air
+                }
+                long windowEnd = earliest + flightTime;
+                windows++;
+
+                List<Callable<Void>> steps = new ArrayList<>();
+                for (Partition partition : partitions) {
+                    if (partition.simulation.getNextEventTime() < windowEnd) {
+                        steps.add(() -> {
+                            partition.simulation.advanceTo(windowEnd);
+                            return null;
+                        });
+                    }
+                }
+                for (Future<Void> step : pool.invokeAll(steps)) {
+                    step.get(); // Rethrows a partition's failure
+                }
+                deliverMail();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        long wallTime = (System.nanoTime() - wallStart) / 1_000_000;
+
+        long flights = 0;
+        long simulationTime = 0;
+        long totalWait = 0;
+        for (Partition partition : partitions) {
+            AirportStatistics statistics = partition.simulation.getStatistics();
+            flights += statistics.getPlanesServed();
+            simulationTime = Math.max(simulationTime, partition.simulation.getSimulationTime());
+            totalWait += statistics.getWaitingTimes().getTotal();
+        }
+        return new Result(windows, flights, simulationTime, totalWait, wallTime);
+    }
+
+    // Runs on the departing partition's worker: post the plane's next leg to its destination's mailbox
+    private void departed(Partition from, Scenario.Arrival plane, long departureTime) {
+        int leg = legsFlown.merge(plane.getPlaneID(), 1, Integer::sum);
+        if (leg >= legs) {
+            return;
+        }
+        // Emergencies are resolved on landing, the next leg is a normal flight
+        route(from, plane.getPlaneID(), leg).mailbox.add(new Scenario.Arrival(departureTime + flightTime,
+                plane.getPlaneID(), plane.getPassengers(), LandingPriority.NORMAL));
+    }
+
+    // Between windows: arrivals are handed over sorted, so ties never depend on which worker sent first
+    private void deliverMail() {
+        for (Partition partition : partitions) {
+            List<Scenario.Arrival> delivered = new ArrayList<>();
+            Scenario.Arrival arrival;
+            while ((arrival = partition.mailbox.poll()) != null) {
+                delivered.add(arrival);
+            }
+            delivered.sort(Comparator.comparingLong(Scenario.Arrival::getTime).thenComparing(Scenario.Arrival::getPlaneID));
+            for (Scenario.Arrival flight : delivered) {
+                partition.simulation.receive(flight);
+            }
+        }
+    }
+
+    // Next destination, the same for every run and worker count
+    private Partition route(Partition from, String planeID, int leg) {
+        return partitions.get(routes.next(partitions.indexOf(from), partitions.size(), planeID, leg));
+    }
+}
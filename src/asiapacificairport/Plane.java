@@ -1,38 +1,53 @@
 package asiapacificairport;
 
-import java.util.Random;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-public class Plane extends Thread {
+public class Plane implements Runnable {
+    private final AsiaPacificAirport airport; // Where this plane lands, is serviced and departs
     private String planeID;
     private int passengers;
     private boolean emergency;
+    private LandingPriority landingPriority;
     private boolean isLanded; // Initially in the air
     private long arrivalTime;
     private long landingTime;
     private long departureTime;
     private long requestTime;
+    private long gateAssignedTime;
     private long waitingTime;
     private int assignedGate = -1;
-    private static final Random rand = new Random();
-    private AtomicReference<String> operationSummary;
-    private CountDownLatch operationsCompleted;
+    private volatile CompletableFuture<Integer> landingGrant;
+    private final AtomicBoolean committed = new AtomicBoolean(); // Set once, by landing clearance or by withdrawal
+    private final AtomicBoolean stageTimedOut = new AtomicBoolean(); // Counts a plane's first overrun only
+    private final OperationLog operationLog = new OperationLog();
+    private final AirportConfig config; // Phase durations
 
-    // Constructor
-    public Plane(String planeID, int passengers, boolean emergency) {
+    // Constructor, an emergency plane is treated as fuel critical
+    public Plane(AsiaPacificAirport airport, String planeID, int passengers, boolean emergency) {
+        this(airport, planeID, passengers, emergency ? LandingPriority.FUEL_CRITICAL : LandingPriority.NORMAL);
+    }
+
+    public Plane(AsiaPacificAirport airport, String planeID, int passengers, LandingPriority priority) {
+        this.airport = airport;
+        this.config = airport.getConfig();
         this.planeID = planeID;
         this.passengers = passengers;
-        this.emergency = emergency;
+        this.landingPriority = priority;
+        this.emergency = priority.isEmergency();
         this.isLanded = false;
         this.arrivalTime = System.currentTimeMillis();
-        this.operationSummary = new AtomicReference<>("Requesting");
-        this.operationsCompleted = new CountDownLatch(4); // 4 operations: passengers, refill, clean, refuel
-        
-        // Set higher priority for emergency planes
-        if (emergency) {
-            this.setPriority(Thread.MAX_PRIORITY);
+        RunJournal journal = airport.getJournal();
+        if (journal != null) {
+            operationLog.attach(journal, journal.registerPlane(planeID, passengers, priority, arrivalTime));
         }
+        logOperation(OperationLog.Event.REQUESTED);
     }
 
     public String getID() {
@@ -42,154 +57,294 @@ public class Plane extends Thread {
     public boolean isEmergency() {
         return emergency;
     }
+
+    public LandingPriority getLandingPriority() {
+        return landingPriority;
+    }
+
+    public int getPassengers() {
+        return passengers;
+    }
     
+    public AsiaPacificAirport getAirport() {
+        return airport;
+    }
+
     public long getArrivalTime() {
         return arrivalTime;
     }
 
-    // Request landing
-    public void requestLanding() {
-        System.out.println("Plane " + planeID + ": Requesting for landing in " +
-                Weather.getCurrentWeather() + " weather" + (emergency ? " (EMERGENCY)" : ""));
-        requestTime = System.currentTimeMillis();
+    // The plane's whole visit as an async pipeline: request -> land -> dock -> services -> depart.
+    // Blocking stages (weather holds, runway, taxiing) run on the executor, waiting for a landing slot
+    // or for ground crews holds no thread at all. Cancelling the returned future, or the landing request
+    // timing out, withdraws the plane before it is cleared to land; once cleared it always completes.
+    // A landing, turnaround or departure that runs past stage-timeout fails the returned future, though
+    // the plane still finishes its visit and gives back its gate and runways.
+    public CompletableFuture<Plane> fly(Executor executor) {
+        CompletableFuture<Plane> result = new CompletableFuture<>();
+        landingGrant = emergency ? emergencyRequired() : requestLanding();
+        long grantWait = airport.getLockMonitor().beginAsyncWait(planeID, "landing grant");
+        landingGrant.whenComplete((gate, error) -> airport.getLockMonitor().endWait(grantWait));
 
-        // Register with ATC for landing
-        AsiaPacificAirport.addToLandingQueue(this);
+        CompletableFuture<Plane> docked = landingGrant.thenApplyAsync(gate -> {
+            if (!committed.compareAndSet(false, true)) {
+                throw new CancellationException("Plane " + planeID + " withdrew its landing request");
+            }
+            landingGranted(gate);
+            return this;
+        }, executor);
+        CompletableFuture<Void> serviced = docked.thenCompose(plane -> airport.startTurnaround(this));
+        CompletableFuture<Plane> lifecycle = serviced.thenApplyAsync(turnaround -> {
+            depart();
+            airport.updateStatistics(planeID, departureTime - arrivalTime, waitingTime, passengers, operationLog);
+            return this;
+        }, executor);
+        lifecycle.whenComplete((plane, error) -> {
+            if (error == null) {
+                result.complete(plane);
+            } else {
+                result.completeExceptionally(error);
+            }
+        });
 
-        try {
-            // Wait until ground and gates are available AND have permission to land
-            boolean permissionGranted = false;
-            while (!permissionGranted) {
-                permissionGranted = AsiaPacificAirport.hasPermissionToLand(this);
-                if (!permissionGranted) {
-                    System.out.println("Plane " + planeID + ": Waiting in the air..." + (emergency ? " (EMERGENCY)" : ""));
-                    Thread.sleep(2000); // Wait and retry
-                }
+        // Withdrawal hands a slot that was already granted straight to the next plane
+        result.whenComplete((plane, error) -> {
+            if (result.isCancelled() && withdraw()) {
+                airport.getStatistics().recordWithdrawal();
             }
+        });
+        limitStage(landingGrant, docked, "landing", result);
+        limitStage(docked, serviced, "turnaround", result);
+        limitStage(serviced, lifecycle, "departure", result);
 
-            // Check weather conditions and wait if necessary for landing
-            Weather.waitForWeatherLanding(planeID, emergency);
+        long timeout = config.getLandingRequestTimeout();
+        if (timeout > 0) {
+            CompletableFuture.delayedExecutor(timeout, TimeUnit.MILLISECONDS).execute(() -> {
+                if (withdraw()) {
+                    diverted();
+                    AirportLog.log(() -> "ATC     : Plane " + planeID + " diverted after waiting " + timeout + "ms for a landing slot");
+                    result.completeExceptionally(new TimeoutException("Plane " + planeID + " landing request timed out"));
+                }
+            });
+        }
+        return result;
+    }
 
-            // Calculate waiting time only after permission has been granted and weather is clear
-            waitingTime = System.currentTimeMillis() - requestTime;
-            System.out.println("ATC     : Plane " + planeID + " cleared for landing (Wait Time: " + waitingTime + "ms)");
+    // Time one stage from the moment the one before it completes. On stage-timeout the caller's future
+    // fails, once per plane; the stage itself is left to run, a cleared plane cannot be called back
+    private void limitStage(CompletableFuture<?> previous, CompletableFuture<?> stage, String name, CompletableFuture<Plane> result) {
+        long limit = config.getStageTimeout();
+        if (limit <= 0) {
+            return;
+        }
+        previous.thenRun(() -> stage.copy().orTimeout(limit, TimeUnit.MILLISECONDS).whenComplete((value, error) -> {
+            if (error instanceof TimeoutException && stageTimedOut.compareAndSet(false, true)) {
+                airport.getStatistics().recordStageTimeout();
+                AirportLog.log(() -> "ATC     : Plane " + planeID + " " + name + " overran the " + limit + "ms stage timeout");
+                result.completeExceptionally(new TimeoutException("Plane " + planeID + " " + name + " took longer than " + limit + "ms"));
+            }
+        }));
+    }
 
-            // Acquire ground permit
-            AsiaPacificAirport.planesOnGround.acquire();
+    // Give up the landing request unless the plane has already been cleared, true if it was withdrawn
+    private boolean withdraw() {
+        if (!committed.compareAndSet(false, true)) {
+            return false;
+        }
+        airport.cancelLandingRequest(planeID, landingGrant);
+        return true;
+    }
 
-            // Find and assign a gate
-            assignedGate = AsiaPacificAirport.assignGate(planeID);
-            updateOperationSummary(" - assigned to Gate " + (assignedGate + 1));
+    // Request landing, the grant completes once a gate and ground slot are reserved
+    public CompletableFuture<Integer> requestLanding() {
+        Weather.WeatherCondition weather = airport.getWeather().getCurrentWeather();
+        AirportLog.log(() -> "Plane " + planeID + ": Requesting for landing in " +
+                weather + " weather" + (emergency ? " (EMERGENCY)" : ""));
+        requestTime = System.currentTimeMillis();
 
-            // Land the plane
-            land();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+        // Register with ATC for landing
+        CompletableFuture<Integer> landingGrant = airport.addToLandingQueue(this);
+        if (!landingGrant.isDone()) {
+            AirportLog.log(() -> "Plane " + planeID + ": Waiting in the air..." + (emergency ? " (EMERGENCY)" : ""));
         }
+        return landingGrant;
     }
 
+    // Arrival metering is holding the plane in the air until there is room in the landing queue
+    void holdForArrivalSlot() {
+        logOperation(OperationLog.Event.METERED);
+        AirportLog.log(() -> "Plane " + planeID + ": Holding for arrival slot...");
+    }
+
+    // The plane gives up on this airport: counted, and journaled without a gate or runway
+    void diverted() {
+        airport.getStatistics().recordDiversion();
+        operationLog.journal(RunJournal.Type.DIVERTED, -1, 0, System.currentTimeMillis());
+    }
 
     // Emergency landing logic
-    public void emergencyRequired() {
-        if (!isLanded && emergency) {
-            System.out.println("Plane " + planeID + ": EMERGENCY! Plane low fuel requiring emergency landing!!!");
-            requestLanding(); // Proceed with landing request (priority handling in AsiaPacificAirport class)
+    public CompletableFuture<Integer> emergencyRequired() {
+        if (landingPriority == LandingPriority.MEDICAL) {
+            AirportLog.log(() -> "Plane " + planeID + ": EMERGENCY! Medical emergency on board requiring emergency landing!!!");
+        } else {
+            AirportLog.log(() -> "Plane " + planeID + ": EMERGENCY! Plane low fuel requiring emergency landing!!!");
+        }
+        return requestLanding(); // Proceed with landing request (priority handling in AsiaPacificAirport class)
+    }
+
+    // Gate reserved: hold for weather if needed, then land and coast to the gate
+    private void landingGranted(int gate) {
+        assignedGate = gate;
+        gateAssignedTime = System.currentTimeMillis();
+        logOperation(OperationLog.Event.GATE_ASSIGNED, assignedGate);
+
+        try {
+            // Check weather conditions and wait if necessary for landing
+            airport.getWeather().waitForWeatherLanding(planeID, emergency);
+        } catch (InterruptedException e) {
+            airport.cancelLandingRequest(planeID, landingGrant);
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
         }
+
+        // Calculate waiting time only after permission has been granted and weather is clear
+        waitingTime = System.currentTimeMillis() - requestTime;
+        operationLog.journal(RunJournal.Type.CLEARED, assignedGate, (int) waitingTime, requestTime + waitingTime);
+        AirportLog.log(() -> "ATC     : Plane " + planeID + " cleared for landing (Wait Time: " + waitingTime + "ms)");
+
+        // Land the plane
+        land();
     }
 
     // Land on runway
     public void land() {
         try {
-            AsiaPacificAirport.runway.acquire();
-            System.out.println("Plane " + planeID + ": landing on runway...");
+            Runway landingRunway = acquireRunway(Runway.Movement.ARRIVAL);
+            AirportLog.log(() -> "Plane " + planeID + ": landing on Runway " + landingRunway.getNumber() + "...");
             landingTime = System.currentTimeMillis();
-            Thread.sleep(1000); // Landing takes 1 second
-            System.out.println("ATC     : Plane " + planeID + " landed successfully!");
+            Thread.sleep(config.getLandingTime()); // Landing
+            AirportLog.log(() -> "ATC     : Plane " + planeID + " landed successfully!");
             isLanded = true;
-            updateOperationSummary(" - landed");
-            
-            AsiaPacificAirport.runway.release();
+            logOperation(OperationLog.Event.LANDED);
             
-            // Acquire assigned gate
-            System.out.println("Plane " + planeID + ": Coasting to Gate " + (assignedGate + 1));
-            AsiaPacificAirport.gates[assignedGate].acquire();
-            Thread.sleep(1000); // Coasting to gate takes 1 second
-            System.out.println("Plane " + planeID + ": Docked at Gate " + (assignedGate + 1));
-            System.out.println("ATC     : Plane " + planeID + " docked at Gate " + (assignedGate + 1));
-            updateOperationSummary(" - docked at Gate " + (assignedGate + 1));
+            releaseRunway(landingRunway);
+
+            // Coast to the gate reserved with the landing grant
+            AirportLog.log(() -> "Plane " + planeID + ": Coasting to Gate " + (assignedGate + 1));
+            Thread.sleep(config.getCoastToGateTime()); // Coasting to gate
+            AirportLog.log(() -> "Plane " + planeID + ": Docked at Gate " + (assignedGate + 1));
+            AirportLog.log(() -> "ATC     : Plane " + planeID + " docked at Gate " + (assignedGate + 1));
+            logOperation(OperationLog.Event.DOCKED, assignedGate);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
     }
 
-    // Refill supplies and cleaning (concurrent operation)
+    // Wait for a runway, visible to the lock monitor as this plane's wait
+    private Runway acquireRunway(Runway.Movement movement) throws InterruptedException {
+        long token = airport.getLockMonitor().beginWait(planeID, (movement == Runway.Movement.ARRIVAL ? "arrival" : "departure") + " runway");
+        Runway runway;
+        try {
+            runway = airport.acquireRunway(movement);
+        } finally {
+            airport.getLockMonitor().endWait(token);
+        }
+        operationLog.journal(RunJournal.Type.RUNWAY_OCCUPIED, runway.getNumber(), movement.ordinal(), System.currentTimeMillis());
+        return runway;
+    }
+
+    private void releaseRunway(Runway runway) {
+        operationLog.journal(RunJournal.Type.RUNWAY_VACATED, runway.getNumber(), 0, System.currentTimeMillis());
+        airport.releaseRunway(runway);
+    }
+
+    // Carry out one ground task once the scheduler has given it a crew
+    public void performGroundTask(GroundServices.Task task) {
+        switch (task) {
+            case DEPLANE:
+                disembark();
+                break;
+            case CATERING:
+                refillSupplies();
+                break;
+            case CLEANING:
+                cleaningAircraft();
+                break;
+            case REFUEL:
+                refuelAircraft();
+                break;
+            case BOARD:
+                embark();
+                break;
+        }
+    }
+
+    // Refill supplies, needs a catering truck
     public void refillSupplies() {
         if (isLanded) {
-            System.out.println("Airport : Refilling supplies for Plane " + planeID);
+            AirportLog.log(() -> "Airport : Refilling supplies for Plane " + planeID);
             try {
-                Thread.sleep(1000); // Refilling takes 1 second
+                Thread.sleep(config.getRefillTime()); // Refilling
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
-            System.out.println("Airport : Supplies refilled for Plane " + planeID);
-            updateOperationSummary(" - refilled supplies");
-            operationsCompleted.countDown();
+            AirportLog.log(() -> "Airport : Supplies refilled for Plane " + planeID);
+            logOperation(OperationLog.Event.REFILLED);
         }
     }
-    
+
+    // Clean the cabin, needs a cleaning crew
     public void cleaningAircraft() {
         if (isLanded) {
-            System.out.println("Airport : Cleaning aircraft for Plane " + planeID);
+            AirportLog.log(() -> "Airport : Cleaning aircraft for Plane " + planeID);
             try {
-                Thread.sleep(1000); // Cleaning takes 1 second
+                Thread.sleep(config.getCleaningTime()); // Cleaning
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
-            System.out.println("Airport : Plane " + planeID + " cleaned");
-            updateOperationSummary(" - cleaned aircraft");
-            operationsCompleted.countDown();
+            AirportLog.log(() -> "Airport : Plane " + planeID + " cleaned");
+            logOperation(OperationLog.Event.CLEANED);
         }
     }
 
-    // Passenger embark/disembark (concurrent operation)
-    public void passengerBehavior() {
+    // Passengers off and on, each needs a boarding bridge
+    public void disembark() {
         if (isLanded) {
-            System.out.println("Plane " + planeID + ": Disembarking " + passengers + " passengers ...");
+            AirportLog.log(() -> "Plane " + planeID + ": Disembarking " + passengers + " passengers ...");
             try {
-                Thread.sleep(1000); // Disembarking takes 1 second
+                Thread.sleep(config.getDisembarkTime()); // Disembarking
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
-            System.out.println("Plane " + planeID + ": All passengers disembarked");
-            updateOperationSummary(" - disembarked passengers");
+            AirportLog.log(() -> "Plane " + planeID + ": All passengers disembarked");
+            logOperation(OperationLog.Event.DISEMBARKED);
+        }
+    }
 
-            System.out.println("Plane " + planeID + ": Embarking " + passengers + " passengers ...");
+    public void embark() {
+        if (isLanded) {
+            AirportLog.log(() -> "Plane " + planeID + ": Embarking " + passengers + " passengers ...");
             try {
-                Thread.sleep(1000); // Embarking takes 1 second
+                Thread.sleep(config.getEmbarkTime()); // Embarking
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
-            System.out.println("Plane " + planeID + ": All passengers embarked");
-            updateOperationSummary(" - embarked passengers");
-            operationsCompleted.countDown();
+            AirportLog.log(() -> "Plane " + planeID + ": All passengers embarked");
+            logOperation(OperationLog.Event.EMBARKED);
         }
     }
-    
-    // Refueling (exclusive operation)
+
+    // Refueling, needs a fuel truck
     public void refuelAircraft() {
         if (isLanded) {
+            AirportLog.log(() -> "Refuel Truck: Refueling Plane " + planeID);
             try {
-                AsiaPacificAirport.refuelingTruck.acquire();
-                System.out.println("Refuel Truck: Refueling Plane " + planeID);
-                Thread.sleep(1000); // Refueling takes 1 second
-                System.out.println("Refuel Truck: Plane " + planeID + " refueled");
-                updateOperationSummary(" - refueled");
+                Thread.sleep(config.getRefuelTime()); // Refueling
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
-            } finally {
-                AsiaPacificAirport.refuelingTruck.release();
-                operationsCompleted.countDown();
             }
+            AirportLog.log(() -> "Refuel Truck: Plane " + planeID + " refueled");
+            logOperation(OperationLog.Event.REFUELED);
         }
     }
 
@@ -197,75 +352,65 @@ public class Plane extends Thread {
     public void depart() {
         if (isLanded) {
             try {
-                System.out.println("Plane " + planeID + ": Requesting departure in " +
-                        Weather.getCurrentWeather() + " weather");
+                Weather.WeatherCondition weather = airport.getWeather().getCurrentWeather();
+                AirportLog.log(() -> "Plane " + planeID + ": Requesting departure in " + weather + " weather");
 
                 // Check weather conditions and wait if necessary for departure
-                Weather.waitForWeatherDeparture(planeID);
+                airport.getWeather().waitForWeatherDeparture(planeID);
 
-                System.out.println("Plane " + planeID + ": Undocking from Gate " + (assignedGate + 1));
-                Thread.sleep(1000); // Undocking takes 1 second
-                System.out.println("Plane " + planeID + ": Coasting to runway...");
-                Thread.sleep(1000); // Coasting to runway takes 1 second
+                AirportLog.log(() -> "Plane " + planeID + ": Undocking from Gate " + (assignedGate + 1));
+                Thread.sleep(config.getUndockTime()); // Undocking
+                AirportLog.log(() -> "Plane " + planeID + ": Coasting to runway...");
+                Thread.sleep(config.getCoastToRunwayTime()); // Coasting to runway
 
                 // Release the gate
-                AsiaPacificAirport.gates[assignedGate].release();
-                AsiaPacificAirport.releaseGate(assignedGate, planeID);
-                updateOperationSummary(" - left Gate " + (assignedGate + 1));
+                airport.releaseGate(assignedGate, planeID);
+                airport.recordGateOccupancy(System.currentTimeMillis() - gateAssignedTime);
+                logOperation(OperationLog.Event.LEFT_GATE, assignedGate);
 
                 // Acquire runway for takeoff
-                AsiaPacificAirport.runway.acquire();
-                System.out.println("Plane " + planeID + ": Departed from airport");
-                System.out.println("ATC     : Plane " + planeID + " departed successfully");
+                Runway departureRunway = acquireRunway(Runway.Movement.DEPARTURE);
+                AirportLog.log(() -> "Plane " + planeID + ": Departed from Runway " + departureRunway.getNumber());
+                AirportLog.log(() -> "ATC     : Plane " + planeID + " departed successfully");
                 isLanded = false;
                 departureTime = System.currentTimeMillis();
-                AsiaPacificAirport.runway.release();
-                AsiaPacificAirport.planesOnGround.release();
-                updateOperationSummary(" - departed");
+                releaseRunway(departureRunway);
+                airport.leaveGround();
+                logOperation(OperationLog.Event.DEPARTED);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
         }
     }
 
-    // Helper method to update operation summary
-    private void updateOperationSummary(String update) {
-        operationSummary.updateAndGet(current -> current + update);
+    // Helper methods to log lifecycle steps, rendered to text only for the final report
+    private void logOperation(OperationLog.Event event) {
+        operationLog.log(event, System.currentTimeMillis());
+    }
+
+    private void logOperation(OperationLog.Event event, int gate) {
+        operationLog.log(event, gate, System.currentTimeMillis());
     }
 
+    // Fly the whole pipeline on the calling thread, for callers that want one blocking Runnable per plane.
+    // An interrupt withdraws a plane that is still waiting to land, a cleared plane finishes its visit.
     @Override
     public void run() {
-        try {
-            // Emergency landing if required
-            if (emergency) {
-                emergencyRequired();
-            } else {
-                requestLanding();
+        LinkedBlockingQueue<Runnable> stages = new LinkedBlockingQueue<>();
+        CompletableFuture<Plane> lifecycle = fly(stages::add);
+        lifecycle.whenComplete((plane, error) -> stages.add(() -> { })); // Wake the loop below
+        boolean interrupted = false;
+        while (!lifecycle.isDone()) {
+            try {
+                stages.take().run();
+            } catch (InterruptedException e) {
+                interrupted = true;
+                if (withdraw()) {
+                    lifecycle.cancel(false);
+                }
             }
-
-            // Create threads for concurrent operations
-            Thread passengerThread = new Thread(this::passengerBehavior, "Passenger-" + planeID);
-            Thread refillThread = new Thread(this::refillSupplies, "Refill-" + planeID);
-            Thread cleanThread = new Thread(this::cleaningAircraft, "Clean-" + planeID);
-            Thread refuelThread = new Thread(this::refuelAircraft, "Refuel-" + planeID);
-
-            // Start concurrent operations
-            passengerThread.start();
-            refillThread.start();
-            cleanThread.start();
-            refuelThread.start();
-
-            // Wait for all operations to complete
-            operationsCompleted.await();
-            
-            // Depart
-            depart();
-
-            // Update statistics
-            long totalTime = departureTime - arrivalTime;
-            AsiaPacificAirport.updateStatistics(planeID, totalTime, waitingTime, passengers, operationSummary.get());
-
-        } catch (InterruptedException e) {
+        }
+        if (interrupted) {
             Thread.currentThread().interrupt();
         }
     }
@@ -0,0 +1,46 @@
+package asiapacificairport;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// The most recent durations in a fixed ring, for percentiles over the last few hundred planes rather
+// than the whole run. Recording claims a slot with one atomic add; reading copies the ring and sorts
+// the copy, so live monitoring never holds up the planes recording into it.
+public class RollingLatencies {
+    private final AtomicLongArray values;
+    private final AtomicLong recorded = new AtomicLong();
+
+    public RollingLatencies(int window) {
+        this.values = new AtomicLongArray(window);
+    }
+
+    public void record(long value) {
+        long index = recorded.getAndIncrement();
+        values.set((int) (index % values.length()), value);
+    }
+
+    // Values in the window, at most its size
+    public int size() {
+        return (int) Math.min(recorded.get(), values.length());
+    }
+
+    // Sorted copy of the window; a slot claimed but not yet written may still show its previous value
+    public long[] snapshot() {
+        long[] copy = new long[size()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = values.get(i);
+        }
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    // Percentile of a sorted snapshot, fraction 0..1; 0 for an empty window
+    public static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank))];
+    }
+}
@@ -0,0 +1,202 @@
+package asiapacificairport;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Append-only binary journal of a run: every lifecycle transition, runway movement and weather change as
+// a fixed-size record in a memory-mapped file, for JournalReplay to analyse afterwards. Writers claim
+// their record slot with one atomic add and fill it in place, so plane threads never wait for each
+// other; only the first writer into a new 64 MB segment maps it. Times are ms since the start of the run.
+//
+// Record layout, 32 bytes little-endian:
+//   0 long time | 8 int plane number (-1 for none) | 12 int value | 16 short type | 18 short resource | 20 12-byte text
+// The type is written last and 0 marks the end of the journal, so a reader stops at the first unwritten slot.
+// Closing cuts the file to the records written, so a finished journal is no bigger than its records.
+// The first record is a header, PLANE records give each plane number its ID, passengers and priority.
+public class RunJournal implements AutoCloseable {
+    public static final int RECORD_SIZE = 32;
+    public static final int TEXT_SIZE = 12;
+    public static final String MAGIC = "APAJOURNAL";
+    public static final int VERSION = 1;
+    private static final long SEGMENT_SIZE = 64L * 1024 * 1024; // Must be a multiple of RECORD_SIZE
+    private static final int MAX_SEGMENTS = 4096; // 256 GB
+    private static final long CLOSED = -1;
+
+    // Record types, codes are stored in the file so only ever append new ones
+    public enum Type {
+        HEADER(1),
+        PLANE(2), // value = passengers, resource = priority ordinal, text = plane ID
+        REQUESTED(3),
+        METERED(4),
+        GATE_ASSIGNED(5), // resource = gate
+        CLEARED(6), // Cleared to land, value = waiting time in ms
+        LANDED(7),
+        DOCKED(8), // resource = gate
+        DISEMBARKED(9),
+        REFILLED(10),
+        CLEANED(11),
+        REFUELED(12),
+        EMBARKED(13),
+        LEFT_GATE(14), // resource = gate
+        DEPARTED(15),
+        DIVERTED(16),
+        RUNWAY_OCCUPIED(17), // resource = runway number, value = movement ordinal
+        RUNWAY_VACATED(18), // resource = runway number
+        WEATHER(19), // value = condition ordinal
+        WEATHER_HOLD(20); // value = hold time in ms
+
+        private static final Type[] BY_CODE = new Type[32];
+        private static final Type[] BY_OPERATION = new Type[OperationLog.Event.values().length];
+
+        static {
+            for (Type type : values()) {
+                BY_CODE[type.code] = type;
+            }
+            for (OperationLog.Event event : OperationLog.Event.values()) {
+                BY_OPERATION[event.ordinal()] = valueOf(event.name());
+            }
+        }
+
+        private final short code;
+
+        Type(int code) {
+            this.code = (short) code;
+        }
+
+        public short getCode() {
+            return code;
+        }
+
+        // Type for a stored code, null for codes this version does not know
+        public static Type fromCode(int code) {
+            return (code > 0 && code < BY_CODE.length) ? BY_CODE[code] : null;
+        }
+
+        // Journal type of a plane lifecycle event, the names match
+        public static Type of(OperationLog.Event event) {
+            return BY_OPERATION[event.ordinal()];
+        }
+    }
+
+    private final FileChannel channel;
+    private final long baseTime;
+    private final AtomicReferenceArray<MappedByteBuffer> segments = new AtomicReferenceArray<>(MAX_SEGMENTS);
+    private final ReentrantLock mappingLock = new ReentrantLock();
+    private final AtomicLong nextPosition = new AtomicLong(); // Next free byte, CLOSED once the journal is closed
+    private final AtomicLong writtenBytes = new AtomicLong(); // Bytes of records claimed and finished
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private final AtomicInteger nextPlane = new AtomicInteger();
+    private volatile long closedSize = 0;
+
+    // Create or overwrite a journal; times are recorded relative to baseTime (0 for virtual time)
+    public RunJournal(Path file, long baseTime) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.baseTime = baseTime;
+        append(Type.HEADER, VERSION, baseTime, -1, 0, MAGIC);
+    }
+
+    // Give a plane its number for later records, written as a PLANE record
+    public int registerPlane(String planeID, int passengers, LandingPriority priority, long timestamp) {
+        int plane = nextPlane.getAndIncrement();
+        append(Type.PLANE, plane, timestamp - baseTime, priority.ordinal(), passengers, planeID);
+        return plane;
+    }
+
+    // Append one record, timestamp on the same clock as baseTime; safe from any thread
+    public void record(Type type, int plane, long timestamp, int resource, int value) {
+        append(type, plane, timestamp - baseTime, resource, value, null);
+    }
+
+    // Records written so far, including the header
+    public long getRecordCount() {
+        long position = nextPosition.get();
+        return (position == CLOSED ? closedSize : position) / RECORD_SIZE;
+    }
+
+    // Records that arrived after close, e.g. from the weather thread or a late timeout, and were dropped
+    public long getDroppedRecords() {
+        return droppedRecords.get();
+    }
+
+    private void append(Type type, int plane, long time, int resource, int value, String text) {
+        long position;
+        do {
+            position = nextPosition.get();
+            if (position == CLOSED) {
+                droppedRecords.incrementAndGet();
+                return;
+            }
+        } while (!nextPosition.compareAndSet(position, position + RECORD_SIZE));
+        try {
+            MappedByteBuffer segment = segment((int) (position / SEGMENT_SIZE));
+            int offset = (int) (position % SEGMENT_SIZE);
+            segment.putLong(offset, time);
+            segment.putInt(offset + 8, plane);
+            segment.putInt(offset + 12, value);
+            segment.putShort(offset + 18, (short) resource);
+            if (text != null) {
+                byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+                for (int i = 0; i < TEXT_SIZE; i++) {
+                    segment.put(offset + 20 + i, i < bytes.length ? bytes[i] : 0);
+                }
+            }
+            segment.putShort(offset + 16, type.getCode()); // Last, marks the record as written
+        } finally {
+            writtenBytes.addAndGet(RECORD_SIZE); // Also for a full journal, so close never waits on it
+        }
+    }
+
+    private MappedByteBuffer segment(int index) {
+        if (index >= MAX_SEGMENTS) {
+            throw new IllegalStateException("Journal full at " + MAX_SEGMENTS + " segments of " + SEGMENT_SIZE + " bytes");
+        }
+        MappedByteBuffer segment = segments.get(index);
+        if (segment != null) {
+            return segment;
+        }
+        mappingLock.lock();
+        try {
+            segment = segments.get(index);
+            if (segment == null) {
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, index * SEGMENT_SIZE, SEGMENT_SIZE);
+                segment.order(ByteOrder.LITTLE_ENDIAN);
+                segments.set(index, segment);
+            }
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot grow journal to segment " + index, e);
+        } finally {
+            mappingLock.unlock();
+        }
+    }
+
+    // Stop taking records, wait for the ones in flight, flush and cut the file to the records written.
+    // Later writers are dropped rather than failing: the weather thread and late timeouts outlive the run
+    @Override
+    public void close() throws IOException {
+        long end = nextPosition.getAndSet(CLOSED);
+        if (end == CLOSED) {
+            return;
+        }
+        closedSize = end;
+        while (writtenBytes.get() < end) {
+            Thread.onSpinWait(); // A writer between claiming its slot and filling it, a few stores away
+        }
+        for (int i = 0; i < MAX_SEGMENTS && segments.get(i) != null; i++) {
+            segments.get(i).force();
+        }
+        channel.truncate(Math.min(end, channel.size()));
+        channel.close();
+    }
+}
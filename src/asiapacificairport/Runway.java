@@ -0,0 +1,102 @@
+package asiapacificairport;
+
+// One runway, its allowed movements and the separation required between consecutive movements.
+// State is guarded by the owning RunwaySystem.
+public class Runway {
+    public enum Movement {
+        ARRIVAL, DEPARTURE
+    }
+
+    public enum Mode {
+        ARRIVAL_ONLY("Arrival-only"),
+        DEPARTURE_ONLY("Departure-only"),
+        MIXED("Mixed");
+
+        private final String name;
+
+        Mode(String name) {
+            this.name = name;
+        }
+
+        public boolean accepts(Movement movement) {
+            return this == MIXED || (this == ARRIVAL_ONLY) == (movement == Movement.ARRIVAL);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private final int number;
+    private final Mode mode;
+    private final long separation; // ms between the end of one movement and the start of the next
+
+    private boolean occupied = false;
+    private Movement currentMovement;
+    private volatile Movement activeMovement; // currentMovement while occupied, null when free; read without runwayLock
+    private Movement lastMovement;
+    private long occupiedSince;
+    private long lastVacated = Long.MIN_VALUE / 2;
+    private long busyTime = 0;
+    private final int[] movements = new int[Movement.values().length];
+
+    public Runway(int number, Mode mode, long separation) {
+        this.number = number;
+        this.mode = mode;
+        this.separation = separation;
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    boolean isOccupied() {
+        return occupied;
+    }
+
+    // Movement using the runway right now, null if it is free; safe to read from any thread
+    public Movement getActiveMovement() {
+        return activeMovement;
+    }
+
+    Movement getLastMovement() {
+        return lastMovement;
+    }
+
+    // Earliest time the next movement may start once the runway is free
+    long readyAt() {
+        return lastVacated + separation;
+    }
+
+    void occupy(Movement movement, long now) {
+        occupied = true;
+        currentMovement = movement;
+        activeMovement = movement;
+        occupiedSince = now;
+    }
+
+    // Free the runway and return how long this movement held it
+    long vacate(long now) {
+        occupied = false;
+        activeMovement = null;
+        lastMovement = currentMovement;
+        lastVacated = now;
+        long occupiedTime = now - occupiedSince;
+        busyTime += occupiedTime;
+        movements[currentMovement.ordinal()]++;
+        return occupiedTime;
+    }
+
+    int getMovements(Movement movement) {
+        return movements[movement.ordinal()];
+    }
+
+    long getBusyTime() {
+        return busyTime;
+    }
+}
@@ -0,0 +1,111 @@
+package asiapacificairport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Runway scheduling rules shared by the threaded and discrete-event modes. Not thread-safe,
+// the threaded mode guards it with the airport's runwayLock.
+//
+// A movement gets the free, compatible runway that clears separation first. Dedicated runways are
+// preferred so mixed runways stay open for the other movement type, and when both types are waiting
+// a mixed runway alternates between them instead of serving one type back to back.
+public class RunwaySystem {
+    private final List<Runway> runways = new ArrayList<>();
+    private final int[] waiting = new int[Runway.Movement.values().length];
+
+    // Build from a comma separated layout such as "mixed" or "arrival,departure,mixed"
+    public static RunwaySystem parse(String layout, long separation) {
+        RunwaySystem system = new RunwaySystem();
+        for (String mode : layout.split(",")) {
+            switch (mode.trim()) {
+                case "arrival":
+                    system.add(Runway.Mode.ARRIVAL_ONLY, separation);
+                    break;
+                case "departure":
+                    system.add(Runway.Mode.DEPARTURE_ONLY, separation);
+                    break;
+                case "mixed":
+                    system.add(Runway.Mode.MIXED, separation);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown runway mode: " + mode);
+            }
+        }
+        for (Runway.Movement movement : Runway.Movement.values()) {
+            if (system.runways.stream().noneMatch(r -> r.getMode().accepts(movement))) {
+                throw new IllegalArgumentException("Runway layout has no runway for " + movement);
+            }
+        }
+        return system;
+    }
+
+    public void add(Runway.Mode mode, long separation) {
+        runways.add(new Runway(runways.size() + 1, mode, separation));
+    }
+
+    public List<Runway> getRunways() {
+        return runways;
+    }
+
+    // Register a movement that will keep asking until it gets a runway
+    void startWaiting(Runway.Movement movement) {
+        waiting[movement.ordinal()]++;
+    }
+
+    void stopWaiting(Runway.Movement movement) {
+        waiting[movement.ordinal()]--;
+    }
+
+    // Runway that can take the movement right now, null if it has to wait
+    Runway choose(Runway.Movement movement, long now) {
+        Runway best = null;
+        for (Runway runway : runways) {
+            if (isCandidate(runway, movement) && runway.readyAt() <= now && (best == null || prefer(runway, best))) {
+                best = runway;
+            }
+        }
+        return best;
+    }
+
+    // Earliest time a currently free runway clears separation for this movement, Long.MAX_VALUE if none is free
+    long nextReadyTime(Runway.Movement movement) {
+        long next = Long.MAX_VALUE;
+        for (Runway runway : runways) {
+            if (isCandidate(runway, movement)) {
+                next = Math.min(next, runway.readyAt());
+            }
+        }
+        return next;
+    }
+
+    private boolean isCandidate(Runway runway, Runway.Movement movement) {
+        if (runway.isOccupied() || !runway.getMode().accepts(movement)) {
+            return false;
+        }
+        // Interleave on mixed runways: yield to the other type if it is waiting and we went last
+        Runway.Movement other = (movement == Runway.Movement.ARRIVAL) ? Runway.Movement.DEPARTURE : Runway.Movement.ARRIVAL;
+        return runway.getMode() != Runway.Mode.MIXED || runway.getLastMovement() != movement || waiting[other.ordinal()] == 0;
+    }
+
+    private boolean prefer(Runway candidate, Runway current) {
+        boolean candidateDedicated = candidate.getMode() != Runway.Mode.MIXED;
+        boolean currentDedicated = current.getMode() != Runway.Mode.MIXED;
+        if (candidateDedicated != currentDedicated) {
+            return candidateDedicated;
+        }
+        return candidate.readyAt() < current.readyAt();
+    }
+
+    // Per-runway throughput for the end-of-run report
+    public void printStatistics(long totalRunningTime) {
+        System.out.println("\n--- Runway Statistics ---");
+        for (Runway runway : runways) {
+            int arrivals = runway.getMovements(Runway.Movement.ARRIVAL);
+            int departures = runway.getMovements(Runway.Movement.DEPARTURE);
+            double hours = totalRunningTime / 3_600_000.0;
+            long perHour = hours > 0 ? Math.round((arrivals + departures) / hours) : 0;
+            System.out.println("Runway " + runway.getNumber() + " (" + runway.getMode() + "): " + arrivals + " arrivals, " +
+                    departures + " departures, " + perHour + " movements/hour, busy " + runway.getBusyTime() + " ms");
+        }
+    }
+}
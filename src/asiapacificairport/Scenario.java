@@ -0,0 +1,143 @@
+package asiapacificairport;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+// A reproducible traffic day: airport settings, arrivals and weather derived from one seed, so the
+// threaded and discrete-event modes can replay exactly the same inputs. The seed is a master seed:
+// every random component draws from its own stream split off it, so adding draws to one component
+// never shifts another, and neighbouring seeds give unrelated days.
+public class Scenario {
+    private static final int MAX_PASSENGERS = 50;
+    private static final int MAX_ARRIVAL_GAP = 2000; // Random arrival every 0-2 seconds
+    private static final int CONGESTION_GAP = 1000; // Gap before the emergency plane arrives
+    private static final int EMERGENCY_PLANE = 5; // 5th plane has emergency landing (for congested scenario)
+
+    private final long seed;
+    private final AirportConfig config;
+    private final ArrivalSource arrivalSource;
+
+    // Components with their own random stream, only ever append so existing seeds keep their days
+    public enum Stream {
+        ARRIVALS,
+        WEATHER
+    }
+
+    // Opens a fresh stream of arrivals in time order, generated lazily so large days are never held in memory
+    public interface ArrivalSource {
+        Iterator<Arrival> open(long seed);
+    }
+
+    // One inbound plane, time is ms since the start of the run
+    public static final class Arrival {
+        private final long time;
+        private final String planeID;
+        private final int passengers;
+        private final LandingPriority priority;
+
+        Arrival(long time, String planeID, int passengers, LandingPriority priority) {
+            this.time = time;
+            this.planeID = planeID;
+            this.passengers = passengers;
+            this.priority = priority;
+        }
+
+        public long getTime() {
+            return time;
+        }
+
+        public String getPlaneID() {
+            return planeID;
+        }
+
+        public int getPassengers() {
+            return passengers;
+        }
+
+        public LandingPriority getPriority() {
+            return priority;
+        }
+    }
+
+    // The original demo day: random arrivals 0-2 seconds apart, plane 5 is a fuel emergency
+    public Scenario(long seed, int totalPlanes) {
+        this(seed, AirportConfig.defaults(), standardArrivals(totalPlanes));
+    }
+
+    public Scenario(long seed, AirportConfig config, ArrivalSource arrivalSource) {
+        this.seed = seed;
+        this.config = config;
+        this.arrivalSource = arrivalSource;
+    }
+
+    public Scenario withSeed(long newSeed) {
+        return new Scenario(newSeed, config, arrivalSource);
+    }
+
+    public Scenario withConfig(AirportConfig newConfig) {
+        return new Scenario(seed, newConfig, arrivalSource);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public AirportConfig getConfig() {
+        return config;
+    }
+
+    // Arrivals in time order, a fresh stream on every call
+    public Iterator<Arrival> arrivals() {
+        return arrivalSource.open(streamSeed(Stream.ARRIVALS));
+    }
+
+    // Weather timeline for this scenario, a fresh copy on every call
+    public WeatherTimeline weatherTimeline() {
+        return new WeatherTimeline(streamSeed(Stream.WEATHER), config);
+    }
+
+    // Seed of a component's stream: the stream'th split of the master seed
+    public long streamSeed(Stream stream) {
+        SplittableRandom master = new SplittableRandom(seed);
+        SplittableRandom split = master.split();
+        for (int i = 0; i < stream.ordinal(); i++) {
+            split = master.split();
+        }
+        return split.nextLong();
+    }
+
+    // Forecast over a fresh weather timeline, looking weather-forecast-horizon ms ahead
+    public WeatherForecast weatherForecast() {
+        return new WeatherForecast(weatherTimeline(), config.getWeatherForecastHorizon());
+    }
+
+    private static ArrivalSource standardArrivals(int totalPlanes) {
+        return seed -> new Iterator<Arrival>() {
+            private final Random rand = new Random(seed);
+            private int nextPlane = 1;
+            private long time = 0;
+
+            @Override
+            public boolean hasNext() {
+                return nextPlane <= totalPlanes;
+            }
+
+            @Override
+            public Arrival next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int i = nextPlane++;
+                int passengers = rand.nextInt(MAX_PASSENGERS) + 1; // 1-50 passengers
+                LandingPriority priority = (i == EMERGENCY_PLANE) ? LandingPriority.FUEL_CRITICAL : LandingPriority.NORMAL;
+                Arrival arrival = new Arrival(time, "P" + i, passengers, priority);
+
+                // If we're about to create the emergency plane, ensure we have congestion
+                time += (i == EMERGENCY_PLANE - 1) ? CONGESTION_GAP : rand.nextInt(MAX_ARRIVAL_GAP);
+                return arrival;
+            }
+        };
+    }
+}
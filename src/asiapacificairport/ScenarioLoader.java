@@ -0,0 +1,263 @@
+package asiapacificairport;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Loads a scenario file: "key = value" airport settings, then an [arrivals] section of schedule
+// directives. The schedule is re-read line by line every time arrivals are replayed, so files with
+// millions of planes are streamed rather than loaded into memory.
+//
+//   seed = 42
+//   gates = 6
+//   [arrivals]
+//   poisson rate=900 count=2000 passengers=20-180   # Poisson arrivals, rate per hour
+//   uniform count=50 gap=0-2000                     # Random gap after each plane
+//   burst count=20 gap=500                          # Fixed gap after each plane
+//   emergency priority=medical passengers=12        # One emergency plane now
+//   arrival id=VIP1 passengers=8 priority=normal    # One plane now
+//   wait 60000                                      # Advance the schedule clock
+//   at 3600000                                      # Jump the schedule clock forward
+public class ScenarioLoader {
+    private static final String ARRIVALS_SECTION = "[arrivals]";
+    private static final String DEFAULT_PASSENGERS = "1-50";
+    private static final Pattern GENERATED_ID = Pattern.compile("P\\d+"); // IDs given to planes without an id
+
+    // Read the settings section of a file, default seed is used if the file does not set one
+    public static Scenario load(Path file, long defaultSeed) throws IOException {
+        Map<String, String> settings = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = stripComment(line);
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (line.equalsIgnoreCase(ARRIVALS_SECTION)) {
+                    break;
+                }
+                int equals = line.indexOf('=');
+                if (equals < 0) {
+                    throw new IllegalArgumentException(file + ":" + lineNumber + ": expected key = value, got: " + line);
+                }
+                settings.put(line.substring(0, equals).trim(), line.substring(equals + 1).trim());
+            }
+        }
+
+        String seed = settings.remove("seed");
+        AirportConfig config = new AirportConfig(settings);
+        return new Scenario(seed == null ? defaultSeed : Long.parseLong(seed), config, s -> new ScheduleStream(file, s));
+    }
+
+    private static String stripComment(String line) {
+        int hash = line.indexOf('#');
+        return (hash >= 0 ? line.substring(0, hash) : line).trim();
+    }
+
+    // Lazily expands schedule directives into arrivals, one line at a time. The file is closed at its end,
+    // a consumer that stops early closes the stream itself
+    private static final class ScheduleStream implements Iterator<Scenario.Arrival>, Closeable {
+        private final Path file;
+        private final BufferedReader reader;
+        private final Random rand;
+        private int lineNumber = 0;
+        private long clock = 0;
+        private int planeNumber = 0;
+        private boolean closed = false;
+        private final Set<String> explicitIDs = new HashSet<>(); // Only planes given an id, generated ones never clash
+
+
+        // Directive currently being expanded
+        private String directive;
+        private int remaining = 0;
+        private Map<String, String> options;
+        private int[] passengers;
+        private LandingPriority priority;
+        private double ratePerHour;
+
+        ScheduleStream(Path file, long seed) {
+            this.file = file;
+            this.rand = new Random(seed);
+            try {
+                this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            try {
+                String line;
+                do {
+                    line = reader.readLine();
+                    lineNumber++;
+                } while (line != null && !stripComment(line).equalsIgnoreCase(ARRIVALS_SECTION));
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            remaining = 0; // Drop the rest of the directive being expanded
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (remaining == 0) {
+                if (closed) {
+                    return false;
+                }
+                if (!readDirective()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Scenario.Arrival next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            planeNumber++;
+            if (directive.equals("poisson")) {
+                clock += Math.round(-Math.log(1 - rand.nextDouble()) * 3_600_000 / ratePerHour);
+            }
+            String planeID = options.get("id");
+            if (planeID == null) {
+                planeID = "P" + planeNumber;
+            } else if (!explicitIDs.add(planeID)) {
+                throw new IllegalArgumentException(file + ":" + lineNumber + ": plane id " + planeID + " is used more than once");
+            }
+            int planeCount = passengers[0] + rand.nextInt(passengers[1] - passengers[0] + 1);
+            Scenario.Arrival arrival = new Scenario.Arrival(clock, planeID, planeCount, priority);
+
+            if (options.containsKey("gap")) {
+                int[] gap = AirportConfig.range(options.get("gap"));
+                clock += gap[0] + rand.nextInt(gap[1] - gap[0] + 1);
+            }
+            return arrival;
+        }
+
+        // Parse the next directive line, false at end of file
+        private boolean readDirective() {
+            String line;
+            try {
+                do {
+                    line = reader.readLine();
+                    lineNumber++;
+                    if (line == null) {
+                        close();
+                        return false;
+                    }
+                    line = stripComment(line);
+                } while (line.isEmpty());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            String[] tokens = line.split("\\s+");
+            directive = tokens[0].toLowerCase(Locale.ROOT);
+            options = new HashMap<>();
+            for (int i = 1; i < tokens.length; i++) {
+                int equals = tokens[i].indexOf('=');
+                options.put(equals < 0 ? "value" : tokens[i].substring(0, equals), equals < 0 ? tokens[i] : tokens[i].substring(equals + 1));
+            }
+            passengers = AirportConfig.range(options.getOrDefault("passengers", DEFAULT_PASSENGERS));
+            String id = options.get("id");
+            if (id != null && GENERATED_ID.matcher(id).matches()) {
+                throw new IllegalArgumentException(file + ":" + lineNumber + ": plane id " + id +
+                        " is reserved for planes without an id");
+            }
+            priority = parsePriority(options.getOrDefault("priority", directive.equals("emergency") ? "fuel-critical" : "normal"));
+
+            switch (directive) {
+                case "poisson":
+                    // A rate of 0 would put the next plane infinitely far away
+                    ratePerHour = Double.parseDouble(require("rate"));
+                    if (!(ratePerHour > 0) || Double.isInfinite(ratePerHour)) {
+                        throw new IllegalArgumentException(file + ":" + lineNumber + ": poisson rate must be above 0, got: " +
+                                options.get("rate"));
+                    }
+                    remaining = count();
+                    break;
+                case "uniform":
+                case "burst":
+                    remaining = count();
+                    break;
+                case "emergency":
+                case "arrival":
+                    remaining = 1;
+                    break;
+                case "wait":
+                    long wait = Long.parseLong(require("value"));
+                    if (wait < 0) {
+                        throw new IllegalArgumentException(file + ":" + lineNumber + ": wait must not be negative, got: " + wait);
+                    }
+                    clock += wait;
+                    remaining = 0;
+                    break;
+                case "at":
+                    clock = Math.max(clock, Long.parseLong(require("value")));
+                    remaining = 0;
+                    break;
+                default:
+                    throw new IllegalArgumentException(file + ":" + lineNumber + ": unknown directive: " + directive);
+            }
+            return true;
+        }
+
+        private int count() {
+            int count = Integer.parseInt(require("count"));
+            if (count < 0) {
+                throw new IllegalArgumentException(file + ":" + lineNumber + ": " + directive + " count must not be negative, got: " + count);
+            }
+            return count;
+        }
+
+        private String require(String option) {
+            String value = options.get(option);
+            if (value == null) {
+                throw new IllegalArgumentException(file + ":" + lineNumber + ": " + directive + " needs " + option);
+            }
+            return value;
+        }
+
+        private LandingPriority parsePriority(String name) {
+            switch (name.toLowerCase(Locale.ROOT)) {
+                case "fuel-critical":
+                    return LandingPriority.FUEL_CRITICAL;
+                case "medical":
+                    return LandingPriority.MEDICAL;
+                case "normal":
+                    return LandingPriority.NORMAL;
+                default:
+                    throw new IllegalArgumentException(file + ":" + lineNumber + ": unknown priority: " + name);
+            }
+        }
+    }
+}
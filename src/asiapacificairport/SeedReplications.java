@@ -0,0 +1,174 @@
+package asiapacificairport;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Runs one scenario in discrete-event mode for many consecutive seeds in parallel and reports the mean
+// and a 95% confidence interval of throughput and waiting, so a change can be told apart from the noise
+// of a single day. Each run is single-threaded on a virtual clock and shares nothing with the others, so
+// a seed gives the same timeline whatever thread runs it; the first seed is rerun at the end to check.
+//
+//   java asiapacificairport.SeedReplications [--scenario=file] [--seed=S] [--runs=N] [--threads=N]
+//                                           [--planes=N] [--set key=value]...
+public class SeedReplications {
+    // Two-sided 95% Student t critical values for 1..30 degrees of freedom, the normal 1.96 beyond
+    private static final double[] T_95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    // The figures of one seed's run
+    static final class Run {
+        private final long seed;
+        private final int planesServed;
+        private final long simulationTime;
+        private final long averageWait;
+        private final long p95Wait;
+        private final long maxWait;
+        private final long averageTurnaround;
+        private final long diversions;
+        private final long fingerprint; // Changes if anything in the timeline does
+
+        Run(long seed, AirportStatistics statistics, long simulationTime) {
+            this.seed = seed;
+            this.planesServed = statistics.getPlanesServed();
+            this.simulationTime = simulationTime;
+            this.averageWait = statistics.getWaitingTimes().getMean();
+            this.p95Wait = statistics.getWaitingTimes().getPercentile(0.95);
+            this.maxWait = statistics.getWaitingTimes().getMax();
+            this.averageTurnaround = statistics.getTurnaroundTimes().getMean();
+            this.diversions = statistics.getDiversions();
+            long hash = simulationTime;
+            for (long value : new long[]{planesServed, statistics.getWaitingTimes().getTotal(), maxWait,
+                    statistics.getTurnaroundTimes().getTotal(), statistics.getGateOccupancy().getTotal(),
+                    statistics.getRunwayOccupancy().getTotal(), statistics.getTotalWeatherHoldTime(), diversions,
+                    statistics.getMaxLandingQueue()}) {
+                hash = hash * 31 + value;
+            }
+            this.fingerprint = hash;
+        }
+
+        long getSeed() {
+            return seed;
+        }
+
+        long getFingerprint() {
+            return fingerprint;
+        }
+
+        // Planes served per hour of simulated time
+        double getThroughput() {
+            return planesServed * 3_600_000.0 / Math.max(1, simulationTime);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        CommandLine commandLine = new CommandLine(args);
+        String scenarioFile = commandLine.getString("scenario", null);
+        long seed = commandLine.getLong("seed", 1);
+        int runs = commandLine.getInt("runs", 30);
+        int threads = commandLine.getInt("threads", Runtime.getRuntime().availableProcessors());
+        int planes = commandLine.getInt("planes", 200);
+        Map<String, String> overrides = commandLine.getOverrides();
+        commandLine.finish();
+        if (runs < 2) {
+            throw new IllegalArgumentException("A confidence interval needs at least 2 runs");
+        }
+
+        Scenario base = (scenarioFile != null)
+                ? ScenarioLoader.load(Paths.get(scenarioFile), seed)
+                : new Scenario(seed, planes);
+        Scenario scenario = base.withConfig(base.getConfig().with(overrides));
+        long firstSeed = scenario.getSeed();
+
+        System.out.println("*** Seed Replications (" + (scenarioFile != null ? scenarioFile : planes + " planes") +
+                ", seeds " + firstSeed + ".." + (firstSeed + runs - 1) + ", " + threads + " threads) ***");
+        long startTime = System.nanoTime();
+        List<Run> results = replicate(scenario, runs, threads);
+        long wallTime = (System.nanoTime() - startTime) / 1_000_000;
+
+        System.out.printf("%20s %7s %12s %12s %10s %10s %10s %14s %9s%n", "Seed", "Planes", "Sim time",
+                "Planes/hour", "Avg wait", "p95 wait", "Max wait", "Avg turnaround", "Diverted");
+        for (Run run : results) {
+            System.out.printf("%20d %7d %9d ms %12.1f %7d ms %7d ms %7d ms %11d ms %9d%n", run.seed, run.planesServed,
+                    run.simulationTime, run.getThroughput(), run.averageWait, run.p95Wait, run.maxWait,
+                    run.averageTurnaround, run.diversions);
+        }
+
+        System.out.println("\n--- Mean and 95% Confidence Interval over " + runs + " seeds ---");
+        printInterval("Throughput (planes/hour)", results, r -> r.getThroughput());
+        printInterval("Average wait (ms)", results, r -> r.averageWait);
+        printInterval("p95 wait (ms)", results, r -> r.p95Wait);
+        printInterval("Max wait (ms)", results, r -> r.maxWait);
+        printInterval("Average turnaround (ms)", results, r -> r.averageTurnaround);
+
+        // Same seed, another thread, after every other run: any hidden shared state or dependence on
+        // scheduling would show up as a different timeline
+        Run rerun = run(scenario.withSeed(firstSeed));
+        System.out.println("\nReproducible: " + (rerun.fingerprint == results.get(0).fingerprint
+                ? "YES, seed " + firstSeed + " rerun gives the identical timeline"
+                : "NO, seed " + firstSeed + " gave a different timeline on rerun"));
+        System.out.println(runs + " runs in " + wallTime + " ms wall time");
+    }
+
+    // One run for each of the seeds from the scenario's onwards on a pool of the given size, in seed order
+    static List<Run> replicate(Scenario scenario, int runs, int threads) throws InterruptedException, ExecutionException {
+        List<Run> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<Run>> futures = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                Scenario replica = scenario.withSeed(scenario.getSeed() + i);
+                futures.add(executor.submit(() -> run(replica)));
+            }
+            for (Future<Run> future : futures) {
+                results.add(future.get()); // In seed order, whatever order they finished in
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return results;
+    }
+
+    static Run run(Scenario scenario) {
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(scenario);
+        AirportStatistics statistics = simulation.run();
+        return new Run(scenario.getSeed(), statistics, simulation.getSimulationTime());
+    }
+
+    private interface Metric {
+        double of(Run run);
+    }
+
+    // Mean +/- half-width of the t interval, with the sample standard deviation and the range
+    private static void printInterval(String name, List<Run> results, Metric metric) {
+        int n = results.size();
+        double sum = 0;
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for (Run run : results) {
+            double value = metric.of(run);
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        double mean = sum / n;
+        double squares = 0;
+        for (Run run : results) {
+            double deviation = metric.of(run) - mean;
+            squares += deviation * deviation;
+        }
+        double deviation = Math.sqrt(squares / (n - 1));
+        double halfWidth = (n - 1 <= T_95.length ? T_95[n - 2] : 1.96) * deviation / Math.sqrt(n);
+        System.out.printf("%-24s %10.1f +/- %8.1f  (%.1f .. %.1f), sd %.1f, range %.1f .. %.1f%n", name, mean, halfWidth,
+                mean - halfWidth, mean + halfWidth, deviation, min, max);
+    }
+}
@@ -0,0 +1,310 @@
+package asiapacificairport;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Time series of an airport's load: landing queue depth, planes held by arrival metering, occupied gates,
+// planes on the ground, occupied runways and the weather, sampled every sample-interval ms. Samples go into
+// primitive ring buffers that keep the latest sample-capacity of them, allocated only when sampling is on.
+// There is a single writer (the sampler thread, or the simulation's event loop), which publishes each
+// sample by bumping the count, so snapshots can be taken at any time without stopping it: like a
+// StampedLock read, a snapshot copies optimistically and then checks the count to see what was rewritten.
+public class UtilisationSampler {
+    private static final int MAX_PRINTED_WINDOWS = 5;
+
+    private final int capacity;
+    private final long interval;
+    private final long[] times;
+    private final int[] queueDepth;
+    private final int[] holding;
+    private final int[] gatesOccupied;
+    private final int[] planesOnGround;
+    private final int[] runwaysOccupied;
+    private final byte[] weather;
+    private final int gates;
+    private final AtomicLong count = new AtomicLong(); // Samples ever written, the ring index is count % capacity
+    private volatile Thread samplerThread;
+
+    // The readings that make up one sample
+    public interface Source {
+        void sample(UtilisationSampler sampler);
+    }
+
+    // A run of consecutive samples with every gate taken and planes still waiting
+    public static final class CongestionWindow {
+        private final long start;
+        private final long end;
+        private final int peakQueue;
+
+        CongestionWindow(long start, long end, int peakQueue) {
+            this.start = start;
+            this.end = end;
+            this.peakQueue = peakQueue;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+
+        public long getLength() {
+            return end - start;
+        }
+
+        public int getPeakQueue() {
+            return peakQueue;
+        }
+    }
+
+    public UtilisationSampler(AirportConfig config) {
+        this(config.getSampleInterval() > 0 ? config.getSampleCapacity() : 0, config.getSampleInterval(), config.getGates());
+    }
+
+    private UtilisationSampler(int capacity, long interval, int gates) {
+        this.capacity = capacity;
+        this.interval = interval;
+        this.gates = gates;
+        this.times = new long[capacity];
+        this.queueDepth = new int[capacity];
+        this.holding = new int[capacity];
+        this.gatesOccupied = new int[capacity];
+        this.planesOnGround = new int[capacity];
+        this.runwaysOccupied = new int[capacity];
+        this.weather = new byte[capacity];
+    }
+
+    // ms between samples
+    public long getInterval() {
+        return interval;
+    }
+
+    // Append one sample, time in ms since the start of the run; single writer only, nothing if sampling is off
+    public void record(long time, int queue, int held, int gatesInUse, int onGround, int runwaysInUse,
+                       Weather.WeatherCondition condition) {
+        if (capacity == 0) {
+            return;
+        }
+        long sample = count.get();
+        int slot = (int) (sample % capacity);
+        // A reader that sees any of the stores below also sees the count published before them
+        VarHandle.storeStoreFence();
+        times[slot] = time;
+        queueDepth[slot] = queue;
+        holding[slot] = held;
+        gatesOccupied[slot] = gatesInUse;
+        planesOnGround[slot] = onGround;
+        runwaysOccupied[slot] = runwaysInUse;
+        weather[slot] = (byte) condition.ordinal();
+        count.lazySet(sample + 1); // Publishes the slot to snapshot readers
+    }
+
+    // Sample the source every interval on a daemon thread until stop()
+    public void start(String name, Source source) {
+        Thread thread = new Thread(() -> {
+            try {
+                long next = System.currentTimeMillis();
+                while (samplerThread == Thread.currentThread()) {
+                    source.sample(this);
+                    next += interval;
+                    long delay = next - System.currentTimeMillis();
+                    if (delay > 0) {
+                        Thread.sleep(delay);
+                    } else {
+                        next = System.currentTimeMillis(); // Fell behind, e.g. a GC pause: skip the missed samples
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Stopped
+            }
+        }, "Sampler " + name);
+        thread.setDaemon(true);
+        samplerThread = thread;
+        thread.start();
+    }
+
+    // Stop the sampler thread and wait for its last sample
+    public void stop() {
+        Thread thread = samplerThread;
+        samplerThread = null;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Samples currently retained
+    public int size() {
+        return (int) Math.min(count.get(), capacity);
+    }
+
+    // Samples ever taken, including those the ring has overwritten
+    public long getSamplesTaken() {
+        return count.get();
+    }
+
+    // Copy of the retained samples, oldest first. Safe while the writer is running: samples it overwrote
+    // during the copy, and the oldest one it may be overwriting right now, are dropped from the front
+    public UtilisationSampler snapshot() {
+        UtilisationSampler copy = new UtilisationSampler(capacity, interval, gates);
+        long end = count.get();
+        long first = Math.max(0, end - capacity);
+        int copied = 0;
+        for (long sample = first; sample < end; sample++, copied++) {
+            int slot = (int) (sample % capacity);
+            copy.times[copied] = times[slot];
+            copy.queueDepth[copied] = queueDepth[slot];
+            copy.holding[copied] = holding[slot];
+            copy.gatesOccupied[copied] = gatesOccupied[slot];
+            copy.planesOnGround[copied] = planesOnGround[slot];
+            copy.runwaysOccupied[copied] = runwaysOccupied[slot];
+            copy.weather[copied] = weather[slot];
+        }
+        copy.count.set(copied);
+        VarHandle.acquireFence(); // The copy is read before the count is checked again
+        long oldestIntact = count.get() - capacity + 1; // The writer may be inside the slot of the one before
+        int overwritten = (int) Math.max(0, oldestIntact - first);
+        if (overwritten > 0) {
+            copy.dropOldest(Math.min(overwritten, copy.size()));
+        }
+        return copy;
+    }
+
+    // Only used on an unshared snapshot, where samples sit in order from slot 0
+    private void dropOldest(int dropped) {
+        int kept = size() - dropped;
+        System.arraycopy(times, dropped, times, 0, kept);
+        System.arraycopy(queueDepth, dropped, queueDepth, 0, kept);
+        System.arraycopy(holding, dropped, holding, 0, kept);
+        System.arraycopy(gatesOccupied, dropped, gatesOccupied, 0, kept);
+        System.arraycopy(planesOnGround, dropped, planesOnGround, 0, kept);
+        System.arraycopy(runwaysOccupied, dropped, runwaysOccupied, 0, kept);
+        System.arraycopy(weather, dropped, weather, 0, kept);
+        count.set(kept);
+    }
+
+    // Congestion windows in the retained samples, longest first: every gate occupied and planes queued
+    public List<CongestionWindow> findCongestionWindows() {
+        return snapshot().congestionWindows();
+    }
+
+    // Only used on an unshared snapshot
+    private List<CongestionWindow> congestionWindows() {
+        List<CongestionWindow> windows = new ArrayList<>();
+        int start = -1;
+        int peak = 0;
+        for (int i = 0; i <= size(); i++) {
+            boolean congested = i < size() && gatesOccupied[i] >= gates && queueDepth[i] > 0;
+            if (congested) {
+                if (start < 0) {
+                    start = i;
+                    peak = 0;
+                }
+                peak = Math.max(peak, queueDepth[i]);
+            } else if (start >= 0) {
+                windows.add(new CongestionWindow(times[start], times[i - 1] + interval, peak));
+                start = -1;
+            }
+        }
+        windows.sort((a, b) -> Long.compare(b.getLength(), a.getLength()));
+        return windows;
+    }
+
+    // Write the retained samples as CSV, or as JSON if the file name ends in .json
+    public void export(Path file) throws IOException {
+        UtilisationSampler samples = snapshot();
+        boolean json = file.getFileName().toString().endsWith(".json");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            if (json) {
+                samples.writeJson(out);
+            } else {
+                samples.writeCsv(out);
+            }
+        }
+    }
+
+    private void writeCsv(PrintWriter out) {
+        out.println("time_ms,queue_depth,metered_holding,gates_occupied,planes_on_ground,runways_occupied,weather");
+        for (int i = 0; i < size(); i++) {
+            out.println(times[i] + "," + queueDepth[i] + "," + holding[i] + "," + gatesOccupied[i] + "," +
+                    planesOnGround[i] + "," + runwaysOccupied[i] + "," + Weather.WeatherCondition.values()[weather[i]]);
+        }
+    }
+
+    // Column-oriented, one array per series, so plotting tools can take them as they are
+    private void writeJson(PrintWriter out) {
+        out.println("{");
+        out.println("  \"intervalMs\": " + interval + ",");
+        out.println("  \"gates\": " + gates + ",");
+        writeJsonSeries(out, "timeMs", times, null);
+        writeJsonSeries(out, "queueDepth", null, queueDepth);
+        writeJsonSeries(out, "meteredHolding", null, holding);
+        writeJsonSeries(out, "gatesOccupied", null, gatesOccupied);
+        writeJsonSeries(out, "planesOnGround", null, planesOnGround);
+        writeJsonSeries(out, "runwaysOccupied", null, runwaysOccupied);
+        StringBuilder line = new StringBuilder("  \"weather\": [");
+        for (int i = 0; i < size(); i++) {
+            line.append(i > 0 ? ", \"" : "\"").append(Weather.WeatherCondition.values()[weather[i]]).append('"');
+        }
+        out.println(line.append("]"));
+        out.println("}");
+    }
+
+    private void writeJsonSeries(PrintWriter out, String name, long[] longs, int[] ints) {
+        StringBuilder line = new StringBuilder("  \"").append(name).append("\": [");
+        for (int i = 0; i < size(); i++) {
+            if (i > 0) {
+                line.append(", ");
+            }
+            line.append(longs != null ? longs[i] : ints[i]);
+        }
+        out.println(line.append("],"));
+    }
+
+    // Report section: peaks, averages and the longest congestion windows
+    public void printSummary() {
+        UtilisationSampler samples = snapshot();
+        if (samples.size() == 0) {
+            return;
+        }
+        long queueTotal = 0;
+        long gatesTotal = 0;
+        long runwaysTotal = 0;
+        int peakQueue = 0;
+        long peakQueueTime = 0;
+        for (int i = 0; i < samples.size(); i++) {
+            queueTotal += samples.queueDepth[i];
+            gatesTotal += samples.gatesOccupied[i];
+            runwaysTotal += samples.runwaysOccupied[i];
+            if (samples.queueDepth[i] > peakQueue) {
+                peakQueue = samples.queueDepth[i];
+                peakQueueTime = samples.times[i];
+            }
+        }
+        System.out.println("\n--- Utilisation Samples ---");
+        System.out.println("Samples: " + samples.size() + " every " + interval + " ms" +
+                (getSamplesTaken() > samples.size() ? " (latest " + samples.size() + " of " + getSamplesTaken() + ")" : ""));
+        System.out.printf("Landing queue: average %.1f, peak %d at %d ms%n", (double) queueTotal / samples.size(), peakQueue, peakQueueTime);
+        System.out.printf("Gates occupied: average %.1f of %d, runways occupied: average %.2f%n",
+                (double) gatesTotal / samples.size(), gates, (double) runwaysTotal / samples.size());
+        List<CongestionWindow> windows = samples.congestionWindows();
+        System.out.println("Congestion windows (all gates taken, planes queued): " + windows.size());
+        for (int i = 0; i < Math.min(MAX_PRINTED_WINDOWS, windows.size()); i++) {
+            CongestionWindow window = windows.get(i);
+            System.out.println("  " + window.getStart() + " - " + window.getEnd() + " ms (" + window.getLength() +
+                    " ms, queue up to " + window.getPeakQueue() + ")");
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package asiapacificairport;
 
-import java.util.Random;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 
 public class Weather extends Thread {
@@ -24,97 +23,162 @@ public class Weather extends Thread {
     }
 
     // Weather state variables
-    private static volatile WeatherCondition currentWeather = WeatherCondition.SUNNY;
-    private static final Random rand = new Random();
+    private final AirportConfig config; // Weather delays and lead times
+    private final AirportStatistics statistics; // Receives every hold
+    private volatile WeatherCondition currentWeather = WeatherCondition.SUNNY;
+    private final WeatherForecast forecast;
+    private final LockMonitor lockMonitor;
+    private volatile RunJournal journal; // Weather changes and holds, null if the run is not journaled
+
+    // Forecast of the running weather thread and when it started, guarded by weatherLock
+    private WeatherForecast activeForecast;
+    private long forecastStart;
+    private volatile long startTime = -1; // Time zero of the timeline, -1 to start it when the thread starts
 
     // Locks and conditions for weather changes
-    private static final ReentrantLock weatherLock = new ReentrantLock();
-    private static final Condition weatherChange = weatherLock.newCondition();
-    private static volatile boolean weatherChangeInProgress = false;
+    private final MonitoredLock weatherLock;
+    private final Condition weatherChange;
 
-    // Weather check delays based on condition
-    private static final int RAINY_DELAY = 4000; // 4 seconds
-    private static final int SNOWY_DELAY = 4000; // 4 seconds
-    private static final int THUNDERSTORM_DELAY = 7000; // 7 seconds
-    private static final int NO_DELAY = 0; // No delay for sunny weather
+    // Random weather with the default timings, drawn from the seed like a scenario's
+    public Weather(long seed) {
+        this(AirportConfig.defaults(), new AirportStatistics(), seed);
+    }
+
+    public Weather(AirportConfig config, AirportStatistics statistics, long seed) {
+        this("APA", config, statistics, new Scenario(seed, 0).withConfig(config).weatherForecast(),
+                new LockMonitor("APA", 0));
+    }
+
+    // Replay a timeline over the airport with the given code and publish its forecast to the landing
+    // and departure holds; holds are recorded in the airport's statistics, waits reported to its lock monitor
+    public Weather(String airportCode, AirportConfig config, AirportStatistics statistics, WeatherForecast forecast,
+                   LockMonitor lockMonitor) {
+        super("Weather " + airportCode);
+        this.config = config;
+        this.statistics = statistics;
+        this.forecast = forecast;
+        this.lockMonitor = lockMonitor;
+        this.weatherLock = new MonitoredLock(airportCode + " weatherLock", lockMonitor);
+        this.weatherChange = weatherLock.newCondition(airportCode + " weatherChange");
+    }
+
+    public void setJournal(RunJournal journal) {
+        this.journal = journal;
+    }
+
+    // Replay the timeline from the given time rather than from when the thread starts, so that its changes
+    // line up with arrivals scheduled from the same time. Set before start()
+    void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
 
     // Get current weather condition
-    public static WeatherCondition getCurrentWeather() {
+    public WeatherCondition getCurrentWeather() {
         return currentWeather;
     }
 
     // Check if weather permits immediate landing or departure
-    public static boolean isFavorableWeather() {
+    public boolean isFavorableWeather() {
         return currentWeather == WeatherCondition.SUNNY;
     }
 
     // Get delay time based on current weather
-    public static int getWeatherDelay() {
-        switch (currentWeather) {
-            case RAINY:
-                return RAINY_DELAY;
-            case SNOWY:
-                return SNOWY_DELAY;
-            case THUNDERSTORM:
-                return THUNDERSTORM_DELAY;
-            default:
-                return NO_DELAY;
-        }
+    public int getWeatherDelay() {
+        return getWeatherDelay(currentWeather);
+    }
+
+    // Get delay time for a given condition (4s rain/snow, 7s thunderstorm unless configured)
+    public int getWeatherDelay(WeatherCondition condition) {
+        return config.getWeatherDelay(condition);
     }
 
     // Wait for weather if necessary (for landing)
-    public static void waitForWeatherLanding(String planeID, boolean isEmergency) throws InterruptedException {
-        weatherLock.lock();
-        try {
-            if (!isFavorableWeather() && !isEmergency) {
-                int delay = getWeatherDelay();
-                System.out.println("ATC     : Plane " + planeID + " holding position due to " + currentWeather +
-                        " weather for " + (delay/1000) + " seconds");
-                Thread.sleep(delay);
-                System.out.println("ATC     : Plane " + planeID + " cleared to land after weather delay");
-            }
-        } finally {
-            weatherLock.unlock();
+    public void waitForWeatherLanding(String planeID, boolean isEmergency) throws InterruptedException {
+        if (isFavorableWeather() || isEmergency) {
+            return;
         }
+        WeatherCondition holdingFor = currentWeather;
+        int delay = config.getWeatherDelay(holdingFor);
+        AirportLog.log(() -> "ATC     : Plane " + planeID + " holding position due to " + holdingFor +
+                " weather for up to " + (delay/1000) + " seconds");
+        long held = holdForWeather(planeID, delay, config.getLandingTime());
+        AirportLog.log(() -> "ATC     : Plane " + planeID + " cleared to land after " + held + "ms weather hold");
     }
 
     // Wait for weather if necessary (for departure)
-    public static void waitForWeatherDeparture(String planeID) throws InterruptedException {
+    public void waitForWeatherDeparture(String planeID) throws InterruptedException {
+        if (isFavorableWeather()) {
+            return;
+        }
+        WeatherCondition holdingFor = currentWeather;
+        int delay = config.getWeatherDelay(holdingFor);
+        AirportLog.log(() -> "ATC     : Plane " + planeID + " departure delayed due to " + holdingFor +
+                " weather for up to " + (delay/1000) + " seconds");
+        long held = holdForWeather(planeID, delay, config.getUndockTime() + config.getCoastToRunwayTime());
+        AirportLog.log(() -> "ATC     : Plane " + planeID + " cleared for departure after " + held + "ms weather hold");
+    }
+
+    // Hold until the weather turns favorable or the delay runs out, whichever comes first.
+    // awaitNanos releases weatherLock, so any number of planes hold at once and are released together.
+    // When the weather changes to a milder condition the hold is cut to that condition's delay, counted
+    // from the start of the hold, so a plane held for a thunderstorm that turns to rain waits no longer
+    // than one held for the rain. When the forecast sees the weather clear within the delay, the plane
+    // is released leadTime ms early so that it reaches the runway just as it clears.
+    private long holdForWeather(String planeID, int delay, long leadTime) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        long token = lockMonitor.beginWait(planeID, "weather hold");
         weatherLock.lock();
         try {
-            if (!isFavorableWeather()) {
-                int delay = getWeatherDelay();
-                System.out.println("ATC     : Plane " + planeID + " departure delayed due to " + currentWeather +
-                        " weather for " + (delay/1000) + " seconds");
-                Thread.sleep(delay);
-                System.out.println("ATC     : Plane " + planeID + " cleared for departure after weather delay");
+            long maxHold = delay;
+            if (activeForecast != null && activeForecast.getHorizon() > 0) {
+                long clearsAt = activeForecast.clearsAt(start - forecastStart);
+                if (clearsAt != Long.MAX_VALUE && forecastStart + clearsAt - start <= delay) {
+                    maxHold = Math.max(0, forecastStart + clearsAt - start - leadTime);
+                }
+            }
+            long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(maxHold);
+            WeatherCondition heldFor = currentWeather;
+            while (!isFavorableWeather()) {
+                if (currentWeather != heldFor) {
+                    heldFor = currentWeather;
+                    deadline = Math.min(deadline, startNanos + TimeUnit.MILLISECONDS.toNanos(getWeatherDelay(heldFor)));
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                weatherChange.awaitNanos(remaining);
             }
         } finally {
             weatherLock.unlock();
+            lockMonitor.endWait(token);
         }
+        long held = System.currentTimeMillis() - start;
+        statistics.recordWeatherHold(held);
+        RunJournal journal = this.journal;
+        if (journal != null) {
+            journal.record(RunJournal.Type.WEATHER_HOLD, -1, start + held, -1, (int) held);
+        }
+        return held;
     }
 
-    // Change weather with notification
-    private void changeWeather() {
+    // Change weather and wake every plane holding for it
+    void changeWeather(WeatherCondition newWeather) {
         weatherLock.lock();
         try {
-            // Select new weather randomly
-            WeatherCondition newWeather;
-            do {
-                newWeather = WeatherCondition.values()[rand.nextInt(WeatherCondition.values().length)];
-            } while (newWeather == currentWeather); // Ensure weather actually changes
-
-            weatherChangeInProgress = true;
-
             // Print divider and weather change notification
-            System.out.println("\n-----Weather Update: " + newWeather + "-----\n");
+            AirportLog.log(() -> "\n-----Weather Update: " + newWeather + "-----\n");
 
             // Update current weather
             currentWeather = newWeather;
+            RunJournal journal = this.journal;
+            if (journal != null) {
+                journal.record(RunJournal.Type.WEATHER, -1, System.currentTimeMillis(), -1, newWeather.ordinal());
+            }
 
             // Signal all waiting threads
             weatherChange.signalAll();
-            weatherChangeInProgress = false;
         } finally {
             weatherLock.unlock();
         }
@@ -122,18 +186,40 @@ public class Weather extends Thread {
 
     @Override
     public void run() {
+        weatherLock.lock();
+        try {
+            activeForecast = forecast;
+            forecastStart = (startTime >= 0) ? startTime : System.currentTimeMillis();
+        } finally {
+            weatherLock.unlock();
+        }
+        long changeDue = forecastStart;
         try {
             while (!Thread.currentThread().isInterrupted()) {
-                // Sleep for random time between 4-7 seconds
-                int sleepTime = 4000 + rand.nextInt(3000);
-                Thread.sleep(sleepTime);
+                // Sleep until the next scheduled change (4-7 seconds apart by default). Each change is due at a
+                // fixed offset from the start, like DiscreteEventSimulation's, so oversleeping never accumulates
+                WeatherTimeline.Change change;
+                weatherLock.lock();
+                try {
+                    change = forecast.next();
+                } finally {
+                    weatherLock.unlock();
+                }
+                if (change == null) {
+                    return; // Weather stays as it is for the rest of the run
+                }
+                changeDue += change.getDelayBefore();
+                long delay = changeDue - System.currentTimeMillis();
+                if (delay > 0) {
+                    Thread.sleep(delay);
+                }
 
                 // Change weather
-                changeWeather();
+                changeWeather(change.getCondition());
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            System.out.println("Weather monitoring interrupted");
+            AirportLog.log("Weather monitoring interrupted");
         }
     }
 }
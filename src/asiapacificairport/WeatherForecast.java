@@ -0,0 +1,98 @@
+package asiapacificairport;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+// Forecast of the coming weather, read ahead from the same WeatherTimeline that drives the actual
+// changes, so forecast and weather always agree. Times are ms since the start of the run. Weather holds
+// ask when the weather clears, horizon ms ahead at most; a horizon of 0 means no forecast and every
+// query sees only the present. A hold never lasts longer than its condition's delay, so a horizon past
+// the longest delay sees nothing more that matters.
+// Not thread-safe, the threaded mode guards it with Weather's weatherLock.
+public class WeatherForecast {
+    private final WeatherTimeline timeline;
+    private final long horizon;
+    private final ArrayDeque<Entry> pending = new ArrayDeque<>(); // Read ahead, not handed to the driver yet
+    private final ArrayDeque<Entry> known = new ArrayDeque<>(); // From the condition in effect at the last query on
+    private long lastReadTime = 0;
+    private long lastHandedTime = 0;
+    private boolean exhausted = false;
+
+    // A condition starting at an absolute time
+    private static final class Entry {
+        private final long time;
+        private final Weather.WeatherCondition condition;
+
+        Entry(long time, Weather.WeatherCondition condition) {
+            this.time = time;
+            this.condition = condition;
+        }
+    }
+
+    public WeatherForecast(WeatherTimeline timeline, long horizon) {
+        this.timeline = timeline;
+        this.horizon = horizon;
+        known.add(new Entry(0, Weather.WeatherCondition.SUNNY));
+    }
+
+    public long getHorizon() {
+        return horizon;
+    }
+
+    // Next actual change for the weather driver, same as WeatherTimeline.next()
+    public WeatherTimeline.Change next() {
+        if (pending.isEmpty() && !readAhead()) {
+            return null;
+        }
+        Entry entry = pending.poll();
+        WeatherTimeline.Change change = new WeatherTimeline.Change(entry.time - lastHandedTime, entry.condition);
+        lastHandedTime = entry.time;
+        return change;
+    }
+
+    // Earliest time from now on at which the weather is sunny, Long.MAX_VALUE if not within the horizon
+    public long clearsAt(long now) {
+        readUntil(now + horizon);
+        // Entries that are no longer in effect are never needed again, queries only move forward in time
+        while (known.size() > 1 && secondKnown().time <= now) {
+            known.poll();
+        }
+        Iterator<Entry> entries = known.iterator();
+        Entry entry = entries.next(); // In effect right now
+        while (entry != null && entry.time <= now + horizon) {
+            if (entry.condition == Weather.WeatherCondition.SUNNY) {
+                return Math.max(now, entry.time);
+            }
+            entry = entries.hasNext() ? entries.next() : null;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private Entry secondKnown() {
+        Iterator<Entry> entries = known.iterator();
+        entries.next();
+        return entries.next();
+    }
+
+    // Read the timeline ahead until the forecast covers the given time
+    private void readUntil(long until) {
+        while (!exhausted && lastReadTime <= until && readAhead()) {
+            // Keep reading
+        }
+    }
+
+    private boolean readAhead() {
+        WeatherTimeline.Change change = timeline.next();
+        if (change == null) {
+            exhausted = true;
+            return false;
+        }
+        lastReadTime += change.getDelayBefore();
+        Entry entry = new Entry(lastReadTime, change.getCondition());
+        pending.add(entry);
+        if (horizon > 0) {
+            known.add(entry);
+        }
+        return true;
+    }
+}
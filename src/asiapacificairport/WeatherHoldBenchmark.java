@@ -0,0 +1,68 @@
+package asiapacificairport;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Aggregate weather hold time for planes caught in a thunderstorm that clears after IMPROVE_AFTER ms.
+// Compares the original sleep-under-weatherLock hold, a plain fixed sleep, and the condition-based hold.
+public class WeatherHoldBenchmark {
+    private static final int DEFAULT_PLANES = 3;
+    private static final int IMPROVE_AFTER = 2000; // Thunderstorm clears after 2 seconds
+    private static final Weather weather = new Weather(42); // Changed by hand, its thread is never started
+
+    public static void main(String[] args) throws InterruptedException {
+        int planes = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PLANES;
+        int delay = weather.getWeatherDelay(Weather.WeatherCondition.THUNDERSTORM);
+        ReentrantLock serialLock = new ReentrantLock();
+
+        AirportLog.setQuiet(true); // Silence ATC chatter while measuring
+
+        long serialized = run(planes, () -> {
+            serialLock.lock();
+            try {
+                Thread.sleep(delay); // Original behaviour: every hold queued behind weatherLock
+            } finally {
+                serialLock.unlock();
+            }
+        });
+        long fixed = run(planes, () -> Thread.sleep(delay));
+        long gated = run(planes, () -> weather.waitForWeatherLanding("Bench", false));
+
+        AirportLog.setQuiet(false);
+        System.out.println("*** Weather Hold Benchmark (" + planes + " planes, thunderstorm clears after " + IMPROVE_AFTER + "ms) ***");
+        System.out.println("Sleep under weatherLock : aggregate hold " + serialized + " ms");
+        System.out.println("Fixed sleep outside lock: aggregate hold " + fixed + " ms");
+        System.out.println("Condition-based hold    : aggregate hold " + gated + " ms");
+    }
+
+    private interface Hold {
+        void hold() throws InterruptedException;
+    }
+
+    // Start a thunderstorm, let every plane hold concurrently, clear the weather and sum the hold times
+    private static long run(int planes, Hold hold) throws InterruptedException {
+        weather.changeWeather(Weather.WeatherCondition.THUNDERSTORM);
+        AtomicLong totalHold = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(planes);
+
+        for (int i = 0; i < planes; i++) {
+            new Thread(() -> {
+                long start = System.currentTimeMillis();
+                try {
+                    hold.hold();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    totalHold.addAndGet(System.currentTimeMillis() - start);
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        Thread.sleep(IMPROVE_AFTER);
+        weather.changeWeather(Weather.WeatherCondition.SUNNY);
+        done.await();
+        return totalHold.get();
+    }
+}
@@ -0,0 +1,56 @@
+package asiapacificairport;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+// Replays one scenario in discrete-event mode without weather, then with its weather at each forecast
+// horizon, and reports the throughput lost to weather. Horizon 0 is the reactive airport; with a
+// forecast, held planes are released early enough to reach the runway as the weather clears. Only
+// clearing within a hold counts, so horizons beyond the longest weather delay all give the same row.
+//
+//   java asiapacificairport.WeatherLookaheadComparison [--scenario=file] [--seed=S] [--planes=N]
+//                                                     [--horizons=0,2000,4000,7000] [--set key=value]...
+public class WeatherLookaheadComparison {
+    public static void main(String[] args) throws IOException {
+        CommandLine commandLine = new CommandLine(args);
+        String scenarioFile = commandLine.getString("scenario", null);
+        long seed = commandLine.getLong("seed", 7);
+        int planes = commandLine.getInt("planes", 200);
+        String[] horizons = commandLine.getList("horizons", new String[]{"0", "2000", "4000", "7000"});
+        Map<String, String> overrides = commandLine.getOverrides();
+        commandLine.finish();
+
+        Scenario scenario = (scenarioFile != null)
+                ? ScenarioLoader.load(Paths.get(scenarioFile), seed)
+                : new Scenario(seed, planes);
+        AirportConfig config = scenario.getConfig().with(overrides);
+
+        System.out.println("*** Weather Lookahead Comparison (" + (scenarioFile != null ? scenarioFile : planes + " planes") +
+                ", seed " + scenario.getSeed() + ", " + config.getWeatherModel() + " weather) ***");
+        System.out.printf("%-16s %7s %12s %12s %14s %12s %12s%n", "Weather", "Planes", "Sim time",
+                "Planes/hour", "Weather holds", "Avg wait", "Lost");
+
+        Map<String, String> sunny = new HashMap<>();
+        sunny.put("weather", "fixed");
+        sunny.put("weather-sequence", "sunny");
+        double clearThroughput = report("always sunny", scenario.withConfig(config.with(sunny)), 0);
+        for (String horizon : horizons) {
+            String label = horizon.trim().equals("0") ? "no forecast" : "forecast " + horizon.trim() + "ms";
+            report(label, scenario.withConfig(config.with("weather-forecast-horizon", horizon.trim())), clearThroughput);
+        }
+    }
+
+    // Run one configuration and print its row, returns its throughput in planes per hour
+    private static double report(String label, Scenario scenario, double clearThroughput) {
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(scenario);
+        AirportStatistics statistics = simulation.run();
+        long simulationTime = simulation.getSimulationTime();
+        double throughput = simulationTime > 0 ? statistics.getPlanesServed() * 3_600_000.0 / simulationTime : 0;
+        String lost = clearThroughput > 0 ? String.format("%.1f%%", 100.0 * (1 - throughput / clearThroughput)) : "-";
+        System.out.printf("%-16s %7d %9d ms %12.0f %11d ms %9d ms %12s%n", label, statistics.getPlanesServed(),
+                simulationTime, throughput, statistics.getTotalWeatherHoldTime(), statistics.getWaitingTimes().getMean(), lost);
+        return throughput;
+    }
+}
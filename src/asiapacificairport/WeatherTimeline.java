@@ -0,0 +1,108 @@
+package asiapacificairport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+// Sequence of weather changes, replayed identically by the threaded and discrete-event modes.
+// Models: "random" (seeded, new condition every weather-interval ms), "sequence" (weather-sequence
+// played in a loop) and "fixed" (first weather-sequence condition for the whole run).
+public class WeatherTimeline {
+    private final Random rand;
+    private final AirportConfig config;
+    private final List<Change> sequence = new ArrayList<>();
+    private int nextInSequence = 0;
+    private long pendingDelay = 0;
+    private Weather.WeatherCondition current = Weather.WeatherCondition.SUNNY;
+
+    // One weather change, applied delayBefore ms after the previous change completed
+    public static final class Change {
+        private final long delayBefore;
+        private final Weather.WeatherCondition condition;
+
+        Change(long delayBefore, Weather.WeatherCondition condition) {
+            this.delayBefore = delayBefore;
+            this.condition = condition;
+        }
+
+        public long getDelayBefore() {
+            return delayBefore;
+        }
+
+        public Weather.WeatherCondition getCondition() {
+            return condition;
+        }
+    }
+
+    public WeatherTimeline(long seed) {
+        this(seed, AirportConfig.defaults());
+    }
+
+    public WeatherTimeline(long seed, AirportConfig config) {
+        this.rand = new Random(seed);
+        this.config = config;
+        if (!config.getWeatherModel().equals("random")) {
+            sequence.addAll(parseSequence(config.getWeatherModel(), config.getWeatherSequence()));
+        }
+    }
+
+    // "condition:ms, condition:ms, ..." for the sequence model, where every entry needs a positive duration
+    // or the loop would never let time pass; the fixed model only takes the first condition
+    static List<Change> parseSequence(String model, String value) {
+        List<Change> entries = new ArrayList<>();
+        for (String entry : value.split(",")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            String[] parts = entry.trim().split(":");
+            Weather.WeatherCondition condition;
+            try {
+                condition = Weather.WeatherCondition.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown weather condition in weather-sequence: " + parts[0].trim());
+            }
+            long duration = (parts.length > 1) ? Long.parseLong(parts[1].trim()) : 0;
+            if (model.equals("sequence") && duration <= 0) {
+                throw new IllegalArgumentException("weather-sequence entry needs a duration above 0 ms: " + entry.trim());
+            }
+            entries.add(new Change(duration, condition));
+        }
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("The " + model + " weather model needs a weather-sequence");
+        }
+        return entries;
+    }
+
+    // Next change, null once the weather will never change again
+    public Change next() {
+        switch (config.getWeatherModel()) {
+            case "fixed":
+                if (nextInSequence++ > 0) {
+                    return null;
+                }
+                return new Change(0, sequence.get(0).getCondition());
+            case "sequence":
+                // Each entry holds its condition for its duration, then the next one starts
+                Change entry = sequence.get(nextInSequence++ % sequence.size());
+                Change change = new Change(pendingDelay, entry.getCondition());
+                pendingDelay = entry.getDelayBefore();
+                return change;
+            default:
+                return nextRandom();
+        }
+    }
+
+    // Always a different condition than the current one
+    private Change nextRandom() {
+        int delay = config.getMinWeatherInterval() +
+                rand.nextInt(config.getMaxWeatherInterval() - config.getMinWeatherInterval() + 1);
+        Weather.WeatherCondition[] conditions = Weather.WeatherCondition.values();
+        Weather.WeatherCondition newWeather;
+        do {
+            newWeather = conditions[rand.nextInt(conditions.length)];
+        } while (newWeather == current); // Ensure weather actually changes
+        current = newWeather;
+        return new Change(delay, newWeather);
+    }
+}
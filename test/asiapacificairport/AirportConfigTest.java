@@ -0,0 +1,73 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class AirportConfigTest {
+
+    @Test
+    void defaultsAreTheOriginalAirport() {
+        AirportConfig config = AirportConfig.defaults();
+        assertEquals(3, config.getGates());
+        assertEquals(1000, config.getLandingTime());
+        assertEquals(0, config.getRunwaySeparation());
+        assertEquals(7000, config.getWeatherDelay(Weather.WeatherCondition.THUNDERSTORM));
+        assertEquals(0, config.getWeatherDelay(Weather.WeatherCondition.SUNNY));
+    }
+
+    @Test
+    void overridesReplaceOnlyTheirKeys() {
+        AirportConfig config = AirportConfig.defaults().with("landing-time", "250").with("gates", "5");
+        assertEquals(250, config.getLandingTime());
+        assertEquals(5, config.getGates());
+        assertEquals(1000, config.getCoastToGateTime());
+        assertEquals("250", config.getSetting("landing-time"));
+    }
+
+    @Test
+    void unknownSettingFails() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> AirportConfig.defaults().with("landing-tim", "500"));
+        assertEquals("Unknown setting: landing-tim", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> AirportConfig.defaults().with("seed", "7"));
+    }
+
+    // Every time, delay, timeout and separation is a duration in ms, 0 at most switches something off
+    @ParameterizedTest
+    @ValueSource(strings = {"landing-time", "coast-to-gate-time", "refill-time", "cleaning-time", "disembark-time",
+            "embark-time", "refuel-time", "undock-time", "coast-to-runway-time", "landing-request-timeout",
+            "runway-separation", "rainy-delay", "snowy-delay", "thunderstorm-delay", "stall-limit", "max-air-hold",
+            "weather-forecast-horizon"})
+    void negativeDurationFails(String key) {
+        assertEquals("0", AirportConfig.defaults().with(key, "0").getSetting(key));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> AirportConfig.defaults().with(key, "-1"));
+        assertEquals("Setting " + key + " must not be negative, got: -1", e.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"-100-200", "-5", "a-b"})
+    void weatherIntervalMustBeARangeOfMs(String interval) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> AirportConfig.defaults().with("weather-interval", interval));
+        assertTrue(e.getMessage().startsWith("Setting weather-interval must be a range of ms"), e.getMessage());
+    }
+
+    @Test
+    void weatherIntervalMayStartAtZeroButNotRunBackwards() {
+        assertEquals(0, AirportConfig.defaults().with("weather-interval", "0-100").getMinWeatherInterval());
+        assertThrows(IllegalArgumentException.class, () -> AirportConfig.defaults().with("weather-interval", "500-100"));
+    }
+
+    @Test
+    void nonNumericSettingFails() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> AirportConfig.defaults().with("gates", "three"));
+        assertEquals("Setting gates must be a number, got: three", e.getMessage());
+    }
+}
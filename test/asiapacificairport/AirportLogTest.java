@@ -0,0 +1,120 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AirportLogTest {
+    private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+
+    @AfterEach
+    void restore() {
+        AirportLog.setQuiet(false);
+        AirportLog.close();
+    }
+
+    private String written() {
+        AirportLog.flush();
+        return new String(written.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void quietModeNeverBuildsALine() {
+        AirportLog.setOutput(written);
+        AirportLog.setQuiet(true);
+        AtomicInteger built = new AtomicInteger();
+        AirportLog.log(() -> "Plane " + built.incrementAndGet());
+
+        assertFalse(AirportLog.isEnabled());
+        assertEquals("", written());
+        assertEquals(0, built.get());
+    }
+
+    @Test
+    void suppliedLinesAreWrittenInOrder() {
+        AirportLog.setOutput(written);
+        AirportLog.log("first");
+        AirportLog.log(() -> "second");
+        AirportLog.log(() -> {
+            throw new IllegalStateException("broken");
+        });
+        AirportLog.log("third");
+
+        String[] lines = written().split(System.lineSeparator());
+        assertEquals(4, lines.length);
+        assertEquals("first", lines[0]);
+        assertEquals("second", lines[1]);
+        assertTrue(lines[2].contains("broken"), lines[2]);
+        assertEquals("third", lines[3]);
+    }
+
+    @Test
+    void warningsAreWrittenInQuietMode() {
+        AirportLog.setOutput(written);
+        AirportLog.setQuiet(true);
+        AirportLog.warn("Monitor : stalled");
+        assertEquals("Monitor : stalled" + System.lineSeparator(), written());
+    }
+
+    // A writer stuck on a slow console: lines beyond the limit are dropped and counted, and the log says so
+    @Test
+    void fullQueueDropsLinesInsteadOfGrowing() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        AirportLog.setOutput(new OutputStream() {
+            @Override
+            public void write(int b) {
+                written.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                writing.countDown();
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                written.write(b, off, len);
+            }
+        });
+        AirportLog.log("blocking");
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+
+        long droppedBefore = AirportLog.getDroppedLines();
+        for (int i = 0; i < 70_000; i++) {
+            AirportLog.log("line " + i);
+        }
+        long dropped = AirportLog.getDroppedLines() - droppedBefore;
+        assertTrue(dropped >= 70_000 - 65_536, "dropped " + dropped);
+
+        unblock.countDown();
+        assertTrue(written().contains(" lines dropped, the log could not keep up"));
+    }
+
+    @Test
+    void closeWritesAndClosesTheLogFile(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("airport.log");
+        AirportLog.setOutput(file);
+        AirportLog.log(() -> "ATC     : Plane P1 landed successfully!");
+        AirportLog.close();
+
+        assertEquals("ATC     : Plane P1 landed successfully!" + System.lineSeparator(),
+                new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        Files.delete(file); // Closed, so nothing holds it open
+    }
+}
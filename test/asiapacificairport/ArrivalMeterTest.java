@@ -0,0 +1,154 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ArrivalMeterTest {
+    private static final Weather.WeatherCondition SUNNY = Weather.WeatherCondition.SUNNY;
+    private static final Weather.WeatherCondition RAINY = Weather.WeatherCondition.RAINY;
+
+    // Metering once 2 planes queue, on one mixed runway landing every 1000 ms: with the default phase
+    // times spread over 100 ground slots the runway sets the pace, so the target interval is 1000 ms in
+    // the sun and 2000 ms at the default 50 percent in bad weather
+    private static ArrivalMeter<String> meter(long maxAirHold) {
+        Map<String, String> settings = new HashMap<>();
+        settings.put("meter-queue-limit", "2");
+        settings.put("max-air-hold", Long.toString(maxAirHold));
+        settings.put("ground-capacity", "100");
+        settings.put("runways", "mixed");
+        AirportConfig config = AirportConfig.defaults().with(settings);
+        return new ArrivalMeter<>(config, config.newRunwaySystem());
+    }
+
+    @Test
+    void targetIntervalFollowsTheRunwayAndTheWeather() {
+        ArrivalMeter<String> meter = meter(0);
+        assertEquals(1000, meter.getTargetInterval(SUNNY), 1e-9);
+        assertEquals(2000, meter.getTargetInterval(RAINY), 1e-9);
+        assertEquals(3600, meter.getTargetRate(SUNNY), 1e-9);
+    }
+
+    @Test
+    void meteringOffLetsEveryPlaneJoin() {
+        AirportConfig config = AirportConfig.defaults();
+        ArrivalMeter<String> meter = new ArrivalMeter<>(config, config.newRunwaySystem());
+        assertFalse(meter.isEnabled());
+        assertEquals(0, meter.assign("A", "A", 0, 50, false, SUNNY));
+        assertEquals(0, meter.getHolding());
+    }
+
+    @Test
+    void planesJoinWhileTheQueueIsBelowTheLimit() {
+        ArrivalMeter<String> meter = meter(0);
+        assertEquals(0, meter.assign("A", "A", 0, 1, false, SUNNY));
+        assertEquals(0, meter.getHolding());
+    }
+
+    @Test
+    void heldPlanesGetSlotsOneIntervalApart() {
+        ArrivalMeter<String> meter = meter(0);
+        assertEquals(1000, meter.assign("A", "A", 0, 2, false, SUNNY));
+        assertEquals(2000, meter.assign("B", "B", 0, 2, false, SUNNY));
+        // Once planes hold, later arrivals queue behind them even when the landing queue has room
+        assertEquals(3000, meter.assign("C", "C", 0, 0, false, SUNNY));
+        assertEquals(3, meter.getHolding());
+    }
+
+    @Test
+    void planesQueuedBeyondTheLimitPushTheSlotBack() {
+        ArrivalMeter<String> meter = meter(0);
+        assertEquals(3000, meter.assign("A", "A", 0, 4, false, SUNNY));
+    }
+
+    @Test
+    void badWeatherStretchesTheSlots() {
+        ArrivalMeter<String> meter = meter(0);
+        assertEquals(2000, meter.assign("A", "A", 0, 2, false, RAINY));
+        assertEquals(4000, meter.assign("B", "B", 0, 2, false, RAINY));
+    }
+
+    @Test
+    void emergenciesAreNeverMetered() {
+        ArrivalMeter<String> meter = meter(500);
+        assertEquals(ArrivalMeter.DIVERT, meter.assign("A", "A", 0, 2, false, SUNNY));
+        assertEquals(0, meter.assign("E", "E", 0, 10, true, SUNNY));
+        assertEquals(0, meter.getHolding());
+    }
+
+    @Test
+    void planeWhoseSlotIsBeyondTheMaxAirHoldDiverts() {
+        ArrivalMeter<String> meter = meter(2500);
+        assertEquals(1000, meter.assign("A", "A", 0, 2, false, SUNNY));
+        assertEquals(2000, meter.assign("B", "B", 0, 2, false, SUNNY));
+        assertEquals(ArrivalMeter.DIVERT, meter.assign("C", "C", 0, 2, false, SUNNY));
+        assertEquals(2, meter.getHolding());
+        assertNull(meter.remove("C"));
+
+        // A slot exactly at the limit still holds
+        ArrivalMeter<String> exact = meter(2000);
+        exact.assign("A", "A", 0, 2, false, SUNNY);
+        assertEquals(2000, exact.assign("B", "B", 0, 2, false, SUNNY));
+    }
+
+    @Test
+    void badWeatherDivertsSooner() {
+        ArrivalMeter<String> meter = meter(2500);
+        assertEquals(2000, meter.assign("A", "A", 0, 2, false, RAINY));
+        assertEquals(ArrivalMeter.DIVERT, meter.assign("B", "B", 0, 2, false, RAINY));
+    }
+
+    @Test
+    void admitReleasesOnePlanePerIntervalInArrivalOrder() {
+        ArrivalMeter<String> meter = meter(0);
+        meter.assign("A", "A", 0, 2, false, SUNNY);
+        meter.assign("B", "B", 0, 2, false, SUNNY);
+
+        assertNull(meter.admit(2, 0, SUNNY)); // No room in the landing queue
+        assertEquals(Long.MAX_VALUE, meter.getNextAdmission(2, SUNNY, 0));
+        assertEquals(0, meter.getNextAdmission(1, SUNNY, 0));
+
+        ArrivalMeter.Slot<String> first = meter.admit(1, 100, SUNNY);
+        assertNotNull(first);
+        assertEquals("A", first.getPlane());
+        assertEquals(0, first.getHeldSince());
+        assertEquals(1000, first.getExpectedAt());
+
+        assertNull(meter.admit(1, 600, SUNNY)); // Next slot one interval after the last admission
+        assertEquals(1100, meter.getNextAdmission(1, SUNNY, 600));
+        assertEquals(2100, meter.getNextAdmission(1, RAINY, 600));
+        assertEquals("B", meter.admit(1, 1100, SUNNY).getPlane());
+        assertEquals(0, meter.getHolding());
+        assertNull(meter.admit(0, 5000, SUNNY));
+    }
+
+    @Test
+    void slotsCountFromTheLastAdmission() {
+        ArrivalMeter<String> meter = meter(0);
+        meter.assign("A", "A", 0, 2, false, SUNNY);
+        meter.admit(1, 500, SUNNY);
+        // The next slot is at 1500, later than one interval from now
+        assertEquals(1300, meter.assign("B", "B", 200, 2, false, SUNNY));
+    }
+
+    @Test
+    void removedPlaneLeavesTheMeter() {
+        ArrivalMeter<String> meter = meter(0);
+        meter.assign("A", "A", 0, 2, false, SUNNY);
+        meter.assign("B", "B", 0, 2, false, SUNNY);
+
+        ArrivalMeter.Slot<String> removed = meter.remove("A");
+        assertNotNull(removed);
+        assertEquals("A", removed.getPlane());
+        assertNull(meter.remove("A"));
+        assertEquals(1, meter.getHolding());
+        assertEquals("B", meter.admit(0, 0, SUNNY).getPlane());
+        assertEquals(Long.MAX_VALUE, meter.getNextAdmission(0, SUNNY, 0));
+    }
+}
@@ -0,0 +1,78 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CapacitySweepTest {
+    private static final Scenario SCENARIO = new Scenario(5, 30);
+
+    private static Map<String, List<String>> varied() {
+        Map<String, List<String>> varied = new LinkedHashMap<>();
+        varied.put("gates", CapacitySweep.parseValues("2..3"));
+        varied.put("runways", CapacitySweep.parseValues("mixed|mixed,mixed"));
+        return varied;
+    }
+
+    private static List<CapacitySweep.Row> sweep(int threads) throws Exception {
+        List<CapacitySweep.Row> rows = CapacitySweep.combinations(varied());
+        CapacitySweep.sweep(SCENARIO, rows, 2, threads);
+        return rows;
+    }
+
+    @Test
+    void valuesAreRangesOrLists() {
+        assertEquals(Arrays.asList("2", "3", "4"), CapacitySweep.parseValues("2..4"));
+        assertEquals(Arrays.asList("1", "4", "7"), CapacitySweep.parseValues("1..9:3"));
+        assertEquals(Arrays.asList("mixed", "mixed,arrival"), CapacitySweep.parseValues("mixed | mixed,arrival"));
+        assertThrows(IllegalArgumentException.class, () -> CapacitySweep.parseValues("6..2"));
+        assertThrows(IllegalArgumentException.class, () -> CapacitySweep.parseValues("1..4:0"));
+    }
+
+    // Every combination once, the last varied key changing fastest
+    @Test
+    void combinationsCoverTheProduct() {
+        List<CapacitySweep.Row> rows = CapacitySweep.combinations(varied());
+        assertEquals(4, rows.size());
+        assertEquals("2", rows.get(0).getSettings().get("gates"));
+        assertEquals("mixed,mixed", rows.get(1).getSettings().get("runways"));
+        assertEquals("3", rows.get(2).getSettings().get("gates"));
+        assertEquals("mixed", rows.get(2).getSettings().get("runways"));
+    }
+
+    // The same sweep on one thread and on four gives the same table, to the last digit
+    @Test
+    void sweepIsTheSameOnAnyNumberOfThreads(@TempDir Path directory) throws Exception {
+        List<CapacitySweep.Row> serial = sweep(1);
+        List<CapacitySweep.Row> parallel = sweep(4);
+        for (int i = 0; i < serial.size(); i++) {
+            assertArrayEquals(serial.get(i).getValues(), parallel.get(i).getValues(), serial.get(i).getSettings().toString());
+        }
+
+        Path serialCsv = directory.resolve("serial.csv");
+        Path parallelCsv = directory.resolve("parallel.csv");
+        CapacitySweep.writeCsv(serialCsv, varied(), serial);
+        CapacitySweep.writeCsv(parallelCsv, varied(), parallel);
+        assertEquals(Files.readAllLines(serialCsv), Files.readAllLines(parallelCsv));
+        assertEquals(5, Files.readAllLines(parallelCsv).size());
+    }
+
+    // Each row is the average of whole days, so every combination serves every plane of the scenario
+    @Test
+    void everyRowServesTheWholeDay() throws Exception {
+        for (CapacitySweep.Row row : sweep(2)) {
+            assertEquals(30, row.getValues()[0], 0.0, row.getSettings().toString());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Paths;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class CommandLineTest {
+    @Test
+    void optionsAreReadByNameWithDefaults() {
+        CommandLine commandLine = new CommandLine(new String[] {"--planes=20", "--seed=9", "--seed=11",
+                "--horizons=0,4000", "--journal=run.journal"});
+        assertEquals(20, commandLine.getInt("planes", 10));
+        assertEquals(11, commandLine.getLong("seed", 7)); // Last one wins
+        assertArrayEquals(new String[] {"0", "4000"}, commandLine.getList("horizons", null));
+        assertEquals(Paths.get("run.journal"), commandLine.getPath("journal"));
+        assertEquals("mesh", commandLine.getString("topology", "mesh"));
+        assertNull(commandLine.getPath("samples"));
+        commandLine.finish();
+    }
+
+    @Test
+    void settingsAndPairsKeepTheirOrder() {
+        CommandLine commandLine = new CommandLine(new String[] {"--set", "gates=8", "--airport", "HKG=gates=2",
+                "--set", " refuel-time = 2500 "}, "airport");
+        Map<String, String> overrides = commandLine.getOverrides();
+        assertArrayEquals(new String[] {"gates", "refuel-time"}, overrides.keySet().toArray());
+        assertEquals("2500", overrides.get("refuel-time"));
+        assertEquals("gates=2", commandLine.getPairs("airport").get("HKG"));
+        commandLine.finish();
+    }
+
+    @Test
+    void optionNoToolReadFailsAtFinish() {
+        CommandLine commandLine = new CommandLine(new String[] {"--planes=20", "--plane=5"});
+        commandLine.getInt("planes", 10);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, commandLine::finish);
+        assertEquals("Unknown argument: --plane=5", e.getMessage());
+    }
+
+    // Asking whether an option is there counts as reading it
+    @Test
+    void hasMarksAnOptionAsRead() {
+        CommandLine commandLine = new CommandLine(new String[] {"--verbose="});
+        assertTrue(commandLine.has("verbose"));
+        assertFalse(commandLine.has("quiet"));
+        commandLine.finish();
+    }
+
+    @Test
+    void malformedArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new CommandLine(new String[] {"planes=20"}));
+        assertThrows(IllegalArgumentException.class, () -> new CommandLine(new String[] {"--verbose"}));
+        assertThrows(IllegalArgumentException.class, () -> new CommandLine(new String[] {"--set"}));
+        assertThrows(IllegalArgumentException.class, () -> new CommandLine(new String[] {"--set", "gates"}));
+        assertThrows(NumberFormatException.class, () -> new CommandLine(new String[] {"--planes=ten"}).getInt("planes", 1));
+    }
+}
@@ -0,0 +1,122 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class DiscreteEventSimulationTest {
+    private static final long SEED = 7; // Weather holds on landing and departure, an emergency and a full apron
+    private static final long TOLERANCE = 250; // Thread wake-ups and logging, summed over a plane's stages
+
+    @BeforeEach
+    void quiet() {
+        AirportLog.setQuiet(true);
+    }
+
+    @AfterEach
+    void loud() {
+        AirportLog.setQuiet(false);
+    }
+
+    // The threaded run of AirTrafficControlSystem without its report: arrivals and weather from one start time
+    private static AirportStatistics runRealTime(Scenario scenario) throws Exception {
+        AsiaPacificAirport airport = new AsiaPacificAirport("APA", scenario.getConfig(), scenario.weatherForecast());
+        ExecutorService planes = ExecutionMode.PLATFORM.newExecutor("Plane", 0);
+        ExecutorService groundServices = ExecutionMode.PLATFORM.newExecutor("GroundService", airport.getGroundCrewCount());
+        airport.setGroundServicesExecutor(groundServices);
+        try {
+            long startTime = System.currentTimeMillis();
+            airport.startWeather(startTime);
+            List<CompletableFuture<Plane>> flights = new ArrayList<>();
+            Iterator<Scenario.Arrival> arrivals = scenario.arrivals();
+            while (arrivals.hasNext()) {
+                Scenario.Arrival arrival = arrivals.next();
+                long delay = startTime + arrival.getTime() - System.currentTimeMillis();
+                if (delay > 0) {
+                    Thread.sleep(delay);
+                }
+                Plane plane = new Plane(airport, arrival.getPlaneID(), arrival.getPassengers(), arrival.getPriority());
+                flights.add(plane.fly(planes));
+            }
+            CompletableFuture.allOf(flights.toArray(new CompletableFuture<?>[0])).get(2, TimeUnit.MINUTES);
+        } finally {
+            planes.shutdownNow();
+            groundServices.shutdownNow();
+            airport.stopLockMonitor();
+            airport.getWeather().interrupt();
+        }
+        return airport.getStatistics();
+    }
+
+    private static Map<String, AirportStatistics.PlaneOperations> byPlane(AirportStatistics statistics) {
+        Map<String, AirportStatistics.PlaneOperations> planes = new HashMap<>();
+        for (AirportStatistics.PlaneOperations plane : statistics.getPlaneOperations()) {
+            planes.put(plane.getPlaneID(), plane);
+        }
+        return planes;
+    }
+
+    private static int assignedGate(OperationLog log) {
+        for (int i = 0; i < log.size(); i++) {
+            if (log.getEvent(i) == OperationLog.Event.GATE_ASSIGNED) {
+                return log.getGate(i);
+            }
+        }
+        return -1;
+    }
+
+    // Both modes replay the same day: every plane gets the same gate, the same weather holds and the same
+    // wait and total time, give or take the threaded mode's scheduling jitter
+    @Test
+    void realTimeRunMatchesTheVirtualClockPlaneByPlane() throws Exception {
+        Scenario scenario = new Scenario(SEED, 6);
+        AirportStatistics simulated = new DiscreteEventSimulation(scenario).run();
+        AirportStatistics realTime = runRealTime(scenario);
+
+        assertEquals(simulated.getPlanesServed(), realTime.getPlanesServed());
+        assertEquals(simulated.getWeatherHolds(), realTime.getWeatherHolds());
+        Map<String, AirportStatistics.PlaneOperations> threaded = byPlane(realTime);
+        for (AirportStatistics.PlaneOperations expected : simulated.getPlaneOperations()) {
+            AirportStatistics.PlaneOperations actual = threaded.get(expected.getPlaneID());
+            assertNotNull(actual, expected.getPlaneID());
+            assertEquals(assignedGate(expected.getLog()), assignedGate(actual.getLog()), expected.getPlaneID());
+            assertClose(expected.getWaitingTime(), actual.getWaitingTime(), expected.getPlaneID() + " wait");
+            assertClose(expected.getTotalTime(), actual.getTotalTime(), expected.getPlaneID() + " total");
+        }
+    }
+
+    private static void assertClose(long expected, long actual, String what) {
+        assertTrue(Math.abs(expected - actual) <= TOLERANCE, what + ": expected " + expected + " ms, got " + actual + " ms");
+    }
+
+    // One plane asks to depart at 5000 ms into a thunderstorm (7000 ms delay) that turns to rain (4000 ms)
+    // at the given time: the hold is cut to the rain's delay, or ends at the change if that is already over
+    @ParameterizedTest
+    @CsvSource({"1000, 4000", "5000, 4500"})
+    void milderWeatherShortensAHold(long thunderstorm, long expectedHold) {
+        Map<String, String> settings = new HashMap<>();
+        settings.put("weather", "sequence");
+        settings.put("weather-sequence", "sunny:4500, thunderstorm:" + thunderstorm + ", rainy:100000");
+        Scenario scenario = new Scenario(SEED, 1);
+        scenario = scenario.withConfig(scenario.getConfig().with(settings));
+
+        AirportStatistics statistics = new DiscreteEventSimulation(scenario).run();
+        assertEquals(1, statistics.getWeatherHolds());
+        assertEquals(expectedHold, statistics.getTotalWeatherHoldTime());
+    }
+}
@@ -0,0 +1,266 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class GateAllocatorTest {
+
+    // Every gate is handed out exactly once, including the ones in a partly used last word, and no
+    // claim reaches past the last gate
+    @ParameterizedTest
+    @ValueSource(ints = {1, 63, 64, 65, 127, 130})
+    void claimsEveryGateOnceThenReportsFull(int gateCount) {
+        GateAllocator gates = new GateAllocator(gateCount);
+        Set<Integer> claimed = new HashSet<>();
+        for (int i = 0; i < gateCount; i++) {
+            int gate = gates.claim("P" + i);
+            assertTrue(gate >= 0 && gate < gateCount, "gate " + gate);
+            assertTrue(claimed.add(gate), "gate " + gate + " claimed twice");
+            assertEquals("P" + i, gates.getAssignment(gate));
+        }
+        assertEquals(0, gates.getFreeGates());
+        assertEquals(-1, gates.claim("extra"));
+        assertEquals(-1, gates.findFree());
+        assertEquals(-1, gates.findFirstFit(1, true));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 63, 65, 130})
+    void releasedGateIsClaimedAgain(int gateCount) {
+        GateAllocator gates = new GateAllocator(gateCount);
+        for (int i = 0; i < gateCount; i++) {
+            gates.claim("P" + i);
+        }
+        int last = gateCount - 1;
+
+        assertTrue(gates.release(last, "P" + last));
+        assertFalse(gates.isOccupied(last));
+        assertNull(gates.getAssignment(last));
+        assertEquals(1, gates.getFreeGates());
+        assertEquals(last, gates.findFree());
+        assertEquals(last, gates.claim("again"));
+        assertEquals("again", gates.getAssignment(last));
+    }
+
+    @Test
+    void releasingAFreeOrUnknownGateFails() {
+        GateAllocator gates = new GateAllocator(65);
+        AtomicInteger released = new AtomicInteger();
+        gates.setReleaseListener(released::incrementAndGet);
+
+        assertFalse(gates.release(3, "A"));
+        assertFalse(gates.release(-1, "A"));
+        assertFalse(gates.release(65, "A")); // Past the last gate, in the padding bits of the second word
+        assertEquals(0, released.get());
+        assertEquals(65, gates.getFreeGates());
+
+        int gate = gates.claim("A");
+        assertTrue(gates.release(gate, "A"));
+        assertFalse(gates.release(gate, "A"));
+        assertEquals(1, released.get());
+        assertEquals(65, gates.getFreeGates());
+    }
+
+    // A plane can only release the gate it holds: a late release after the gate went to the next plane,
+    // or a release by the wrong plane, leaves the gate with its holder
+    @Test
+    void staleReleaseLeavesTheGateWithItsNewHolder() {
+        GateAllocator gates = new GateAllocator(65);
+        AtomicInteger released = new AtomicInteger();
+        gates.setReleaseListener(released::incrementAndGet);
+
+        assertTrue(gates.claim(64, "A"));
+        assertFalse(gates.release(64, "B"));
+        assertTrue(gates.release(64, new String("A"))); // Compared by ID, not by reference
+        assertTrue(gates.claim(64, "B"));
+
+        assertFalse(gates.release(64, "A"));
+        assertTrue(gates.isOccupied(64));
+        assertEquals("B", gates.getAssignment(64));
+        assertEquals(64, gates.getFreeGates());
+        assertEquals(1, released.get());
+
+        assertTrue(gates.release(64, "B"));
+        assertEquals(65, gates.getFreeGates());
+    }
+
+    // Stale releases racing the current holder's claim-release cycle never free its gate
+    @Test
+    void concurrentStaleReleasesNeverFreeAClaimedGate() throws Exception {
+        GateAllocator gates = new GateAllocator(1);
+        AtomicInteger released = new AtomicInteger();
+        gates.setReleaseListener(released::incrementAndGet);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> owner = executor.submit(() -> {
+                start.await();
+                int claims = 0;
+                for (int round = 0; round < 100_000; round++) {
+                    if (gates.claim("Owner") == 0) {
+                        claims++;
+                        assertEquals("Owner", gates.getAssignment(0));
+                        assertTrue(gates.release(0, "Owner"));
+                    }
+                }
+                return claims;
+            });
+            Future<Integer> stale = executor.submit(() -> {
+                start.await();
+                int wrongReleases = 0;
+                for (int round = 0; round < 100_000; round++) {
+                    if (gates.release(0, "Stale")) {
+                        wrongReleases++;
+                    }
+                }
+                return wrongReleases;
+            });
+            start.countDown();
+            assertEquals(0, stale.get(30, TimeUnit.SECONDS));
+            assertEquals(100_000, owner.get(30, TimeUnit.SECONDS));
+            assertEquals(100_000, released.get());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, gates.getFreeGates());
+    }
+
+    @Test
+    void specificGateClaimFailsWhenOccupied() {
+        GateAllocator gates = new GateAllocator(70);
+        assertTrue(gates.claim(66, "A"));
+        assertFalse(gates.claim(66, "B"));
+        assertEquals("A", gates.getAssignment(66));
+        assertEquals(69, gates.getFreeGates());
+    }
+
+    @Test
+    void smallestFitPrefersTheSmallestGateAndSkipsExcluded() {
+        // Gate 0 and 70 hold 50, gate 1 and 65 hold 200, the rest hold 100
+        int[] capacities = new int[71];
+        Arrays.fill(capacities, 100);
+        capacities[0] = 50;
+        capacities[70] = 50;
+        capacities[1] = 200;
+        capacities[65] = 200;
+        GateAllocator gates = new GateAllocator(capacities);
+
+        assertEquals(0, gates.findSmallestFit(40, false, null));
+        assertEquals(2, gates.findSmallestFit(80, false, null));
+        assertEquals(1, gates.findSmallestFit(150, false, null));
+        assertEquals(1, gates.findSmallestFit(500, false, null)); // Bigger than every gate: the largest ones
+        assertEquals(1, gates.findFirstFit(150, false));
+
+        long[] excluded = gates.newGateMask();
+        GateAllocator.mark(excluded, 0);
+        assertEquals(70, gates.findSmallestFit(40, false, excluded));
+        GateAllocator.mark(excluded, 1);
+        assertEquals(65, gates.findSmallestFit(150, false, excluded));
+
+        assertTrue(gates.claim(70, "A"));
+        assertEquals(2, gates.findSmallestFit(40, false, excluded)); // Both small gates gone, next size up
+    }
+
+    // Threads claiming and releasing at once never share a gate and leave the counts consistent
+    @ParameterizedTest
+    @ValueSource(ints = {1, 63, 130})
+    void concurrentClaimsNeverShareAGate(int gateCount) throws Exception {
+        int threads = 8;
+        int rounds = 20_000;
+        GateAllocator gates = new GateAllocator(gateCount);
+        AtomicReferenceArray<String> holders = new AtomicReferenceArray<>(gateCount);
+        AtomicInteger releases = new AtomicInteger();
+        gates.setReleaseListener(releases::incrementAndGet);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String planeID = "T" + t;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int claims = 0;
+                    for (int round = 0; round < rounds; round++) {
+                        int gate = gates.claim(planeID);
+                        if (gate < 0) {
+                            continue;
+                        }
+                        assertTrue(gate < gateCount, "gate " + gate);
+                        assertTrue(holders.compareAndSet(gate, null, planeID), "gate " + gate + " shared");
+                        claims++;
+                        holders.set(gate, null);
+                        assertTrue(gates.release(gate, planeID));
+                    }
+                    return claims;
+                }));
+            }
+            start.countDown();
+            int claims = 0;
+            for (Future<Integer> result : results) {
+                claims += result.get(30, TimeUnit.SECONDS);
+            }
+            assertTrue(claims > 0);
+            assertEquals(claims, releases.get());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(gateCount, gates.getFreeGates());
+        for (int gate = 0; gate < gateCount; gate++) {
+            assertFalse(gates.isOccupied(gate));
+        }
+    }
+
+    // Racing threads each get a distinct gate until the airport is full, and no more than that
+    @ParameterizedTest
+    @ValueSource(ints = {63, 65, 130})
+    void concurrentClaimsFillEveryGateExactlyOnce(int gateCount) throws Exception {
+        int threads = 8;
+        GateAllocator gates = new GateAllocator(gateCount);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Integer> claimed = new ArrayList<>();
+        try {
+            List<Future<List<Integer>>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String planeID = "T" + t;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    List<Integer> mine = new ArrayList<>();
+                    int gate;
+                    while ((gate = gates.claim(planeID)) >= 0) {
+                        mine.add(gate);
+                    }
+                    return mine;
+                }));
+            }
+            start.countDown();
+            for (Future<List<Integer>> result : results) {
+                claimed.addAll(result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(gateCount, claimed.size());
+        assertEquals(gateCount, new HashSet<>(claimed).size());
+        assertEquals(0, gates.getFreeGates());
+    }
+}
@@ -0,0 +1,75 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class GateAssignmentStrategyTest {
+    private static final GateAssignmentStrategy FIRST_FIT = GateAssignmentStrategy.parse("first-fit", 1);
+    private static final GateAssignmentStrategy BEST_FIT = GateAssignmentStrategy.parse("best-fit", 1);
+    private static final GateAssignmentStrategy LOOKAHEAD = GateAssignmentStrategy.parse("lookahead", 8);
+
+    // Planes in landing order
+    private static List<LandingQueue.Entry> queue(LandingQueue queue, String... planes) {
+        for (String plane : planes) {
+            String[] parts = plane.split(":");
+            LandingPriority priority = parts.length > 2 ? LandingPriority.FUEL_CRITICAL : LandingPriority.NORMAL;
+            queue.add(parts[0], priority, Integer.parseInt(parts[1]));
+        }
+        return queue.peek(planes.length);
+    }
+
+    @Test
+    void firstFitTakesTheLowestGateThePlaneFits() {
+        GateAllocator gates = new GateAllocator(new int[] {300, 100, 200});
+        List<LandingQueue.Entry> waiting = queue(new LandingQueue(), "A:150");
+        GateAssignmentStrategy.Assignment assignment = FIRST_FIT.assign(waiting, gates, 3);
+        assertSame(waiting.get(0), assignment.getEntry());
+        assertEquals(0, assignment.getGate());
+    }
+
+    @Test
+    void bestFitKeepsBigGatesForBigAircraft() {
+        GateAllocator gates = new GateAllocator(new int[] {300, 100, 200});
+        assertEquals(2, BEST_FIT.assign(queue(new LandingQueue(), "A:150"), gates, 3).getGate());
+        assertEquals(1, BEST_FIT.assign(queue(new LandingQueue(), "E:250:emergency"), gates, 3).getGate());
+        assertEquals(0, BEST_FIT.assign(queue(new LandingQueue(), "H:500"), gates, 3).getGate()); // Bigger than every gate
+    }
+
+    // The head needs the big gate, which is taken: only lookahead lets the small plane behind it use the
+    // free small gate, and only while a ground slot stays free for the head
+    @Test
+    void lookaheadBackfillsASmallerPlaneBehindABlockedOne() {
+        GateAllocator gates = new GateAllocator(new int[] {100, 300});
+        gates.claim(1, "X");
+        List<LandingQueue.Entry> waiting = queue(new LandingQueue(), "A:250", "B:80");
+
+        assertNull(FIRST_FIT.assign(waiting, gates, 2));
+        assertNull(BEST_FIT.assign(waiting, gates, 2));
+        GateAssignmentStrategy.Assignment assignment = LOOKAHEAD.assign(waiting, gates, 2);
+        assertEquals("B", assignment.getEntry().getPlaneID());
+        assertEquals(0, assignment.getGate());
+        assertNull(LOOKAHEAD.assign(waiting, gates, 1));
+    }
+
+    // The head fits both free gates and either leaves the next plane a gate: the smaller one is kept
+    @Test
+    void lookaheadTakesTheSmallerGateOnATie() {
+        GateAllocator gates = new GateAllocator(new int[] {300, 200, 300});
+        List<LandingQueue.Entry> waiting = queue(new LandingQueue(), "A:150", "B:250");
+        assertEquals(1, LOOKAHEAD.assign(waiting, gates, 3).getGate());
+        assertEquals(8, LOOKAHEAD.getLookahead());
+    }
+
+    @Test
+    void unknownNamesAndLookaheadsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> GateAssignmentStrategy.parse("worst-fit", 1));
+        assertThrows(IllegalArgumentException.class, () -> GateAssignmentStrategy.parse("lookahead", 0));
+        assertEquals("best-fit", GateAssignmentStrategy.parse(" best-fit ", 1).toString());
+    }
+}
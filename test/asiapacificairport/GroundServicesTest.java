@@ -0,0 +1,131 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class GroundServicesTest {
+    private static final GroundServices.Task DEPLANE = GroundServices.Task.DEPLANE;
+    private static final GroundServices.Task CATERING = GroundServices.Task.CATERING;
+    private static final GroundServices.Task CLEANING = GroundServices.Task.CLEANING;
+    private static final GroundServices.Task REFUEL = GroundServices.Task.REFUEL;
+    private static final GroundServices.Task BOARD = GroundServices.Task.BOARD;
+
+    // Drives a scheduler by hand: jobs are finished whenever the test says so
+    private static final class Ground {
+        private final GroundServices<String> services;
+        private final Map<String, GroundServices.Job<String>> running = new HashMap<>();
+        private final List<String> started = new ArrayList<>();
+
+        Ground(Map<String, String> settings) {
+            services = new GroundServices<>(AirportConfig.defaults().with(settings));
+        }
+
+        GroundServices.Turnaround<String> dock(String plane, long now) {
+            GroundServices.Turnaround<String> turnaround = services.startTurnaround(plane, now);
+            dispatch(now);
+            return turnaround;
+        }
+
+        boolean finish(String plane, GroundServices.Task task, long now) {
+            GroundServices.Job<String> job = running.remove(plane + " " + task);
+            assertNotNull(job, plane + " " + task + " is not running");
+            boolean complete = services.finish(job, now);
+            dispatch(now);
+            return complete;
+        }
+
+        private void dispatch(long now) {
+            for (GroundServices.Job<String> job : services.dispatch(now)) {
+                String name = job.getPlane() + " " + job.getTask();
+                running.put(name, job);
+                started.add(name);
+            }
+        }
+
+        boolean isRunning(String plane, GroundServices.Task task) {
+            return running.containsKey(plane + " " + task);
+        }
+    }
+
+    private static Map<String, String> settings() {
+        Map<String, String> settings = new HashMap<>();
+        settings.put("gates", "3");
+        settings.put("ground-capacity", "3");
+        settings.put("refueling-trucks", "3");
+        settings.put("refuel-time", "6000");
+        return settings;
+    }
+
+    // With crews to spare every task starts as soon as its prerequisites are done, and not before
+    @Test
+    void tasksFollowTheTurnaroundGraph() {
+        Ground ground = new Ground(settings());
+        ground.dock("A", 0);
+        assertTrue(ground.isRunning("A", DEPLANE));
+        assertTrue(ground.isRunning("A", REFUEL));
+        assertEquals(2, ground.started.size());
+
+        assertFalse(ground.finish("A", DEPLANE, 1000));
+        assertTrue(ground.isRunning("A", CATERING));
+        assertTrue(ground.isRunning("A", CLEANING));
+
+        assertFalse(ground.finish("A", CATERING, 2000));
+        assertFalse(ground.isRunning("A", BOARD)); // Still waiting on cleaning
+        assertFalse(ground.finish("A", CLEANING, 2000));
+        assertTrue(ground.isRunning("A", BOARD));
+
+        assertFalse(ground.finish("A", BOARD, 3000));
+        assertTrue(ground.finish("A", REFUEL, 6000)); // Refuelling ran in parallel and finishes the turnaround
+    }
+
+    // The longest chain through the plane's own unfinished tasks, with a running task counting what is left
+    @Test
+    void remainingWorkFollowsThePlanesOwnProgress() {
+        Ground ground = new Ground(settings());
+        GroundServices.Turnaround<String> turnaround = ground.dock("A", 0);
+        assertEquals(6000, ground.services.remainingWork(turnaround, 0)); // Refuel outlasts 3000 ms of cabin work
+        assertEquals(5000, ground.services.remainingWork(turnaround, 1000));
+
+        ground.finish("A", DEPLANE, 1000);
+        ground.finish("A", REFUEL, 1000); // Refuelled early
+        assertEquals(2000, ground.services.remainingWork(turnaround, 1000));
+        ground.finish("A", CATERING, 2000);
+        assertEquals(1000, ground.services.remainingWork(turnaround, 2500)); // Cleaning overran, boarding is left
+    }
+
+    // One catering truck, two planes waiting for it: the plane that was fully refuelled and only needs
+    // catering and boarding goes first, even though the other plane's catering was ready earlier and
+    // its refuel would hold it at the gate anyway
+    @Test
+    void crewGoesToThePlaneWithTheLeastWorkLeft() {
+        Map<String, String> settings = settings();
+        settings.put("catering-trucks", "1");
+        Ground ground = new Ground(settings);
+        ground.dock("Y", 0);
+        ground.dock("Z", 0);
+        ground.finish("Z", DEPLANE, 1000);
+        assertTrue(ground.isRunning("Z", CATERING)); // Holds the only truck
+
+        ground.dock("X", 5000); // Refuelling until 11000
+        ground.finish("Y", REFUEL, 6000);
+        ground.finish("X", DEPLANE, 6000); // X waits for catering first, with 5000 ms of refuel left
+        ground.finish("Y", DEPLANE, 6500); // Y waits with 2000 ms of catering and boarding left
+        assertFalse(ground.isRunning("X", CATERING));
+        assertFalse(ground.isRunning("Y", CATERING));
+
+        ground.finish("Z", CATERING, 7000);
+        assertTrue(ground.isRunning("Y", CATERING));
+        assertFalse(ground.isRunning("X", CATERING));
+        ground.finish("Y", CATERING, 8000);
+        assertTrue(ground.isRunning("X", CATERING));
+    }
+}
@@ -0,0 +1,96 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class LandingQueueTest {
+
+    // Plane IDs in the order the queue lets them land, emptying it
+    private static List<String> drain(LandingQueue queue) {
+        List<String> order = new ArrayList<>();
+        LandingQueue.Entry entry;
+        while ((entry = queue.poll()) != null) {
+            order.add(entry.getPlaneID());
+        }
+        return order;
+    }
+
+    @Test
+    void emergenciesLandFirstByTierThenInRequestOrder() {
+        LandingQueue queue = new LandingQueue();
+        queue.add("N1", LandingPriority.NORMAL, 10);
+        queue.add("M1", LandingPriority.MEDICAL, 10);
+        queue.add("N2", LandingPriority.NORMAL, 10);
+        queue.add("F1", LandingPriority.FUEL_CRITICAL, 10);
+        queue.add("M2", LandingPriority.MEDICAL, 10);
+
+        assertEquals(3, queue.emergencyCount());
+        assertEquals(List.of("F1", "M1", "M2", "N1", "N2"), drain(queue));
+        assertEquals(0, queue.emergencyCount());
+    }
+
+    @Test
+    void addingAQueuedPlaneAgainKeepsItsPlace() {
+        LandingQueue queue = new LandingQueue();
+        LandingQueue.Entry first = queue.add("A", LandingPriority.NORMAL, 10);
+        queue.add("B", LandingPriority.NORMAL, 10);
+
+        assertSame(first, queue.add("A", LandingPriority.FUEL_CRITICAL, 10));
+        assertEquals(2, queue.size());
+        assertEquals(List.of("A", "B"), drain(queue));
+    }
+
+    @Test
+    void removedPlaneIsForgottenAtOnceAndSkippedLater() {
+        LandingQueue queue = new LandingQueue();
+        queue.add("A", LandingPriority.NORMAL, 10);
+        queue.add("B", LandingPriority.MEDICAL, 10);
+        queue.add("C", LandingPriority.NORMAL, 10);
+
+        assertEquals("B", queue.remove("B").getPlaneID());
+        assertFalse(queue.contains("B"));
+        assertEquals(2, queue.size());
+        assertEquals(0, queue.emergencyCount());
+        assertNull(queue.remove("B"));
+        assertEquals("A", queue.peek().getPlaneID());
+        assertEquals(List.of("A", "C"), drain(queue));
+    }
+
+    @Test
+    void planeRemovedAndAddedAgainQueuesAtTheBack() {
+        LandingQueue queue = new LandingQueue();
+        queue.add("A", LandingPriority.NORMAL, 10);
+        queue.add("B", LandingPriority.NORMAL, 10);
+        queue.remove("A");
+        queue.add("A", LandingPriority.NORMAL, 10);
+
+        // The stale heap slot of the first A must not land it ahead of B, nor twice
+        assertEquals(List.of("B", "A"), drain(queue));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void peekingSeveralKeepsThemQueued() {
+        LandingQueue queue = new LandingQueue();
+        queue.add("N1", LandingPriority.NORMAL, 10);
+        queue.add("N2", LandingPriority.NORMAL, 10);
+        queue.add("X", LandingPriority.NORMAL, 10);
+        queue.add("F1", LandingPriority.FUEL_CRITICAL, 10);
+        queue.remove("X");
+
+        List<String> peeked = new ArrayList<>();
+        for (LandingQueue.Entry entry : queue.peek(5)) {
+            peeked.add(entry.getPlaneID());
+        }
+        assertEquals(List.of("F1", "N1", "N2"), peeked);
+        assertEquals(3, queue.size());
+        assertEquals(List.of("F1", "N1", "N2"), drain(queue));
+    }
+}
@@ -0,0 +1,74 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram("empty");
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(0.99));
+    }
+
+    @Test
+    void smallValuesHaveExactPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram("small");
+        for (int value = 100; value >= 1; value--) {
+            histogram.record(value);
+        }
+
+        assertEquals(1, histogram.getMin());
+        assertEquals(100, histogram.getMax());
+        assertEquals(50, histogram.getMean());
+        assertEquals(50, histogram.getPercentile(0.50));
+        assertEquals(90, histogram.getPercentile(0.90));
+        assertEquals(99, histogram.getPercentile(0.99));
+        assertEquals(100, histogram.getPercentile(1.0));
+        assertEquals(1, histogram.getPercentile(0.0));
+    }
+
+    @Test
+    void largeValuesAreWithinOneSixtyFourth() {
+        LatencyHistogram histogram = new LatencyHistogram("large");
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L);
+        }
+
+        for (double fraction : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            long exact = Math.round(fraction * 1000) * 1_000L;
+            long reported = histogram.getPercentile(fraction);
+            assertTrue(reported >= exact && reported <= exact + exact / 64,
+                    "p" + fraction + " of " + exact + " reported as " + reported);
+        }
+        assertEquals(1_000_000, histogram.getPercentile(1.0)); // Capped at the recorded maximum
+    }
+
+    @Test
+    void negativeDurationsCountAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram("clock");
+        histogram.record(-5);
+        histogram.record(7);
+
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getPercentile(0.5));
+        assertEquals(7, histogram.getTotal());
+    }
+
+    @Test
+    void everyValueFallsInABucketThatCoversIt() {
+        for (long value = 0; value < 1L << 40; value = value * 3 / 2 + 1) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long highest = LatencyHistogram.highestValueIn(bucket);
+            assertTrue(highest >= value && highest - value <= value / 64, value + " -> " + highest);
+            assertEquals(bucket, LatencyHistogram.bucketOf(highest));
+            assertEquals(bucket + 1, LatencyHistogram.bucketOf(highest + 1));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LockMonitorTest {
+    private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void captureTheLog() {
+        AirportLog.setOutput(written);
+        AirportLog.setQuiet(true); // Reports are written even in quiet mode
+    }
+
+    @AfterEach
+    void restore() {
+        AirportLog.setQuiet(false);
+        AirportLog.close();
+    }
+
+    private String written() {
+        AirportLog.flush();
+        return new String(written.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void waitPastTheLimitIsReportedOnce() {
+        LockMonitor monitor = new LockMonitor("APA", 100);
+        long token = monitor.beginAsyncWait("P1", "landing grant");
+        monitor.check(System.currentTimeMillis());
+        assertEquals("", written()); // Not stalled yet
+
+        monitor.check(System.currentTimeMillis() + 500);
+        String report = written();
+        assertTrue(report.contains("STALL, waiting longer than 100 ms: Plane P1 (landing grant"), report);
+        assertTrue(report.contains("Monitor : --- Wait-for graph ---"), report);
+
+        monitor.check(System.currentTimeMillis() + 1000);
+        assertEquals(report, written());
+        monitor.endWait(token);
+        assertFalse(monitor.dump().contains("P1"));
+    }
+
+    @Test
+    void monitoringOffRegistersNothing() {
+        LockMonitor monitor = new LockMonitor("APA", 0);
+        assertFalse(monitor.isEnabled());
+        assertEquals(0, monitor.beginWait("P1", "arrival runway"));
+        monitor.check(System.currentTimeMillis() + 60_000);
+        assertEquals("", written());
+    }
+
+    // Two threads taking two locks in opposite order: the cycle is found and reported once
+    @Test
+    void lockOrderingDeadlockIsReported() throws InterruptedException {
+        LockMonitor monitor = new LockMonitor("APA", 60_000);
+        MonitoredLock first = new MonitoredLock("first", monitor);
+        MonitoredLock second = new MonitoredLock("second", monitor);
+        CountDownLatch bothHeld = new CountDownLatch(2);
+        Thread one = new Thread(() -> takeBoth(first, second, bothHeld), "Worker-1");
+        Thread two = new Thread(() -> takeBoth(second, first, bothHeld), "Worker-2");
+        one.start();
+        two.start();
+        try {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!written().contains("DEADLOCK") && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+                monitor.check(System.currentTimeMillis());
+            }
+            String report = written();
+            assertTrue(report.contains("DEADLOCK between Worker-1, Worker-2"), report);
+            assertTrue(report.contains("second held by"), report);
+
+            monitor.check(System.currentTimeMillis());
+            assertEquals(report, written());
+        } finally {
+            one.interrupt();
+            two.interrupt();
+            one.join(TimeUnit.SECONDS.toMillis(5));
+            two.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private static void takeBoth(MonitoredLock held, MonitoredLock wanted, CountDownLatch bothHeld) {
+        held.lock();
+        try {
+            bothHeld.countDown();
+            bothHeld.await();
+            wanted.lockInterruptibly();
+            wanted.unlock();
+        } catch (InterruptedException e) {
+            // Test over
+        } finally {
+            held.unlock();
+        }
+    }
+}
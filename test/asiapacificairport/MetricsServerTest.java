@@ -0,0 +1,146 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MetricsServerTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void quiet() {
+        AirportLog.setQuiet(true);
+    }
+
+    @AfterEach
+    void loud() {
+        AirportLog.setQuiet(false);
+    }
+
+    // Short phases in the sun, so one plane's visit takes a fraction of a second
+    private static AsiaPacificAirport airport(String code) {
+        Map<String, String> settings = new HashMap<>();
+        for (String phase : new String[] {"landing-time", "coast-to-gate-time", "refill-time", "cleaning-time",
+                "refuel-time", "disembark-time", "embark-time", "undock-time", "coast-to-runway-time"}) {
+            settings.put(phase, "10");
+        }
+        settings.put("weather", "fixed");
+        settings.put("weather-sequence", "sunny:1000");
+        Scenario scenario = new Scenario(7, 1);
+        scenario = scenario.withConfig(scenario.getConfig().with(settings));
+        return new AsiaPacificAirport(code, scenario.getConfig(), scenario.weatherForecast());
+    }
+
+    private HttpResponse<String> request(MetricsServer server, String method, String path)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    // The endpoint serves every airport, one airport by code, and refuses anything else
+    @Test
+    void endpointServesEveryAirportAndEachByCode() throws Exception {
+        AsiaPacificAirport apa = airport("APA");
+        AsiaPacificAirport sin = airport("SIN");
+        MetricsServer server = new MetricsServer(0, Arrays.asList(new AirportMetrics(apa), new AirportMetrics(sin)));
+        server.start();
+        try {
+            assertTrue(server.getPort() > 0);
+
+            HttpResponse<String> all = request(server, "GET", "/metrics");
+            assertEquals(200, all.statusCode());
+            assertEquals("application/json", all.headers().firstValue("Content-Type").orElse(""));
+            assertTrue(all.body().startsWith("[{\"airport\": \"APA\""), all.body());
+            assertTrue(all.body().contains("{\"airport\": \"SIN\""), all.body());
+
+            HttpResponse<String> one = request(server, "GET", "/metrics/SIN");
+            assertEquals(200, one.statusCode());
+            assertTrue(one.body().startsWith("{\"airport\": \"SIN\""), one.body());
+            assertFalse(one.body().contains("APA"), one.body());
+
+            assertEquals(404, request(server, "GET", "/metrics/HKG").statusCode());
+            assertEquals(405, request(server, "POST", "/metrics").statusCode());
+        } finally {
+            server.stop();
+            apa.stopLockMonitor();
+            sin.stopLockMonitor();
+        }
+    }
+
+    // A plane that has been and gone shows up in the live figures, read while the airport is still open
+    @Test
+    void metricsFollowTheAirport() throws Exception {
+        AsiaPacificAirport airport = airport("APA");
+        AirportMetrics metrics = new AirportMetrics(airport);
+        ExecutorService planes = ExecutionMode.PLATFORM.newExecutor("Plane", 0);
+        ExecutorService groundServices = ExecutionMode.PLATFORM.newExecutor("GroundService", airport.getGroundCrewCount());
+        airport.setGroundServicesExecutor(groundServices);
+        try {
+            assertEquals("APA", metrics.getAirport());
+            assertEquals(airport.getGateCount(), metrics.getGateCount());
+            assertEquals(0, metrics.getPlanesServed());
+            assertEquals("Sunny", metrics.getWeather());
+            List<String> runways = Arrays.asList(metrics.getRunwayStates());
+            assertEquals(airport.getRunwayCount(), runways.size());
+            assertTrue(runways.stream().allMatch(state -> state.endsWith(": free")), runways.toString());
+
+            Plane plane = new Plane(airport, "A1", 100, false);
+            assertSame(plane, plane.fly(planes).get(5, TimeUnit.SECONDS));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (metrics.getPlanesServed() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, metrics.getPlanesServed());
+            assertEquals(0, metrics.getGatesInUse());
+            assertEquals(0, metrics.getPlanesOnGround());
+            assertTrue(metrics.toJson().contains("\"planesServed\": 1,"), metrics.toJson());
+        } finally {
+            planes.shutdownNow();
+            groundServices.shutdownNow();
+            airport.stopLockMonitor();
+        }
+    }
+
+    // The same attributes are published over JMX under the airport's code
+    @Test
+    void registerPublishesTheAirportOverJmx() throws Exception {
+        AsiaPacificAirport airport = airport("APA");
+        AirportMetrics metrics = new AirportMetrics(airport);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("asiapacificairport:type=Airport,name=" + ObjectName.quote("APA"));
+        try {
+            metrics.register();
+            metrics.register(); // Registering twice is harmless
+            assertEquals("APA", server.getAttribute(name, "Airport"));
+            assertEquals(airport.getGateCount(), server.getAttribute(name, "GateCount"));
+            metrics.unregister();
+            assertFalse(server.isRegistered(name));
+        } finally {
+            metrics.unregister();
+            airport.stopLockMonitor();
+        }
+    }
+}
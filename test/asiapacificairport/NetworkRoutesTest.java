@@ -0,0 +1,54 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class NetworkRoutesTest {
+    @Test
+    void airportsAreACountOrAList() {
+        assertArrayEquals(new String[] {"SIN", "HKG", "NRT"}, NetworkRoutes.parseAirports("3"));
+        assertEquals("AP10", NetworkRoutes.parseAirports("10")[9]);
+        assertArrayEquals(new String[] {"SIN", "PER"}, NetworkRoutes.parseAirports("SIN, PER"));
+        assertThrows(IllegalArgumentException.class, () -> NetworkRoutes.parseAirports("1"));
+        assertThrows(IllegalArgumentException.class, () -> NetworkRoutes.parseAirports("SIN"));
+        assertThrows(IllegalArgumentException.class, () -> NetworkRoutes.forTopology("ring", 7));
+    }
+
+    // A mesh flies anywhere but back to the same airport, and every run picks the same destinations
+    @Test
+    void meshRoutesAreRepeatableAndNeverLoop() {
+        NetworkRoutes routes = NetworkRoutes.forTopology("mesh", 7);
+        NetworkRoutes again = NetworkRoutes.forTopology("mesh", 7);
+        Set<Integer> destinations = new HashSet<>();
+        for (int plane = 0; plane < 200; plane++) {
+            for (int leg = 1; leg <= 3; leg++) {
+                int from = plane % 4;
+                int to = routes.next(from, 4, "P" + plane, leg);
+                assertNotEquals(from, to);
+                assertEquals(to, again.next(from, 4, "P" + plane, leg));
+                destinations.add(to);
+            }
+        }
+        assertEquals(4, destinations.size());
+    }
+
+    // Spokes always fly to the hub, airport 0, and the hub only to spokes
+    @Test
+    void hubRoutesGoThroughTheHub() {
+        NetworkRoutes routes = NetworkRoutes.forTopology("hub", 7);
+        assertTrue(routes.isHub());
+        for (int plane = 0; plane < 100; plane++) {
+            assertEquals(0, routes.next(1 + plane % 3, 4, "P" + plane, 1));
+            int spoke = routes.next(0, 4, "P" + plane, 2);
+            assertTrue(spoke >= 1 && spoke < 4, "spoke " + spoke);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ParallelNetworkSimulationTest {
+    private static final String[] CODES = NetworkRoutes.parseAirports("4");
+    private static final int PLANES = 40;
+    private static final int LEGS = 3;
+
+    private static ParallelNetworkSimulation.Result run(String topology, int workers) throws Exception {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (int i = 0; i < CODES.length; i++) {
+            scenarios.add(new Scenario(7 + i, PLANES));
+        }
+        return new ParallelNetworkSimulation(CODES, scenarios, NetworkRoutes.forTopology(topology, 7), LEGS, 60_000)
+                .run(workers);
+    }
+
+    // Every plane flies all its legs, and the windows, times and waits do not depend on the worker count
+    @ParameterizedTest
+    @ValueSource(strings = {"mesh", "hub"})
+    void everyWorkerCountGivesTheSameRun(String topology) throws Exception {
+        ParallelNetworkSimulation.Result sequential = run(topology, 1);
+        assertEquals(CODES.length * PLANES * LEGS, sequential.getFlights());
+        for (int workers : new int[] {2, 4}) {
+            ParallelNetworkSimulation.Result parallel = run(topology, workers);
+            assertEquals(sequential.getWindows(), parallel.getWindows(), workers + " workers");
+            assertEquals(sequential.getFlights(), parallel.getFlights(), workers + " workers");
+            assertEquals(sequential.getSimulationTime(), parallel.getSimulationTime(), workers + " workers");
+            assertEquals(sequential.getTotalWait(), parallel.getTotalWait(), workers + " workers");
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PlaneTest {
+    private static final long SEED = 7;
+
+    @BeforeEach
+    void quiet() {
+        AirportLog.setQuiet(true);
+    }
+
+    @AfterEach
+    void loud() {
+        AirportLog.setQuiet(false);
+    }
+
+    // Short phases in the sun, with a 400 ms refuel that makes the turnaround the longest stage
+    private static Scenario scenario(int planes, long stageTimeout) {
+        Map<String, String> settings = new HashMap<>();
+        for (String phase : new String[] {"landing-time", "coast-to-gate-time", "refill-time", "cleaning-time",
+                "disembark-time", "embark-time", "undock-time", "coast-to-runway-time"}) {
+            settings.put(phase, "10");
+        }
+        settings.put("refuel-time", "400");
+        settings.put("weather", "fixed");
+        settings.put("weather-sequence", "sunny:1000");
+        settings.put("stage-timeout", Long.toString(stageTimeout));
+        Scenario scenario = new Scenario(SEED, planes);
+        return scenario.withConfig(scenario.getConfig().with(settings));
+    }
+
+    private static AsiaPacificAirport airport(Scenario scenario) {
+        return new AsiaPacificAirport("APA", scenario.getConfig(), scenario.weatherForecast());
+    }
+
+    // The caller stops waiting once the turnaround overruns, but the plane still departs and frees its gate
+    @Test
+    void stageTimeoutFailsTheFutureButNotTheVisit() throws Exception {
+        AsiaPacificAirport airport = airport(scenario(1, 200));
+        ExecutorService planes = ExecutionMode.PLATFORM.newExecutor("Plane", 0);
+        ExecutorService groundServices = ExecutionMode.PLATFORM.newExecutor("GroundService", airport.getGroundCrewCount());
+        airport.setGroundServicesExecutor(groundServices);
+        try {
+            Plane plane = new Plane(airport, "A1", 100, false);
+            ExecutionException e = assertThrows(ExecutionException.class, () -> plane.fly(planes).get(5, TimeUnit.SECONDS));
+            assertInstanceOf(TimeoutException.class, e.getCause());
+            assertTrue(e.getCause().getMessage().contains("turnaround"), e.getCause().getMessage());
+            assertEquals(1, airport.getStatistics().getStageTimeouts());
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (airport.getStatistics().getPlanesServed() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, airport.getStatistics().getPlanesServed());
+            assertEquals(0, airport.getStatistics().getWithdrawals());
+        } finally {
+            planes.shutdownNow();
+            groundServices.shutdownNow();
+            airport.stopLockMonitor();
+        }
+    }
+
+    @Test
+    void planeWithinTheStageTimeoutCompletes() throws Exception {
+        AsiaPacificAirport airport = airport(scenario(1, 2000));
+        ExecutorService planes = ExecutionMode.PLATFORM.newExecutor("Plane", 0);
+        ExecutorService groundServices = ExecutionMode.PLATFORM.newExecutor("GroundService", airport.getGroundCrewCount());
+        airport.setGroundServicesExecutor(groundServices);
+        try {
+            Plane plane = new Plane(airport, "A1", 100, false);
+            assertSame(plane, plane.fly(planes).get(5, TimeUnit.SECONDS));
+            assertEquals(0, airport.getStatistics().getStageTimeouts());
+        } finally {
+            planes.shutdownNow();
+            groundServices.shutdownNow();
+            airport.stopLockMonitor();
+        }
+    }
+
+    // The virtual clock counts the same overruns: every plane's turnaround takes at least the 400 ms refuel
+    @Test
+    void simulationCountsStageTimeouts() {
+        assertEquals(5, new DiscreteEventSimulation(scenario(5, 200)).run().getStageTimeouts());
+        assertEquals(0, new DiscreteEventSimulation(scenario(5, 60_000)).run().getStageTimeouts());
+    }
+}
@@ -0,0 +1,80 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RunJournalTest {
+    private static void assertSameHistogram(LatencyHistogram expected, LatencyHistogram actual) {
+        assertEquals(expected.getCount(), actual.getCount(), expected.getName() + " count");
+        assertEquals(expected.getTotal(), actual.getTotal(), expected.getName() + " total");
+        assertEquals(expected.getMax(), actual.getMax(), expected.getName() + " max");
+    }
+
+    // A journaled discrete-event day replays to the statistics the run itself reported
+    @Test
+    void replayRebuildsTheRunsStatistics(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("run.journal");
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(new Scenario(7, 200));
+        long written;
+        try (RunJournal journal = new RunJournal(file, 0)) {
+            simulation.setJournal(journal);
+            simulation.run();
+            written = journal.getRecordCount();
+            assertEquals(0, journal.getDroppedRecords());
+        }
+        AirportStatistics statistics = simulation.getStatistics();
+
+        JournalReplay replay = new JournalReplay(false);
+        replay.read(file);
+        assertEquals(written, replay.getRecords());
+        assertEquals(statistics.getPlanesServed(), replay.getPlanesServed());
+        assertSameHistogram(statistics.getWaitingTimes(), replay.getWaitingTimes());
+        assertSameHistogram(statistics.getTurnaroundTimes(), replay.getTurnaroundTimes());
+        assertSameHistogram(statistics.getGateOccupancy(), replay.getGateOccupancy());
+        assertSameHistogram(statistics.getRunwayOccupancy(), replay.getRunwayOccupancy());
+        assertEquals(statistics.getWeatherHolds(), replay.getWeatherHolds().getCount());
+        assertEquals(statistics.getTotalWeatherHoldTime(), replay.getWeatherHolds().getTotal());
+    }
+
+    // Hand-written records replay field by field; a plane ID longer than the text field is cut rather
+    // than spilling into the next record
+    @Test
+    void recordsAreReadBackFieldByField(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("run.journal");
+        try (RunJournal journal = new RunJournal(file, 1000)) {
+            int plane = journal.registerPlane("A-VERY-LONG-PLANE-ID", 180, LandingPriority.MEDICAL, 1000);
+            journal.record(RunJournal.Type.REQUESTED, plane, 1000, 0, 0);
+            journal.record(RunJournal.Type.GATE_ASSIGNED, plane, 1500, 2, 0);
+            journal.record(RunJournal.Type.CLEARED, plane, 2000, 2, 1000);
+            journal.record(RunJournal.Type.LEFT_GATE, plane, 9500, 2, 0);
+            journal.record(RunJournal.Type.DEPARTED, plane, 10_000, 0, 0);
+            assertEquals(7, journal.getRecordCount()); // Header, plane and five events
+        }
+
+        JournalReplay replay = new JournalReplay(false);
+        replay.read(file);
+        assertEquals(7, replay.getRecords());
+        assertEquals(1, replay.getPlanesServed());
+        assertEquals(1000, replay.getWaitingTimes().getTotal());
+        assertEquals(9000, replay.getTurnaroundTimes().getTotal());
+        assertEquals(8000, replay.getGateOccupancy().getTotal());
+    }
+
+    @Test
+    void otherFilesAreRejected(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("not.journal");
+        byte[] bytes = new byte[RunJournal.RECORD_SIZE];
+        bytes[16] = 1; // Looks like a record, but not a header
+        Files.write(file, bytes);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new JournalReplay(false).read(file));
+        assertTrue(e.getMessage().contains("is not a run journal"), e.getMessage());
+    }
+}
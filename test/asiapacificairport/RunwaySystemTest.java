@@ -0,0 +1,140 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RunwaySystemTest {
+    private static final Runway.Movement ARRIVAL = Runway.Movement.ARRIVAL;
+    private static final Runway.Movement DEPARTURE = Runway.Movement.DEPARTURE;
+
+    // One movement from start to end on whichever runway the system picks
+    private static Runway move(RunwaySystem system, Runway.Movement movement, long start, long end) {
+        Runway runway = system.choose(movement, start);
+        runway.occupy(movement, start);
+        runway.vacate(end);
+        return runway;
+    }
+
+    @Test
+    void nextMovementWaitsOutTheSeparation() {
+        RunwaySystem system = RunwaySystem.parse("mixed", 500);
+        Runway runway = move(system, ARRIVAL, 0, 1000);
+
+        assertNull(system.choose(ARRIVAL, 1200));
+        assertNull(system.choose(DEPARTURE, 1499));
+        assertEquals(1500, system.nextReadyTime(ARRIVAL));
+        assertSame(runway, system.choose(DEPARTURE, 1500));
+    }
+
+    @Test
+    void occupiedRunwayIsNeverChosen() {
+        RunwaySystem system = RunwaySystem.parse("mixed", 0);
+        Runway runway = system.choose(ARRIVAL, 0);
+        runway.occupy(ARRIVAL, 0);
+
+        assertNull(system.choose(DEPARTURE, 10_000));
+        assertEquals(Long.MAX_VALUE, system.nextReadyTime(DEPARTURE));
+        assertEquals(1000, runway.vacate(1000));
+        assertSame(runway, system.choose(DEPARTURE, 1000));
+    }
+
+    @Test
+    void dedicatedRunwaysAreUsedBeforeMixedOnes() {
+        RunwaySystem system = RunwaySystem.parse("mixed,arrival,departure", 0);
+        assertEquals(2, system.choose(ARRIVAL, 0).getNumber());
+        assertEquals(3, system.choose(DEPARTURE, 0).getNumber());
+
+        // A mixed runway that is already clear still loses to a dedicated one waiting out its separation
+        RunwaySystem separated = RunwaySystem.parse("mixed,arrival", 500);
+        move(separated, ARRIVAL, 0, 1000);
+        assertEquals(1, separated.choose(ARRIVAL, 1200).getNumber());
+        assertEquals(2, separated.choose(ARRIVAL, 1500).getNumber());
+    }
+
+    @Test
+    void runwayThatClearsSeparationFirstWins() {
+        RunwaySystem system = RunwaySystem.parse("mixed,mixed", 500);
+        Runway first = move(system, ARRIVAL, 0, 1000);
+        Runway second = move(system, ARRIVAL, 0, 800);
+        assertEquals(2, second.getNumber());
+        first.occupy(ARRIVAL, 1000);
+        first.vacate(1100); // Clears at 1600, the second runway at 1300
+        assertEquals(1300, system.nextReadyTime(DEPARTURE));
+        assertSame(second, system.choose(DEPARTURE, 1700));
+    }
+
+    @Test
+    void mixedRunwayAlternatesWhenBothMovementsWait() {
+        RunwaySystem system = RunwaySystem.parse("mixed", 0);
+        move(system, ARRIVAL, 0, 1000);
+
+        // Nobody is waiting to depart: arrivals may go back to back
+        system.startWaiting(ARRIVAL);
+        assertTrue(system.choose(ARRIVAL, 1000) != null);
+
+        // A waiting departure gets the runway before the next arrival
+        system.startWaiting(DEPARTURE);
+        assertNull(system.choose(ARRIVAL, 1000));
+        assertEquals(Long.MAX_VALUE, system.nextReadyTime(ARRIVAL));
+        Runway runway = system.choose(DEPARTURE, 1000);
+        runway.occupy(DEPARTURE, 1000);
+        system.stopWaiting(DEPARTURE);
+        runway.vacate(1500);
+        assertSame(runway, system.choose(ARRIVAL, 1500));
+    }
+
+    @Test
+    void layoutNeedsARunwayForEveryMovement() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> RunwaySystem.parse("arrival", 0));
+        assertTrue(e.getMessage().contains("DEPARTURE"), e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> RunwaySystem.parse("mixed,taxiway", 0));
+        assertEquals(3, RunwaySystem.parse("arrival, departure ,mixed", 0).getRunways().size());
+    }
+
+    // Every movement in a discrete-event day starts at least runway-separation ms after the one before it
+    // on the same runway ended, read back from the run's journal
+    @Test
+    void simulatedDayKeepsTheSeparation(@TempDir Path directory) throws IOException {
+        long separation = 700;
+        Scenario scenario = new Scenario(7, 12);
+        scenario = scenario.withConfig(scenario.getConfig().with("runway-separation", Long.toString(separation)));
+        Path file = directory.resolve("run.journal");
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(scenario);
+        try (RunJournal journal = new RunJournal(file, 0)) {
+            simulation.setJournal(journal);
+            simulation.run();
+        }
+
+        ByteBuffer records = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        Map<Integer, Long> vacated = new HashMap<>();
+        int movements = 0;
+        for (int offset = RunJournal.RECORD_SIZE; offset < records.limit(); offset += RunJournal.RECORD_SIZE) {
+            RunJournal.Type type = RunJournal.Type.fromCode(records.getShort(offset + 16));
+            long time = records.getLong(offset);
+            int runway = records.getShort(offset + 18);
+            if (type == RunJournal.Type.RUNWAY_OCCUPIED) {
+                Long previous = vacated.get(runway);
+                assertTrue(previous == null || time >= previous + separation,
+                        "Runway " + runway + " occupied at " + time + " ms, vacated at " + previous + " ms");
+                movements++;
+            } else if (type == RunJournal.Type.RUNWAY_VACATED) {
+                vacated.put(runway, time);
+            }
+        }
+        assertEquals(24, movements); // 12 arrivals and 12 departures
+    }
+}
@@ -0,0 +1,258 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ScenarioLoaderTest {
+    @TempDir
+    Path directory;
+
+    // Write a scenario file from its lines
+    private Path scenario(String... lines) throws IOException {
+        Path file = directory.resolve("scenario.txt");
+        Files.write(file, List.of(lines), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static List<Scenario.Arrival> arrivals(Scenario scenario) {
+        List<Scenario.Arrival> arrivals = new ArrayList<>();
+        scenario.arrivals().forEachRemaining(arrivals::add);
+        return arrivals;
+    }
+
+    @Test
+    void settingsBecomeTheConfigurationAndTheFileSeedWins() throws IOException {
+        Path file = scenario(
+                "# Busy day",
+                "seed = 42",
+                "gates = 6   # More than the default",
+                "",
+                "landing-time=500",
+                "[arrivals]");
+        Scenario scenario = ScenarioLoader.load(file, 7);
+
+        assertEquals(42, scenario.getSeed());
+        assertEquals(6, scenario.getConfig().getGates());
+        assertEquals(500, scenario.getConfig().getLandingTime());
+        assertFalse(scenario.arrivals().hasNext());
+    }
+
+    @Test
+    void defaultSeedAppliesWithoutOneInTheFile() throws IOException {
+        assertEquals(7, ScenarioLoader.load(scenario("gates = 2", "[arrivals]"), 7).getSeed());
+    }
+
+    @Test
+    void settingLineWithoutEqualsFails() throws IOException {
+        Path file = scenario("gates = 2", "gates 3", "[arrivals]");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> ScenarioLoader.load(file, 7));
+        assertTrue(e.getMessage().contains(":2: expected key = value"), e.getMessage());
+    }
+
+    @Test
+    void singleArrivalsAndClockDirectives() throws IOException {
+        Path file = scenario(
+                "[arrivals]",
+                "arrival id=VIP1 passengers=8",
+                "wait 1000",
+                "emergency passengers=12-12",
+                "at 5000",
+                "emergency priority=medical passengers=3",
+                "at 100                       # Never goes back",
+                "arrival passengers=4 priority=normal");
+        List<Scenario.Arrival> arrivals = arrivals(ScenarioLoader.load(file, 7));
+
+        assertEquals(4, arrivals.size());
+        assertArrival(arrivals.get(0), 0, "VIP1", 8, LandingPriority.NORMAL);
+        assertArrival(arrivals.get(1), 1000, "P2", 12, LandingPriority.FUEL_CRITICAL);
+        assertArrival(arrivals.get(2), 5000, "P3", 3, LandingPriority.MEDICAL);
+        assertArrival(arrivals.get(3), 5000, "P4", 4, LandingPriority.NORMAL);
+    }
+
+    @Test
+    void burstAndUniformSpaceTheirPlanesByTheGap() throws IOException {
+        Path file = scenario(
+                "[arrivals]",
+                "burst count=3 gap=500 passengers=10",
+                "uniform count=20 gap=100-200 passengers=20-30");
+        List<Scenario.Arrival> arrivals = arrivals(ScenarioLoader.load(file, 7));
+
+        assertEquals(23, arrivals.size());
+        assertEquals(0, arrivals.get(0).getTime());
+        assertEquals(500, arrivals.get(1).getTime());
+        assertEquals(1000, arrivals.get(2).getTime());
+        assertEquals(1500, arrivals.get(3).getTime());
+        for (int i = 3; i < arrivals.size(); i++) {
+            Scenario.Arrival arrival = arrivals.get(i);
+            assertEquals("P" + (i + 1), arrival.getPlaneID());
+            assertTrue(arrival.getPassengers() >= 20 && arrival.getPassengers() <= 30);
+            if (i > 3) {
+                long gap = arrival.getTime() - arrivals.get(i - 1).getTime();
+                assertTrue(gap >= 100 && gap <= 200, "gap " + gap);
+            }
+        }
+    }
+
+    @Test
+    void poissonArrivalsAreOrderedAndRepeatableForASeed() throws IOException {
+        Path file = scenario("[arrivals]", "poisson rate=3600 count=500");
+        Scenario scenario = ScenarioLoader.load(file, 7);
+        List<Scenario.Arrival> first = arrivals(scenario);
+        List<Scenario.Arrival> second = arrivals(scenario);
+
+        assertEquals(500, first.size());
+        long previous = 0;
+        for (int i = 0; i < first.size(); i++) {
+            Scenario.Arrival arrival = first.get(i);
+            assertTrue(arrival.getTime() >= previous);
+            assertTrue(arrival.getPassengers() >= 1 && arrival.getPassengers() <= 50); // Default passengers
+            previous = arrival.getTime();
+            assertEquals(arrival.getTime(), second.get(i).getTime());
+            assertEquals(arrival.getPassengers(), second.get(i).getPassengers());
+        }
+        // One plane a second on average
+        double meanGap = (double) previous / (first.size() - 1);
+        assertTrue(meanGap > 800 && meanGap < 1200, "mean gap " + meanGap);
+    }
+
+    @Test
+    void unknownDirectiveFailsWithItsLine() throws IOException {
+        Path file = scenario("gates = 2", "[arrivals]", "arrival", "hover count=3");
+        Iterator<Scenario.Arrival> arrivals = ScenarioLoader.load(file, 7).arrivals();
+        arrivals.next();
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, arrivals::hasNext);
+        assertTrue(e.getMessage().endsWith(":4: unknown directive: hover"), e.getMessage());
+        ((Closeable) arrivals).close();
+    }
+
+    @Test
+    void missingOptionFails() throws IOException {
+        Path file = scenario("[arrivals]", "poisson count=3");
+        Iterator<Scenario.Arrival> arrivals = ScenarioLoader.load(file, 7).arrivals();
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, arrivals::next);
+        assertTrue(e.getMessage().endsWith(":2: poisson needs rate"), e.getMessage());
+        ((Closeable) arrivals).close();
+    }
+
+    // A rate of 0 would put the next plane infinitely far away and hang the run
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-60", "NaN", "Infinity"})
+    void poissonRateMustBePositive(String rate) throws IOException {
+        Path file = scenario("[arrivals]", "arrival", "poisson rate=" + rate + " count=3");
+        Iterator<Scenario.Arrival> arrivals = ScenarioLoader.load(file, 7).arrivals();
+        arrivals.next();
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, arrivals::hasNext);
+        assertTrue(e.getMessage().endsWith(":3: poisson rate must be above 0, got: " + rate), e.getMessage());
+        ((Closeable) arrivals).close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"poisson rate=60 count=-1", "uniform count=-1 gap=0-10", "burst count=-5 gap=10"})
+    void negativeCountFails(String directive) throws IOException {
+        Path file = scenario("[arrivals]", directive);
+        Iterator<Scenario.Arrival> arrivals = ScenarioLoader.load(file, 7).arrivals();
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, arrivals::hasNext);
+        assertTrue(e.getMessage().contains(":2: ") && e.getMessage().contains("count must not be negative"), e.getMessage());
+        ((Closeable) arrivals).close();
+    }
+
+    @Test
+    void zeroCountAndZeroWaitAddNoPlanes() throws IOException {
+        Path file = scenario("[arrivals]", "burst count=0 gap=10", "wait 0", "arrival");
+        List<Scenario.Arrival> arrivals = arrivals(ScenarioLoader.load(file, 7));
+        assertEquals(1, arrivals.size());
+        assertArrival(arrivals.get(0), 0, "P1", arrivals.get(0).getPassengers(), LandingPriority.NORMAL);
+    }
+
+    @Test
+    void negativeWaitFails() throws IOException {
+        Path file = scenario("[arrivals]", "wait -100");
+        Iterator<Scenario.Arrival> arrivals = ScenarioLoader.load(file, 7).arrivals();
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, arrivals::hasNext);
+        assertTrue(e.getMessage().endsWith(":2: wait must not be negative, got: -100"), e.getMessage());
+        ((Closeable) arrivals).close();
+    }
+
+    @Test
+    void repeatedPlaneIdFailsWithItsLine() throws IOException {
+        Path file = scenario("[arrivals]", "arrival id=VIP1", "wait 100", "emergency id=VIP1");
+        Iterator<Scenario.Arrival> arrivals = ScenarioLoader.load(file, 7).arrivals();
+        assertEquals("VIP1", arrivals.next().getPlaneID());
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, arrivals::next);
+        assertTrue(e.getMessage().endsWith(":4: plane id VIP1 is used more than once"), e.getMessage());
+        ((Closeable) arrivals).close();
+    }
+
+    @Test
+    void idOnADirectiveWithSeveralPlanesFails() throws IOException {
+        Path file = scenario("[arrivals]", "burst count=2 gap=10 id=VIP1");
+        Iterator<Scenario.Arrival> arrivals = ScenarioLoader.load(file, 7).arrivals();
+        arrivals.next();
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, arrivals::next);
+        assertTrue(e.getMessage().endsWith(":2: plane id VIP1 is used more than once"), e.getMessage());
+        ((Closeable) arrivals).close();
+    }
+
+    // Planes without an id are named P1, P2, ... by position, so an explicit id of that form could clash
+    @Test
+    void generatedStyleIdFails() throws IOException {
+        Path file = scenario("[arrivals]", "arrival", "arrival id=P1");
+        Iterator<Scenario.Arrival> arrivals = ScenarioLoader.load(file, 7).arrivals();
+        arrivals.next();
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, arrivals::hasNext);
+        assertTrue(e.getMessage().endsWith(":3: plane id P1 is reserved for planes without an id"), e.getMessage());
+        ((Closeable) arrivals).close();
+    }
+
+    @Test
+    void unknownSettingFails() throws IOException {
+        Path file = scenario("gates = 2", "landing-tme = 500", "[arrivals]");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> ScenarioLoader.load(file, 7));
+        assertEquals("Unknown setting: landing-tme", e.getMessage());
+    }
+
+    @Test
+    void unknownPriorityFails() throws IOException {
+        Path file = scenario("[arrivals]", "emergency priority=bird-strike");
+        Iterator<Scenario.Arrival> arrivals = ScenarioLoader.load(file, 7).arrivals();
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, arrivals::hasNext);
+        assertTrue(e.getMessage().endsWith(":2: unknown priority: bird-strike"), e.getMessage());
+        ((Closeable) arrivals).close();
+    }
+
+    @Test
+    void streamClosedEarlyStopsAndClosesAgainQuietly() throws IOException {
+        Path file = scenario("[arrivals]", "burst count=10 gap=1");
+        Iterator<Scenario.Arrival> arrivals = ScenarioLoader.load(file, 7).arrivals();
+        Closeable stream = assertInstanceOf(Closeable.class, arrivals);
+        arrivals.next();
+
+        stream.close();
+        assertFalse(arrivals.hasNext());
+        stream.close();
+    }
+
+    private static void assertArrival(Scenario.Arrival arrival, long time, String planeID, int passengers, LandingPriority priority) {
+        assertEquals(time, arrival.getTime());
+        assertEquals(planeID, arrival.getPlaneID());
+        assertEquals(passengers, arrival.getPassengers());
+        assertEquals(priority, arrival.getPriority());
+    }
+}
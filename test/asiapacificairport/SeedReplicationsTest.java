@@ -0,0 +1,33 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class SeedReplicationsTest {
+    private static final Scenario SCENARIO = new Scenario(11, 40);
+
+    // A seed's timeline does not depend on how many runs share the pool or which thread runs it
+    @Test
+    void replicationsAreTheSameOnAnyNumberOfThreads() throws Exception {
+        List<SeedReplications.Run> serial = SeedReplications.replicate(SCENARIO, 6, 1);
+        List<SeedReplications.Run> parallel = SeedReplications.replicate(SCENARIO, 6, 4);
+        assertEquals(6, parallel.size());
+        for (int i = 0; i < serial.size(); i++) {
+            assertEquals(11 + i, parallel.get(i).getSeed()); // In seed order, whatever finished first
+            assertEquals(serial.get(i).getFingerprint(), parallel.get(i).getFingerprint(), "seed " + (11 + i));
+        }
+        assertEquals(serial.get(0).getFingerprint(), SeedReplications.run(SCENARIO).getFingerprint());
+    }
+
+    // Different seeds give different days, or the confidence interval would be measuring nothing
+    @Test
+    void consecutiveSeedsGiveDifferentTimelines() throws Exception {
+        List<SeedReplications.Run> runs = SeedReplications.replicate(SCENARIO, 3, 3);
+        assertNotEquals(runs.get(0).getFingerprint(), runs.get(1).getFingerprint());
+        assertNotEquals(runs.get(1).getFingerprint(), runs.get(2).getFingerprint());
+    }
+}
@@ -0,0 +1,106 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class UtilisationSamplerTest {
+    private static final Weather.WeatherCondition SUNNY = Weather.WeatherCondition.SUNNY;
+
+    private static UtilisationSampler sampler(long interval, int capacity) {
+        Map<String, String> settings = new HashMap<>();
+        settings.put("sample-interval", Long.toString(interval));
+        settings.put("sample-capacity", Integer.toString(capacity));
+        settings.put("gates", "2");
+        return new UtilisationSampler(AirportConfig.defaults().with(settings));
+    }
+
+    @Test
+    void samplingOffRecordsNothing() {
+        UtilisationSampler sampler = sampler(0, 1000);
+        sampler.record(0, 5, 0, 2, 2, 1, SUNNY);
+        assertEquals(0, sampler.size());
+        assertEquals(0, sampler.getSamplesTaken());
+        assertTrue(sampler.findCongestionWindows().isEmpty());
+    }
+
+    @Test
+    void fullRingKeepsTheNewestSamples(@TempDir Path directory) throws IOException {
+        UtilisationSampler sampler = sampler(100, 3);
+        for (int i = 0; i < 5; i++) {
+            sampler.record(i * 100, i, 0, 1, 1, 0, SUNNY);
+        }
+        assertEquals(3, sampler.size());
+        assertEquals(5, sampler.getSamplesTaken());
+
+        // The export leaves out the oldest slot of a full ring, which the writer could be rewriting
+        Path file = directory.resolve("samples.csv");
+        sampler.export(file);
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+        assertEquals("300,3,0,1,1,0,Sunny", lines.get(1));
+        assertEquals("400,4,0,1,1,0,Sunny", lines.get(2));
+    }
+
+    // Every gate taken with planes queued, longest window first, each ending one interval after its last sample
+    @Test
+    void congestionWindowsAreFoundLongestFirst() {
+        UtilisationSampler sampler = sampler(100, 100);
+        int[][] samples = {{0, 1}, {2, 1}, {2, 0}, {2, 3}, {2, 5}, {2, 2}, {1, 4}, {2, 1}};
+        for (int i = 0; i < samples.length; i++) {
+            sampler.record(i * 100, samples[i][1], 0, samples[i][0], samples[i][0], 0, SUNNY);
+        }
+        List<UtilisationSampler.CongestionWindow> windows = sampler.findCongestionWindows();
+        assertEquals(3, windows.size());
+        assertEquals(300, windows.get(0).getStart());
+        assertEquals(600, windows.get(0).getEnd());
+        assertEquals(5, windows.get(0).getPeakQueue());
+        assertEquals(100, windows.get(1).getLength());
+    }
+
+    // A snapshot taken while the writer wraps the ring holds only whole samples, in order
+    @Test
+    void snapshotWhileWritingIsNeverTorn(@TempDir Path directory) throws IOException, InterruptedException {
+        UtilisationSampler sampler = sampler(1, 64);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; running.get(); i++) {
+                sampler.record(i, i, i, i, i, i, SUNNY);
+            }
+        });
+        writer.start();
+        Path file = directory.resolve("samples.csv");
+        try {
+            for (int round = 0; round < 500; round++) {
+                sampler.export(file); // Exports a snapshot
+                assertWholeSamples(Files.readAllLines(file));
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+
+    private static void assertWholeSamples(List<String> lines) {
+        long previous = -1;
+        for (String line : lines.subList(1, lines.size())) {
+            String[] fields = line.split(",");
+            long time = Long.parseLong(fields[0]);
+            for (int field = 1; field < 6; field++) {
+                assertEquals(time, Long.parseLong(fields[field]), "torn sample: " + line);
+            }
+            assertTrue(previous < 0 || time == previous + 1, "samples out of order: " + previous + ", " + time);
+            previous = time;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class WeatherForecastTest {
+    // Rain for 3000 ms, then sun for 2000 ms, in a loop
+    private static WeatherForecast forecast(long horizon) {
+        Map<String, String> settings = new HashMap<>();
+        settings.put("weather", "sequence");
+        settings.put("weather-sequence", "rainy:3000, sunny:2000");
+        return new WeatherForecast(new WeatherTimeline(0, AirportConfig.defaults().with(settings)), horizon);
+    }
+
+    @Test
+    void clearingIsSeenOnlyWithinTheHorizon() {
+        assertEquals(3000, forecast(5000).clearsAt(0));
+        assertEquals(Long.MAX_VALUE, forecast(2000).clearsAt(0));
+        assertEquals(3000, forecast(2000).clearsAt(1000));
+    }
+
+    @Test
+    void sunnyWeatherClearsNow() {
+        WeatherForecast forecast = forecast(1000);
+        assertEquals(3000, forecast.clearsAt(2500));
+        assertEquals(4000, forecast.clearsAt(4000));
+        assertEquals(Long.MAX_VALUE, forecast.clearsAt(5500)); // Raining again until 8000
+        assertEquals(8000, forecast.clearsAt(7500));
+    }
+
+    // The driver gets the same changes whether or not anyone reads ahead
+    @Test
+    void readingAheadLeavesTheActualWeatherAlone() {
+        WeatherForecast ahead = forecast(60_000);
+        WeatherForecast plain = forecast(0);
+        ahead.clearsAt(0);
+        for (int i = 0; i < 10; i++) {
+            WeatherTimeline.Change expected = plain.next();
+            WeatherTimeline.Change actual = ahead.next();
+            assertEquals(expected.getDelayBefore(), actual.getDelayBefore());
+            assertEquals(expected.getCondition(), actual.getCondition());
+        }
+    }
+
+    // Holds only end early when the weather clears within their delay: a longer forecast shortens them
+    // up to the longest delay, 7000 ms for a thunderstorm, and makes no difference beyond it
+    @Test
+    void horizonsPastTheLongestDelayChangeNothing() {
+        Scenario scenario = new Scenario(7, 60);
+        long[] holds = new long[4];
+        long[] horizons = {0, 4000, 7000, 60_000};
+        for (int i = 0; i < horizons.length; i++) {
+            AirportConfig config = scenario.getConfig().with("weather-forecast-horizon", Long.toString(horizons[i]));
+            holds[i] = new DiscreteEventSimulation(scenario.withConfig(config)).run().getTotalWeatherHoldTime();
+        }
+        assertTrue(holds[1] < holds[0], holds[1] + " ms held with a forecast, " + holds[0] + " ms without");
+        assertTrue(holds[2] <= holds[1], holds[2] + " ms held at 7000 ms, " + holds[1] + " ms at 4000 ms");
+        assertEquals(holds[2], holds[3]);
+    }
+}
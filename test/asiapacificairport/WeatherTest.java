@@ -0,0 +1,86 @@
+package asiapacificairport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WeatherTest {
+    private AirportStatistics statistics;
+    private Weather weather;
+
+    // A weather thread that is never started, the test changes the weather itself
+    @BeforeEach
+    void setUp() {
+        AirportLog.setQuiet(true);
+        Map<String, String> settings = new HashMap<>();
+        settings.put("thunderstorm-delay", "5000");
+        settings.put("rainy-delay", "400");
+        statistics = new AirportStatistics();
+        weather = new Weather(AirportConfig.defaults().with(settings), statistics, 7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        AirportLog.setQuiet(false);
+    }
+
+    // Hold one plane for departure on another thread, completing with how long it was held
+    private CompletableFuture<Long> departure() throws InterruptedException {
+        CompletableFuture<Long> held = CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                weather.waitForWeatherDeparture("P1");
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        });
+        Thread.sleep(100); // Let it start holding
+        return held;
+    }
+
+    @Test
+    void sunnyWeatherReleasesAHoldAtOnce() throws Exception {
+        weather.changeWeather(Weather.WeatherCondition.THUNDERSTORM);
+        CompletableFuture<Long> held = departure();
+        weather.changeWeather(Weather.WeatherCondition.SUNNY);
+        assertTrue(held.get(2, TimeUnit.SECONDS) < 1000);
+        assertEquals(1, statistics.getWeatherHolds());
+    }
+
+    @Test
+    void milderWeatherCutsAHoldToItsDelay() throws Exception {
+        weather.changeWeather(Weather.WeatherCondition.THUNDERSTORM);
+        CompletableFuture<Long> held = departure();
+        weather.changeWeather(Weather.WeatherCondition.RAINY); // 400 ms from the start of the hold, not 5000
+        long hold = held.get(2, TimeUnit.SECONDS);
+        assertTrue(hold >= 390 && hold < 1500, hold + " ms");
+    }
+
+    @Test
+    void milderWeatherWhoseDelayIsOverReleasesAtTheChange() throws Exception {
+        weather.changeWeather(Weather.WeatherCondition.THUNDERSTORM);
+        CompletableFuture<Long> held = departure();
+        Thread.sleep(500);
+        weather.changeWeather(Weather.WeatherCondition.RAINY);
+        long hold = held.get(2, TimeUnit.SECONDS);
+        assertTrue(hold >= 590 && hold < 1500, hold + " ms");
+    }
+
+    @Test
+    void worseWeatherNeverLengthensAHold() throws Exception {
+        weather.changeWeather(Weather.WeatherCondition.RAINY);
+        CompletableFuture<Long> held = departure();
+        weather.changeWeather(Weather.WeatherCondition.THUNDERSTORM);
+        long hold = held.get(2, TimeUnit.SECONDS);
+        assertTrue(hold >= 390 && hold < 1500, hold + " ms");
+    }
+}